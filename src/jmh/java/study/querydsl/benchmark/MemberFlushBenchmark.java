@@ -0,0 +1,133 @@
+package study.querydsl.benchmark;
+
+import org.hibernate.Session;
+import org.hibernate.SessionFactory;
+import org.hibernate.boot.MetadataSources;
+import org.hibernate.boot.registry.StandardServiceRegistry;
+import org.hibernate.boot.registry.StandardServiceRegistryBuilder;
+import org.hibernate.cfg.AvailableSettings;
+import org.hibernate.engine.spi.SelfDirtinessTracker;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import study.querydsl.entity.Member;
+import study.querydsl.entity.Team;
+
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * member 를 많이 읽고 몇 개만 바꾸는 transaction 의 flush 비용
+ *
+ * <pre>
+ *     - enhancement 없이 : flush 때 읽은 member 전부를 snapshot 과 비교한다.
+ *     - enhancement (dirty tracking) : 바뀐 field 를 기록해 두기 때문에 바뀐 member 만 본다.
+ *     - ./gradlew jmh 와 ./gradlew jmh -PhibernateEnhance 결과를 비교한다.
+ *     - member 를 읽고 바꾸는 건 매 호출 전에 미리 해두고, flush 만 잰다. (rollback 해서 data 는 그대로)
+ * </pre>
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+public class MemberFlushBenchmark {
+
+  private static final int TEAMS = 10;
+
+  @Param({"1000", "10000"})
+  private int loaded;
+
+  @Param({"1", "10"})
+  private int modified;
+
+  private StandardServiceRegistry registry;
+  private SessionFactory sessionFactory;
+
+  private Session session;
+  private List<Member> members;
+
+  @Setup(Level.Trial)
+  public void setUpSessionFactory() {
+    registry =
+        new StandardServiceRegistryBuilder()
+            .applySetting(AvailableSettings.URL, "jdbc:h2:mem:flush;DB_CLOSE_DELAY=-1")
+            .applySetting(AvailableSettings.USER, "sa")
+            .applySetting(AvailableSettings.PASS, "")
+            .applySetting(AvailableSettings.HBM2DDL_AUTO, "create-drop")
+            .applySetting(AvailableSettings.STATEMENT_BATCH_SIZE, "100")
+            .build();
+
+    sessionFactory =
+        new MetadataSources(registry)
+            .addAnnotatedClass(Member.class)
+            .addAnnotatedClass(Team.class)
+            .buildMetadata()
+            .buildSessionFactory();
+
+    System.out.println(
+        "Member enhanced for dirty tracking: "
+            + SelfDirtinessTracker.class.isAssignableFrom(Member.class));
+
+    try (Session seed = sessionFactory.openSession()) {
+      seed.beginTransaction();
+
+      Team[] teams = new Team[TEAMS];
+      for (int i = 0; i < TEAMS; i++) {
+        teams[i] = new Team("team" + i);
+        seed.persist(teams[i]);
+      }
+
+      for (int i = 0; i < loaded; i++) {
+        seed.persist(new Member("member" + i, i, teams[i % TEAMS]));
+
+        if (i % 100 == 99) {
+          seed.flush();
+          seed.clear();
+        }
+      }
+
+      seed.getTransaction().commit();
+    }
+  }
+
+  @TearDown(Level.Trial)
+  public void tearDownSessionFactory() {
+    sessionFactory.close();
+    StandardServiceRegistryBuilder.destroy(registry);
+  }
+
+  /** 매 호출마다 member 를 새로 읽어둔 session 을 준비한다. (측정에서 빠진다) */
+  @Setup(Level.Invocation)
+  public void load() {
+    session = sessionFactory.openSession();
+    session.beginTransaction();
+
+    members =
+        session
+            .createQuery("select m from Member m", Member.class)
+            .setMaxResults(loaded)
+            .getResultList();
+
+    for (int i = 0; i < modified; i++) {
+      Member member = members.get(i * (members.size() / modified));
+      member.setAge(member.getAge() + 1);
+    }
+  }
+
+  @TearDown(Level.Invocation)
+  public void rollback() {
+    session.getTransaction().rollback();
+    session.close();
+  }
+
+  @Benchmark
+  public void flush() {
+    session.flush();
+  }
+}
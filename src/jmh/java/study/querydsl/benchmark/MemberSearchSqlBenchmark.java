@@ -0,0 +1,162 @@
+package study.querydsl.benchmark;
+
+import com.querydsl.jpa.impl.JPAQueryFactory;
+import com.querydsl.sql.H2Templates;
+import com.querydsl.sql.SQLQuery;
+import org.hibernate.Session;
+import org.hibernate.SessionFactory;
+import org.hibernate.boot.MetadataSources;
+import org.hibernate.boot.registry.StandardServiceRegistry;
+import org.hibernate.boot.registry.StandardServiceRegistryBuilder;
+import org.hibernate.cfg.AvailableSettings;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import study.querydsl.dto.MemberTeamDto;
+import study.querydsl.dto.QMemberTeamDto;
+import study.querydsl.entity.Member;
+import study.querydsl.entity.Team;
+
+import java.sql.Connection;
+import java.sql.DriverManager;
+import java.sql.SQLException;
+import java.util.List;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+
+import static study.querydsl.entity.QMember.member;
+import static study.querydsl.entity.QTeam.team;
+import static study.querydsl.repository.sql.QMemberRow.memberRow;
+import static study.querydsl.repository.sql.QTeamRow.teamRow;
+
+/**
+ * 같은 검색을 JPA (querydsl-jpa) 와 JDBC (querydsl-sql) 로 했을 때 query 하나의 CPU / 할당량
+ *
+ * <pre>
+ *     - jpa : JPQL 직렬화 -> query plan cache -> SQL -> Hibernate ResultSet 처리 -> MemberTeamDto
+ *     - sql : SQL 직렬화 -> ResultSet -> MemberTeamDto
+ *     - 할당량은 ./gradlew jmh -PjmhProfilers=gc 의 gc.alloc.rate.norm (byte / query) 으로 본다.
+ *     - DTO projection 이라 영속성 컨텍스트에는 아무것도 올라가지 않는다. (session 하나를 계속 쓴다.)
+ * </pre>
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+public class MemberSearchSqlBenchmark {
+
+  private static final String URL = "jdbc:h2:mem:search-sql;DB_CLOSE_DELAY=-1";
+  private static final int MEMBERS = 10_000;
+  private static final int TEAMS = 100;
+
+  @Param({"10", "100", "1000"})
+  private int limit;
+
+  private StandardServiceRegistry registry;
+  private SessionFactory sessionFactory;
+  private Session session;
+  private JPAQueryFactory jpaQueryFactory;
+
+  private Connection connection;
+  private com.querydsl.sql.Configuration sqlConfiguration;
+
+  @Setup(Level.Trial)
+  public void setUp() throws SQLException {
+    registry =
+        new StandardServiceRegistryBuilder()
+            .applySetting(AvailableSettings.URL, URL)
+            .applySetting(AvailableSettings.USER, "sa")
+            .applySetting(AvailableSettings.PASS, "")
+            .applySetting(AvailableSettings.HBM2DDL_AUTO, "create-drop")
+            .applySetting(AvailableSettings.STATEMENT_BATCH_SIZE, "100")
+            .build();
+
+    sessionFactory =
+        new MetadataSources(registry)
+            .addAnnotatedClass(Member.class)
+            .addAnnotatedClass(Team.class)
+            .buildMetadata()
+            .buildSessionFactory();
+
+    try (Session seed = sessionFactory.openSession()) {
+      seed.beginTransaction();
+
+      Team[] teams = new Team[TEAMS];
+      for (int i = 0; i < TEAMS; i++) {
+        teams[i] = new Team("team" + i);
+        seed.persist(teams[i]);
+      }
+
+      for (int i = 0; i < MEMBERS; i++) {
+        seed.persist(new Member("member" + i, i % 100, teams[i % TEAMS]));
+
+        if (i % 100 == 99) {
+          seed.flush();
+          seed.clear();
+        }
+      }
+
+      seed.getTransaction().commit();
+    }
+
+    session = sessionFactory.openSession();
+    session.setDefaultReadOnly(true);
+    jpaQueryFactory = new JPAQueryFactory(session);
+
+    connection = DriverManager.getConnection(URL, "sa", "");
+    sqlConfiguration = new com.querydsl.sql.Configuration(H2Templates.builder().build());
+  }
+
+  @TearDown(Level.Trial)
+  public void tearDown() throws SQLException {
+    connection.close();
+    session.close();
+    sessionFactory.close();
+    StandardServiceRegistryBuilder.destroy(registry);
+  }
+
+  @Benchmark
+  public List<MemberTeamDto> jpa() {
+    int ageGoe = ThreadLocalRandom.current().nextInt(50);
+
+    return jpaQueryFactory
+        .select(
+            new QMemberTeamDto(
+                member.id.as("memberId"),
+                member.username,
+                member.age,
+                team.id.as("teamId"),
+                team.name.as("teamName")))
+        .from(member)
+        .leftJoin(member.team, team)
+        .where(member.age.goe(ageGoe), member.age.loe(ageGoe + 50))
+        .limit(limit)
+        .fetch();
+  }
+
+  @Benchmark
+  public List<MemberTeamDto> sql() {
+    int ageGoe = ThreadLocalRandom.current().nextInt(50);
+
+    return new SQLQuery<Void>(connection, sqlConfiguration)
+        .select(
+            new QMemberTeamDto(
+                memberRow.memberId,
+                memberRow.username,
+                memberRow.age,
+                teamRow.teamId,
+                teamRow.name))
+        .from(memberRow)
+        .leftJoin(teamRow)
+        .on(memberRow.teamId.eq(teamRow.teamId))
+        .where(memberRow.age.goe(ageGoe), memberRow.age.loe(ageGoe + 50))
+        .limit(limit)
+        .fetch();
+  }
+}
@@ -0,0 +1,83 @@
+package study.querydsl.benchmark;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.module.SimpleModule;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.springframework.data.domain.Page;
+import org.springframework.data.domain.PageImpl;
+import org.springframework.data.domain.PageRequest;
+import study.querydsl.controller.support.MemberTeamJsonComponent;
+import study.querydsl.dto.MemberTeamDto;
+import study.querydsl.dto.MemberTeamPage;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * v2 / v3 응답 직렬화 - PageImpl + bean 직렬화 vs MemberTeamPage + JsonGenerator
+ *
+ * <pre>
+ *     - 시간은 JMH 결과로, page 당 byte 수는 setup 에서 한번 출력한다.
+ * </pre>
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+public class MemberTeamPageJsonBenchmark {
+
+  @Param({"20", "100"})
+  private int pageSize;
+
+  private ObjectMapper beanMapper;
+  private ObjectMapper streamingMapper;
+
+  private Page<MemberTeamDto> page;
+  private MemberTeamPage envelope;
+
+  @Setup(Level.Trial)
+  public void setUp() throws Exception {
+    List<MemberTeamDto> content = new ArrayList<>(pageSize);
+    for (int i = 0; i < pageSize; i++) {
+      long teamId = i % 2;
+      content.add(new MemberTeamDto((long) i, "member" + i, i, teamId, "team" + teamId));
+    }
+
+    page = new PageImpl<>(content, PageRequest.of(3, pageSize), 10_000);
+    envelope = MemberTeamPage.of(page);
+
+    beanMapper = new ObjectMapper();
+
+    SimpleModule module = new SimpleModule();
+    module.addSerializer(MemberTeamDto.class, new MemberTeamJsonComponent.MemberTeamDtoSerializer());
+    module.addSerializer(
+        MemberTeamPage.class, new MemberTeamJsonComponent.MemberTeamPageSerializer());
+    streamingMapper = new ObjectMapper().registerModule(module);
+
+    System.out.println(
+        "bytes per page (size="
+            + pageSize
+            + "): PageImpl="
+            + pageImpl().length
+            + ", MemberTeamPage="
+            + memberTeamPage().length);
+  }
+
+  @Benchmark
+  public byte[] pageImpl() throws Exception {
+    return beanMapper.writeValueAsBytes(page);
+  }
+
+  @Benchmark
+  public byte[] memberTeamPage() throws Exception {
+    return streamingMapper.writeValueAsBytes(envelope);
+  }
+}
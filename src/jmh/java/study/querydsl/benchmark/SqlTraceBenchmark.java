@@ -0,0 +1,104 @@
+package study.querydsl.benchmark;
+
+import com.p6spy.engine.spy.P6DataSource;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.springframework.jdbc.datasource.DriverManagerDataSource;
+import study.querydsl.querystats.SqlTracer;
+import study.querydsl.querystats.TracingDataSource;
+
+import javax.sql.DataSource;
+import java.sql.Connection;
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.sql.Statement;
+import java.time.Duration;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * JDBC interceptor 가 statement 하나에 더하는 비용
+ *
+ * <pre>
+ *     - none : H2 connection 그대로
+ *     - sqltrace : {@link TracingDataSource} (1% sampling, 나머지는 집계만)
+ *     - p6spy : P6DataSource (모든 statement 를 format 해서 file 로 쓴다. 기존 starter 기본 설정과 같은 동작)
+ *     - in-memory H2 의 PK 조회라 DB 시간이 작기 때문에, interceptor 비용이 잘 드러난다.
+ * </pre>
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+public class SqlTraceBenchmark {
+
+  private static final int ROWS = 1000;
+  private static final String QUERY = "select id, name from bench where id = ?";
+
+  @Param({"none", "sqltrace", "p6spy"})
+  private String interceptor;
+
+  private SqlTracer sqlTracer;
+  private Connection connection;
+
+  @Setup(Level.Trial)
+  public void setUp() throws SQLException {
+    System.setProperty("p6spy.config.logfile", "build/jmh-p6spy.log");
+
+    DriverManagerDataSource h2 =
+        new DriverManagerDataSource("jdbc:h2:mem:sqltrace;DB_CLOSE_DELAY=-1", "sa", "");
+
+    try (Connection seed = h2.getConnection();
+        Statement statement = seed.createStatement()) {
+      statement.execute("create table if not exists bench (id bigint primary key, name varchar)");
+      statement.execute("delete from bench");
+
+      for (int i = 0; i < ROWS; i++) {
+        statement.execute("insert into bench values (" + i + ", 'name" + i + "')");
+      }
+    }
+
+    DataSource dataSource;
+    switch (interceptor) {
+      case "sqltrace":
+        sqlTracer = new SqlTracer(0.01, Duration.ofMillis(100), 10_000, 5_000);
+        dataSource = new TracingDataSource(h2, sqlTracer);
+        break;
+      case "p6spy":
+        dataSource = new P6DataSource(h2);
+        break;
+      default:
+        dataSource = h2;
+    }
+
+    connection = dataSource.getConnection();
+  }
+
+  @TearDown(Level.Trial)
+  public void tearDown() throws SQLException {
+    connection.close();
+
+    if (sqlTracer != null) {
+      sqlTracer.destroy();
+    }
+  }
+
+  @Benchmark
+  public String selectById() throws SQLException {
+    try (PreparedStatement statement = connection.prepareStatement(QUERY)) {
+      statement.setLong(1, ThreadLocalRandom.current().nextInt(ROWS));
+
+      try (ResultSet resultSet = statement.executeQuery()) {
+        return resultSet.next() ? resultSet.getString(2) : null;
+      }
+    }
+  }
+}
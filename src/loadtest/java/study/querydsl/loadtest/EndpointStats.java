@@ -0,0 +1,60 @@
+package study.querydsl.loadtest;
+
+import org.HdrHistogram.ConcurrentHistogram;
+import org.HdrHistogram.Histogram;
+
+import java.util.Map;
+import java.util.TreeMap;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+
+/** endpoint 하나의 latency 분포와 오류 수 */
+class EndpointStats {
+
+  private static final long HIGHEST_MICROS = TimeUnit.MINUTES.toMicros(5);
+
+  private final Histogram latency = new ConcurrentHistogram(HIGHEST_MICROS, 3);
+  private final AtomicLong errors = new AtomicLong();
+  private final Map<String, AtomicLong> errorsByCause = new ConcurrentHashMap<>();
+
+  /** @param micros 보내기로 한 시각부터 응답을 다 읽을 때까지 */
+  void success(long micros) {
+    latency.recordValue(Math.min(micros, HIGHEST_MICROS));
+  }
+
+  void error(long micros, String cause) {
+    success(micros);
+    errors.incrementAndGet();
+    errorsByCause.computeIfAbsent(cause, c -> new AtomicLong()).incrementAndGet();
+  }
+
+  String report(String endpoint, double seconds) {
+    long count = latency.getTotalCount();
+
+    if (count == 0) {
+      return String.format("%-4s no requests", endpoint);
+    }
+
+    Map<String, Long> causes = new TreeMap<>();
+    errorsByCause.forEach((cause, n) -> causes.put(cause, n.get()));
+
+    return String.format(
+        "%-4s requests=%d, throughput=%.1f/s, errors=%.2f%% %s%n"
+            + "     latency(ms) p50=%.2f p90=%.2f p99=%.2f p99.9=%.2f max=%.2f",
+        endpoint,
+        count,
+        count / seconds,
+        errors.get() * 100.0 / count,
+        causes.isEmpty() ? "" : causes,
+        millis(latency.getValueAtPercentile(50)),
+        millis(latency.getValueAtPercentile(90)),
+        millis(latency.getValueAtPercentile(99)),
+        millis(latency.getValueAtPercentile(99.9)),
+        millis(latency.getMaxValue()));
+  }
+
+  private static double millis(long micros) {
+    return micros / 1000.0;
+  }
+}
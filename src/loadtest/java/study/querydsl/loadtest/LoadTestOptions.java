@@ -0,0 +1,105 @@
+package study.querydsl.loadtest;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+
+/**
+ * --rate=200 --duration=60s --warmup=10s --seed=10000 --concurrency=64 --page-size=20
+ * --modes=osiv,no-osiv
+ *
+ * <pre>
+ *     - modes 를 주면 mode 마다 application 을 새로 띄워서 같은 부하를 주고 결과를 나란히 출력한다.
+ *       - osiv : spring.jpa.open-in-view=true, no-osiv : spring.jpa.open-in-view=false
+ *     - 모르는 option (--spring.jpa.open-in-view=false 등) 은 application 에 그대로 넘긴다.
+ * </pre>
+ */
+class LoadTestOptions {
+
+  int rate = 100;
+  Duration duration = Duration.ofSeconds(30);
+  Duration warmup = Duration.ofSeconds(10);
+  int seed = 10_000;
+  int concurrency = 64;
+  int pageSize = 20;
+  Duration readyTimeout = Duration.ofMinutes(2);
+
+  final List<String> modes = new ArrayList<>();
+  final List<String> applicationArgs = new ArrayList<>();
+
+  static LoadTestOptions parse(String[] args) {
+    LoadTestOptions options = new LoadTestOptions();
+
+    for (String arg : args) {
+      int eq = arg.indexOf('=');
+      String name = eq > 0 ? arg.substring(0, eq) : arg;
+      String value = eq > 0 ? arg.substring(eq + 1) : "";
+
+      switch (name) {
+        case "--rate":
+          options.rate = Integer.parseInt(value);
+          break;
+        case "--duration":
+          options.duration = duration(value);
+          break;
+        case "--warmup":
+          options.warmup = duration(value);
+          break;
+        case "--seed":
+          options.seed = Integer.parseInt(value);
+          break;
+        case "--concurrency":
+          options.concurrency = Integer.parseInt(value);
+          break;
+        case "--page-size":
+          options.pageSize = Integer.parseInt(value);
+          break;
+        case "--modes":
+          options.modes.addAll(Arrays.asList(value.split(",")));
+          break;
+        case "--ready-timeout":
+          options.readyTimeout = duration(value);
+          break;
+        default:
+          options.applicationArgs.add(arg);
+      }
+    }
+
+    return options;
+  }
+
+  /** 30s, 2m, 500ms */
+  private static Duration duration(String value) {
+    if (value.endsWith("ms")) {
+      return Duration.ofMillis(Long.parseLong(value.substring(0, value.length() - 2)));
+    }
+    if (value.endsWith("s")) {
+      return Duration.ofSeconds(Long.parseLong(value.substring(0, value.length() - 1)));
+    }
+    if (value.endsWith("m")) {
+      return Duration.ofMinutes(Long.parseLong(value.substring(0, value.length() - 1)));
+    }
+    return Duration.ofSeconds(Long.parseLong(value));
+  }
+
+  @Override
+  public String toString() {
+    return "rate="
+        + rate
+        + "/s, duration="
+        + duration
+        + ", warmup="
+        + warmup
+        + ", seed="
+        + seed
+        + ", concurrency="
+        + concurrency
+        + ", pageSize="
+        + pageSize
+        + ", modes="
+        + modes
+        + ", applicationArgs="
+        + applicationArgs;
+  }
+}
@@ -0,0 +1,223 @@
+package study.querydsl.loadtest;
+
+import io.micrometer.core.instrument.MeterRegistry;
+import org.springframework.boot.builder.SpringApplicationBuilder;
+import org.springframework.boot.web.context.WebServerApplicationContext;
+import org.springframework.context.ConfigurableApplicationContext;
+import study.querydsl.QuerydslApplication;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.net.HttpURLConnection;
+import java.net.URL;
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.locks.LockSupport;
+
+/**
+ * member 검색 endpoint (v1 / v2 / v3) 부하 테스트
+ *
+ * <pre>
+ *     - ./gradlew loadTest -PloadTestArgs="--rate=200 --duration=60s --seed=10000"
+ *     - application 을 in-memory H2 + local profile 로 띄우고, seed 가 끝나 readiness 가 UP 이 될 때까지 기다린다.
+ *     - 요청은 정해진 속도 (rate) 로 보낸다. (open model)
+ *       - 응답을 기다렸다가 다음 요청을 보내면 서버가 느려질수록 요청도 줄어 latency 가 실제보다 좋게 나온다. (coordinated omission)
+ *       - latency 는 실제로 보낸 시각이 아니라 보내기로 했던 시각부터 잰다.
+ *     - warmup 구간의 결과는 버리고, 측정 구간의 endpoint 별 처리량 / 오류율 / p50 ~ p99.9 / max 를 출력한다.
+ *     - 측정 구간 동안의 connection pool 사용 (active / pending) 과 endpoint 별 connection 대기 / 점유 시간도 출력한다.
+ *     - --modes=osiv,no-osiv 이면 open-in-view 를 켜고 끈 application 을 차례로 띄워서 비교한다.
+ *     - 모르는 option 은 application 에 넘긴다. (예: --spring.datasource.hikari.maximum-pool-size=5)
+ * </pre>
+ */
+public class MemberLoadTest {
+
+  private static final int CONNECT_TIMEOUT_MILLIS = 5_000;
+  private static final int READ_TIMEOUT_MILLIS = 60_000;
+
+  /** --modes 값 별 spring.jpa.open-in-view */
+  private static final Map<String, Boolean> MODES = new LinkedHashMap<>();
+
+  static {
+    MODES.put("osiv", true);
+    MODES.put("no-osiv", false);
+  }
+
+  public static void main(String[] args) throws Exception {
+    LoadTestOptions options = LoadTestOptions.parse(args);
+
+    System.out.println("load-test: " + options);
+
+    if (options.modes.isEmpty()) {
+      run(options, null);
+      return;
+    }
+
+    for (String mode : options.modes) {
+      run(options, mode);
+    }
+  }
+
+  private static void run(LoadTestOptions options, String mode) throws Exception {
+    try (ConfigurableApplicationContext context = start(options, mode)) {
+      int port = ((WebServerApplicationContext) context).getWebServer().getPort();
+      String baseUrl = "http://localhost:" + port;
+
+      waitUntilReady(baseUrl, options);
+
+      RequestMix mix = new RequestMix(options.seed, options.pageSize);
+
+      if (!options.warmup.isZero()) {
+        System.out.println("load-test: warmup " + options.warmup);
+        drive(baseUrl, mix, options, options.warmup.toNanos());
+      }
+
+      System.out.println("load-test: measuring " + options.duration);
+
+      Map<String, EndpointStats> stats;
+      String pool;
+
+      try (PoolSampler poolSampler = new PoolSampler(context.getBean(MeterRegistry.class))) {
+        stats = drive(baseUrl, mix, options, options.duration.toNanos());
+        pool = poolSampler.report();
+      }
+
+      System.out.println("== " + (mode == null ? "result" : mode));
+
+      double seconds = options.duration.toNanos() / 1e9;
+      for (Map.Entry<String, EndpointStats> entry : stats.entrySet()) {
+        System.out.println(entry.getValue().report(entry.getKey(), seconds));
+      }
+
+      System.out.println(pool);
+    }
+  }
+
+  private static ConfigurableApplicationContext start(LoadTestOptions options, String mode) {
+    List<String> args = new ArrayList<>();
+
+    args.add("--spring.profiles.active=local");
+    args.add("--server.port=0");
+    args.add(
+        "--spring.datasource.url=jdbc:h2:mem:loadtest"
+            + (mode == null ? "" : "-" + mode)
+            + ";DB_CLOSE_DELAY=-1");
+    args.add("--member.seed.count=" + options.seed);
+    args.add("--logging.level.org.hibernate.SQL=warn");
+    args.add("--member.sql-trace.sample-rate=0");
+
+    if (mode != null) {
+      Boolean openInView = MODES.get(mode);
+
+      if (openInView == null) {
+        throw new IllegalArgumentException("unknown mode: " + mode + ", modes=" + MODES.keySet());
+      }
+
+      args.add("--spring.jpa.open-in-view=" + openInView);
+    }
+
+    // 뒤에 온 값이 이기기 때문에 사용자가 넘긴 값으로 위의 기본값을 덮어쓸 수 있다.
+    args.addAll(options.applicationArgs);
+
+    return new SpringApplicationBuilder(QuerydslApplication.class)
+        .run(args.toArray(new String[0]));
+  }
+
+  private static void waitUntilReady(String baseUrl, LoadTestOptions options)
+      throws InterruptedException {
+    long deadline = System.nanoTime() + options.readyTimeout.toNanos();
+
+    while (System.nanoTime() < deadline) {
+      try {
+        if (get(baseUrl + "/actuator/health/readiness") == 200) {
+          return;
+        }
+      } catch (IOException e) {
+        // 아직 준비 안 됨
+      }
+
+      TimeUnit.MILLISECONDS.sleep(500);
+    }
+
+    throw new IllegalStateException("application is not ready in " + options.readyTimeout);
+  }
+
+  private static Map<String, EndpointStats> drive(
+      String baseUrl, RequestMix mix, LoadTestOptions options, long durationNanos)
+      throws InterruptedException {
+
+    Map<String, EndpointStats> stats = new LinkedHashMap<>();
+    for (String endpoint : RequestMix.ENDPOINTS) {
+      stats.put(endpoint, new EndpointStats());
+    }
+
+    ExecutorService clients = Executors.newFixedThreadPool(options.concurrency);
+
+    long intervalNanos = TimeUnit.SECONDS.toNanos(1) / options.rate;
+    long start = System.nanoTime();
+    long total = durationNanos / intervalNanos;
+
+    for (long i = 0; i < total; i++) {
+      long intended = start + i * intervalNanos;
+
+      long wait = intended - System.nanoTime();
+      if (wait > 0) {
+        LockSupport.parkNanos(wait);
+      }
+
+      String[] request = mix.next();
+      EndpointStats endpointStats = stats.get(request[0]);
+      String url = baseUrl + request[1];
+
+      clients.execute(() -> send(url, intended, endpointStats));
+    }
+
+    clients.shutdown();
+    if (!clients.awaitTermination(READ_TIMEOUT_MILLIS * 2L, TimeUnit.MILLISECONDS)) {
+      clients.shutdownNow();
+    }
+
+    return stats;
+  }
+
+  private static void send(String url, long intended, EndpointStats stats) {
+    try {
+      int status = get(url);
+      long micros = TimeUnit.NANOSECONDS.toMicros(System.nanoTime() - intended);
+
+      if (status < 400) {
+        stats.success(micros);
+      } else {
+        stats.error(micros, String.valueOf(status));
+      }
+    } catch (IOException e) {
+      long micros = TimeUnit.NANOSECONDS.toMicros(System.nanoTime() - intended);
+      stats.error(micros, e.getClass().getSimpleName());
+    }
+  }
+
+  /** 응답 본문을 끝까지 읽고 status 를 반환한다. */
+  private static int get(String url) throws IOException {
+    HttpURLConnection connection = (HttpURLConnection) new URL(url).openConnection();
+    connection.setConnectTimeout(CONNECT_TIMEOUT_MILLIS);
+    connection.setReadTimeout(READ_TIMEOUT_MILLIS);
+
+    int status = connection.getResponseCode();
+
+    InputStream body = status < 400 ? connection.getInputStream() : connection.getErrorStream();
+    if (body != null) {
+      try (InputStream in = body) {
+        byte[] buffer = new byte[8192];
+        while (in.read(buffer) != -1) {
+          // drain
+        }
+      }
+    }
+
+    return status;
+  }
+}
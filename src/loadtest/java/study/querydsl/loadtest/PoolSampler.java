@@ -0,0 +1,127 @@
+package study.querydsl.loadtest;
+
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+
+import java.util.HashMap;
+import java.util.Map;
+import java.util.TreeMap;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * 측정 구간 동안 connection pool 이 얼마나 찼는지 본다.
+ *
+ * <pre>
+ *     - hikaricp.connections.active / pending 을 100ms 마다 읽어서 평균과 최대를 낸다.
+ *     - member.connection.acquire / hold 는 endpoint 별로 측정 구간 동안의 평균과 최대를 낸다.
+ * </pre>
+ */
+class PoolSampler implements AutoCloseable {
+
+  private static final String[] CONNECTION_TIMERS = {
+    "member.connection.acquire", "member.connection.hold"
+  };
+
+  private final MeterRegistry meterRegistry;
+  private final ScheduledExecutorService scheduler =
+      Executors.newSingleThreadScheduledExecutor(
+          r -> {
+            Thread thread = new Thread(r, "pool-sampler");
+            thread.setDaemon(true);
+            return thread;
+          });
+
+  private final Map<String, double[]> before = new HashMap<>();
+
+  private long samples;
+  private double activeSum;
+  private double activeMax;
+  private double pendingSum;
+  private double pendingMax;
+
+  PoolSampler(MeterRegistry meterRegistry) {
+    this.meterRegistry = meterRegistry;
+
+    for (String name : CONNECTION_TIMERS) {
+      for (Timer timer : meterRegistry.find(name).timers()) {
+        before.put(
+            key(name, timer),
+            new double[] {timer.count(), timer.totalTime(TimeUnit.MILLISECONDS)});
+      }
+    }
+
+    scheduler.scheduleAtFixedRate(this::sample, 0, 100, TimeUnit.MILLISECONDS);
+  }
+
+  private synchronized void sample() {
+    double active = gauge("hikaricp.connections.active");
+    double pending = gauge("hikaricp.connections.pending");
+
+    samples++;
+    activeSum += active;
+    activeMax = Math.max(activeMax, active);
+    pendingSum += pending;
+    pendingMax = Math.max(pendingMax, pending);
+  }
+
+  synchronized String report() {
+    StringBuilder report = new StringBuilder();
+
+    report.append(
+        String.format(
+            "pool size=%.0f, active avg=%.1f max=%.0f, pending avg=%.1f max=%.0f",
+            gauge("hikaricp.connections.max"),
+            samples == 0 ? 0 : activeSum / samples,
+            activeMax,
+            samples == 0 ? 0 : pendingSum / samples,
+            pendingMax));
+
+    Map<String, String> lines = new TreeMap<>();
+
+    for (String name : CONNECTION_TIMERS) {
+      for (Timer timer : meterRegistry.find(name).timers()) {
+        double[] start = before.getOrDefault(key(name, timer), new double[2]);
+        long count = timer.count() - (long) start[0];
+
+        if (count == 0) {
+          continue;
+        }
+
+        double mean = (timer.totalTime(TimeUnit.MILLISECONDS) - start[1]) / count;
+
+        lines.put(
+            key(name, timer),
+            String.format(
+                "%s %s count=%d, mean=%.2fms, max=%.2fms",
+                timer.getId().getTag("endpoint"),
+                name.substring(name.lastIndexOf('.') + 1),
+                count,
+                mean,
+                timer.max(TimeUnit.MILLISECONDS)));
+      }
+    }
+
+    for (String line : lines.values()) {
+      report.append(System.lineSeparator()).append("     ").append(line);
+    }
+
+    return report.toString();
+  }
+
+  @Override
+  public void close() {
+    scheduler.shutdownNow();
+  }
+
+  private double gauge(String name) {
+    Gauge gauge = meterRegistry.find(name).gauge();
+    return gauge == null ? 0 : gauge.value();
+  }
+
+  private static String key(String name, Timer timer) {
+    return timer.getId().getTag("endpoint") + " " + name;
+  }
+}
@@ -0,0 +1,69 @@
+package study.querydsl.loadtest;
+
+import java.util.concurrent.ThreadLocalRandom;
+
+/**
+ * 실제 사용과 비슷하게 섞은 member 검색 요청
+ *
+ * <pre>
+ *     - endpoint : v1 20%, v2 40%, v3 40%
+ *     - 조건 : username / teamName / ageGoe / ageLoe 를 넣고 빼는 16 가지 조합 중 하나 (값은 seed 범위 안에서)
+ *     - page : 첫 페이지 70%, 2 ~ 10 페이지 20%, 깊은 페이지 (끝까지) 10%
+ * </pre>
+ */
+class RequestMix {
+
+  static final String[] ENDPOINTS = {"v1", "v2", "v3"};
+
+  private final int seed;
+  private final int pageSize;
+
+  RequestMix(int seed, int pageSize) {
+    this.seed = seed;
+    this.pageSize = pageSize;
+  }
+
+  /** @return {endpoint, path + query} */
+  String[] next() {
+    ThreadLocalRandom random = ThreadLocalRandom.current();
+
+    int pick = random.nextInt(10);
+    String endpoint = pick < 2 ? "v1" : pick < 6 ? "v2" : "v3";
+
+    StringBuilder uri = new StringBuilder("/").append(endpoint).append("/members?");
+
+    int shape = random.nextInt(16);
+    if ((shape & 1) != 0) {
+      uri.append("username=member").append(random.nextInt(seed)).append('&');
+    }
+    if ((shape & 2) != 0) {
+      uri.append("teamName=").append(random.nextBoolean() ? "teamA" : "teamB").append('&');
+    }
+
+    int ageGoe = random.nextInt(seed);
+    if ((shape & 4) != 0) {
+      uri.append("ageGoe=").append(ageGoe).append('&');
+    }
+    if ((shape & 8) != 0) {
+      uri.append("ageLoe=").append(ageGoe + random.nextInt(Math.max(1, seed / 2))).append('&');
+    }
+
+    if (!"v1".equals(endpoint)) {
+      uri.append("page=").append(page(random)).append("&size=").append(pageSize);
+    }
+
+    return new String[] {endpoint, uri.toString()};
+  }
+
+  private int page(ThreadLocalRandom random) {
+    int pick = random.nextInt(10);
+
+    if (pick < 7) {
+      return 0;
+    }
+    if (pick < 9) {
+      return 1 + random.nextInt(9);
+    }
+    return random.nextInt(Math.max(1, seed / pageSize));
+  }
+}
@@ -1,50 +1,82 @@
 package study.querydsl.controller;
 
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.context.event.ApplicationStartedEvent;
 import org.springframework.context.annotation.Profile;
+import org.springframework.context.event.EventListener;
 import org.springframework.stereotype.Component;
 import org.springframework.transaction.annotation.Transactional;
 import study.querydsl.entity.Member;
 import study.querydsl.entity.Team;
+import study.querydsl.warmup.SeedStatus;
 
-import javax.annotation.PostConstruct;
 import javax.persistence.EntityManager;
 
+/**
+ * local 에서 쓸 data 를 넣는다.
+ *
+ * <pre>
+ *     - context 기동을 막지 않도록, context 가 뜬 후 별도 thread 에서 넣는다.
+ *     - 넣는 동안에는 SeedStatus 로 readiness 를 내려두고, member API 는 503 을 준다.
+ * </pre>
+ */
 @Profile("local")
 @Component
 public class InitMember {
 
   private final InitMemberService initMemberService;
+  private final SeedStatus seedStatus;
 
-  public InitMember(InitMemberService initMemberService) {
+  public InitMember(InitMemberService initMemberService, SeedStatus seedStatus) {
     this.initMemberService = initMemberService;
+    this.seedStatus = seedStatus;
   }
 
-  @PostConstruct
+  @EventListener(ApplicationStartedEvent.class)
   public void init() {
-    initMemberService.init();
+    seedStatus.started();
+
+    Thread seeder =
+        new Thread(
+            () -> {
+              try {
+                seedStatus.completed(initMemberService.init());
+              } catch (RuntimeException e) {
+                seedStatus.failed(e);
+              }
+            },
+            "member-seed");
+
+    seeder.setDaemon(true);
+    seeder.start();
   }
 
   @Component
   static class InitMemberService {
     private final EntityManager em;
+    private final int count;
 
-    public InitMemberService(EntityManager em) {
+    public InitMemberService(EntityManager em, @Value("${member.seed.count:100}") int count) {
       this.em = em;
+      this.count = count;
     }
 
+    /** @return 넣은 member 수 */
     @Transactional
-    public void init() {
+    public int init() {
       Team teamA = new Team("teamA");
       Team teamB = new Team("teamB");
 
       em.persist(teamA);
       em.persist(teamB);
 
-      for (int i = 0; i < 100; i++) {
+      for (int i = 0; i < count; i++) {
         Team selectedTeam = i % 2 == 0 ? teamA : teamB;
 
         em.persist(new Member("member" + i, i, selectedTeam));
       }
+
+      return count;
     }
   }
 }
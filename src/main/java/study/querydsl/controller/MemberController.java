@@ -1,40 +1,208 @@
 package study.querydsl.controller;
 
+import com.fasterxml.jackson.databind.ObjectMapper;
 import org.springframework.data.domain.Page;
 import org.springframework.data.domain.Pageable;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.MediaType;
+import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.GetMapping;
 import org.springframework.web.bind.annotation.RestController;
+import org.springframework.web.context.request.WebRequest;
+import org.springframework.web.context.request.async.WebAsyncTask;
+import org.springframework.web.servlet.mvc.method.annotation.StreamingResponseBody;
+import org.springframework.web.servlet.support.ServletUriComponentsBuilder;
+import study.querydsl.controller.support.AllocationMeter;
+import study.querydsl.controller.support.MemberResponseCache;
+import study.querydsl.controller.support.MemberSearchTasks;
+import study.querydsl.csv.MemberCsvExporter;
 import study.querydsl.dto.MemberSearchCondition;
 import study.querydsl.dto.MemberTeamDto;
+import study.querydsl.dto.MemberTeamPage;
 import study.querydsl.repository.MemberJpaRepository;
 import study.querydsl.repository.MemberRepository;
+import study.querydsl.repository.support.MemberDataVersion;
+import study.querydsl.repository.support.ResultSizeGuard;
+import study.querydsl.repository.support.TruncatedList;
 
+import java.nio.charset.StandardCharsets;
 import java.util.List;
+import java.util.function.Supplier;
 
 @RestController
 public class MemberController {
 
+  private static final String TRUNCATED_HEADER = "X-Result-Truncated";
+  private static final String LIMIT_HEADER = "X-Result-Limit";
+
   private final MemberJpaRepository memberJpaRepository;
   private final MemberRepository memberRepository;
+  private final MemberCsvExporter memberCsvExporter;
+  private final MemberSearchTasks memberSearchTasks;
+  private final ResultSizeGuard resultSizeGuard;
+  private final MemberDataVersion memberDataVersion;
+  private final MemberResponseCache memberResponseCache;
+  private final ObjectMapper objectMapper;
+  private final AllocationMeter allocationMeter;
 
   public MemberController(
-      MemberJpaRepository memberJpaRepository, MemberRepository memberRepository) {
+      MemberJpaRepository memberJpaRepository,
+      MemberRepository memberRepository,
+      MemberCsvExporter memberCsvExporter,
+      MemberSearchTasks memberSearchTasks,
+      ResultSizeGuard resultSizeGuard,
+      MemberDataVersion memberDataVersion,
+      MemberResponseCache memberResponseCache,
+      ObjectMapper objectMapper,
+      AllocationMeter allocationMeter) {
     this.memberJpaRepository = memberJpaRepository;
     this.memberRepository = memberRepository;
+    this.memberCsvExporter = memberCsvExporter;
+    this.memberSearchTasks = memberSearchTasks;
+    this.resultSizeGuard = resultSizeGuard;
+    this.memberDataVersion = memberDataVersion;
+    this.memberResponseCache = memberResponseCache;
+    this.objectMapper = objectMapper;
+    this.allocationMeter = allocationMeter;
   }
 
+  /**
+   * 검색은 endpoint 별 deadline 안에서 실행되고, 시간이 지나면 query 를 취소한다.
+   *
+   * <pre>
+   *     - client 연결이 끊긴 것은 container 가 async error 를 알려줄 때만 취소된다. (MemberSearchTasks 참고)
+   *     - 결과가 member.search.max-results 개를 넘으면 잘라서 주고, header 로 알려준다.
+   *       - X-Result-Truncated: true, X-Result-Limit: {limit}
+   *       - Link: paging API (v3) 의 첫 페이지, 같은 조건
+   *     - includeArchived=true 이면 member_archive 까지 같이 검색한다. (v2 / v3 / export 도 같다.)
+   * </pre>
+   */
   @GetMapping(path = "v1/members")
-  public List<MemberTeamDto> searchMemberV1(MemberSearchCondition condition) {
-    return memberJpaRepository.search(condition);
+  public WebAsyncTask<ResponseEntity<List<MemberTeamDto>>> searchMemberV1(
+      MemberSearchCondition condition) {
+    // request 는 검색 thread 에서 볼 수 없기 때문에 미리 만들어 둔다.
+    String pagedUri =
+        ServletUriComponentsBuilder.fromCurrentRequest()
+            .replacePath("/v3/members")
+            .replaceQueryParam("page", 0)
+            .replaceQueryParam("size", resultSizeGuard.getMaxResults())
+            .toUriString();
+
+    return memberSearchTasks.submit(
+        "v1",
+        condition,
+        null,
+        () -> {
+          // archive 까지 보는 검색은 MemberRepository 만 할 수 있다.
+          List<MemberTeamDto> result =
+              condition.isIncludeArchived()
+                  ? memberRepository.search(condition)
+                  : memberJpaRepository.search(condition);
+
+          if (!(result instanceof TruncatedList)) {
+            return ResponseEntity.ok(result);
+          }
+
+          return ResponseEntity.ok()
+              .header(TRUNCATED_HEADER, "true")
+              .header(LIMIT_HEADER, String.valueOf(((TruncatedList<?>) result).getLimit()))
+              .header(HttpHeaders.LINK, "<" + pagedUri + ">; rel=\"next\"")
+              .body(result);
+        });
   }
 
+  /** @see #cachedSearch */
   @GetMapping(path = "v2/members")
-  public Page<MemberTeamDto> searchMemberV2(MemberSearchCondition condition, Pageable pageable) {
-    return memberRepository.searchPageSimple(condition, pageable);
+  public Object searchMemberV2(
+      MemberSearchCondition condition, Pageable pageable, WebRequest request) {
+    return cachedSearch(
+        "v2",
+        condition,
+        pageable,
+        request,
+        () -> memberRepository.searchPageSimple(condition, pageable));
   }
 
+  /** @see #cachedSearch */
   @GetMapping(path = "v3/members")
-  public Page<MemberTeamDto> searchMemberV3(MemberSearchCondition condition, Pageable pageable) {
-    return memberRepository.searchPageComplex(condition, pageable);
+  public Object searchMemberV3(
+      MemberSearchCondition condition, Pageable pageable, WebRequest request) {
+    return cachedSearch(
+        "v3",
+        condition,
+        pageable,
+        request,
+        () -> memberRepository.searchPageComplex(condition, pageable));
+  }
+
+  /**
+   * paging 검색 결과를 직렬화된 byte 로 cache 하고, ETag 로 304 를 준다.
+   *
+   * <pre>
+   *     - ETag 는 Member / Team data version 이다. 같은 URL 에 대해 version 이 같으면 결과도 같다.
+   *     - If-None-Match 가 맞으면 DB 조회와 직렬화 없이 304 를 준다.
+   *     - cache 에 있으면 저장해둔 byte 를 그대로 쓴다.
+   *     - 둘 다 아니면 deadline 안에서 검색하고, 직렬화한 byte 를 cache 에 넣는다.
+   *       - PageImpl 대신 MemberTeamPage (content, page, size, total, hasNext) 로 내보낸다.
+   *       - version 은 검색 전에 읽는다. 검색 중에 바뀌면 다음 요청에서 version 이 달라 다시 검색한다.
+   * </pre>
+   *
+   * @return 304 이면 null, cache hit 이면 ResponseEntity, 아니면 WebAsyncTask
+   */
+  private Object cachedSearch(
+      String endpoint,
+      MemberSearchCondition condition,
+      Pageable pageable,
+      WebRequest request,
+      Supplier<Page<MemberTeamDto>> search) {
+
+    long version = memberDataVersion.current();
+    String etag = "\"" + Long.toHexString(memberDataVersion.getEpoch()) + "-" + version + "\"";
+
+    if (request.checkNotModified(etag)) {
+      return null;
+    }
+
+    MemberResponseCache.Key key = MemberResponseCache.key(endpoint, condition, pageable);
+    byte[] cached = memberResponseCache.get(key, version);
+
+    if (cached != null) {
+      return jsonResponse(etag, cached);
+    }
+
+    return memberSearchTasks.submit(
+        endpoint,
+        condition,
+        pageable,
+        () -> {
+          byte[] bytes = objectMapper.writeValueAsBytes(MemberTeamPage.of(search.get()));
+          memberResponseCache.put(key, version, bytes);
+
+          return jsonResponse(etag, bytes);
+        });
+  }
+
+  private static ResponseEntity<byte[]> jsonResponse(String etag, byte[] bytes) {
+    return ResponseEntity.ok().eTag(etag).contentType(MediaType.APPLICATION_JSON).body(bytes);
+  }
+
+  /** response 를 다 만들지 않고, chunk 단위로 바로 내보낸다. */
+  @GetMapping(path = "v1/members/export", produces = "text/csv")
+  public ResponseEntity<StreamingResponseBody> exportMembers(MemberSearchCondition condition) {
+    StreamingResponseBody body =
+        out -> {
+          long allocatedBytes = allocationMeter.threadAllocatedBytes();
+
+          try {
+            memberCsvExporter.export(condition, out);
+          } finally {
+            allocationMeter.record("export", condition, null, allocatedBytes);
+          }
+        };
+
+    return ResponseEntity.ok()
+        .header(HttpHeaders.CONTENT_DISPOSITION, "attachment; filename=\"members.csv\"")
+        .contentType(new MediaType("text", "csv", StandardCharsets.UTF_8))
+        .body(body);
   }
 }
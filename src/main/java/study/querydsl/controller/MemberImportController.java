@@ -0,0 +1,45 @@
+package study.querydsl.controller;
+
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.GetMapping;
+import org.springframework.web.bind.annotation.PathVariable;
+import org.springframework.web.bind.annotation.PostMapping;
+import org.springframework.web.bind.annotation.RequestParam;
+import org.springframework.web.bind.annotation.RestController;
+import study.querydsl.csv.MemberCsvImporter;
+import study.querydsl.csv.MemberImportJob;
+
+import java.io.IOException;
+import java.io.InputStream;
+
+@RestController
+public class MemberImportController {
+
+  private final MemberCsvImporter memberCsvImporter;
+
+  public MemberImportController(MemberCsvImporter memberCsvImporter) {
+    this.memberCsvImporter = memberCsvImporter;
+  }
+
+  /**
+   * request body 의 CSV 를 읽으면서 바로 저장한다.
+   *
+   * <pre>
+   *     - 실패한 partition 이 있으면, 같은 파일을 resume={jobId} 로 다시 보내면 된다.
+   * </pre>
+   */
+  @PostMapping(path = "v1/members/import", consumes = "text/csv")
+  public MemberImportJob importMembers(
+      InputStream body, @RequestParam(name = "resume", required = false) String resume)
+      throws IOException {
+    return memberCsvImporter.importMembers(body, resume);
+  }
+
+  /** import 중인 job 의 진행 상황 */
+  @GetMapping(path = "v1/members/import/{jobId}")
+  public ResponseEntity<MemberImportJob> importJob(@PathVariable String jobId) {
+    MemberImportJob job = memberCsvImporter.findJob(jobId);
+
+    return job != null ? ResponseEntity.ok(job) : ResponseEntity.notFound().build();
+  }
+}
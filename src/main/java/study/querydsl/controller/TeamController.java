@@ -0,0 +1,34 @@
+package study.querydsl.controller;
+
+import org.springframework.web.bind.annotation.GetMapping;
+import org.springframework.web.bind.annotation.PostMapping;
+import org.springframework.web.bind.annotation.RestController;
+import study.querydsl.dto.TeamStatisticsDto;
+import study.querydsl.repository.statistics.TeamStatisticsRepository;
+
+import java.util.List;
+
+@RestController
+public class TeamController {
+
+  private final TeamStatisticsRepository teamStatisticsRepository;
+
+  public TeamController(TeamStatisticsRepository teamStatisticsRepository) {
+    this.teamStatisticsRepository = teamStatisticsRepository;
+  }
+
+  @GetMapping(path = "v1/teams/statistics")
+  public List<TeamStatisticsDto> statistics() {
+    return teamStatisticsRepository.findAll();
+  }
+
+  @PostMapping(path = "v1/teams/statistics/rebuild")
+  public int rebuildStatistics() {
+    return teamStatisticsRepository.rebuild();
+  }
+
+  @GetMapping(path = "v1/teams/statistics/verify")
+  public List<Long> verifyStatistics() {
+    return teamStatisticsRepository.verify();
+  }
+}
@@ -0,0 +1,128 @@
+package study.querydsl.controller.support;
+
+import io.micrometer.core.instrument.DistributionSummary;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.data.domain.Pageable;
+import org.springframework.stereotype.Component;
+import study.querydsl.dto.MemberSearchCondition;
+
+import java.lang.management.ManagementFactory;
+import java.lang.management.ThreadMXBean;
+import java.util.StringJoiner;
+
+import static org.springframework.util.StringUtils.hasText;
+
+/**
+ * member 검색 요청 하나가 할당한 heap byte 를 잰다.
+ *
+ * <pre>
+ *     - thread 별 할당 counter (com.sun.management.ThreadMXBean) 를 검색 전후로 읽어서 뺀다.
+ *       - 검색을 실행하는 thread 하나만 센다. (request thread 에서 하는 cache 조회 / 304 는 빠진다.)
+ *       - JVM 이 지원하지 않으면 아무것도 남기지 않는다.
+ *     - member.search.allocated (bytes) 로 남긴다.
+ *       - endpoint
+ *       - filters : 값이 있는 검색 조건 (username+teamName+ageGoe+ageLoe 중 일부, 없으면 none)
+ *       - pageSize : unpaged, 1-20, 21-100, 101-500, 501+ (tag 값이 늘어나지 않도록 구간으로)
+ * </pre>
+ */
+@Component
+public class AllocationMeter {
+
+  private static final Logger log = LoggerFactory.getLogger(AllocationMeter.class);
+
+  private static final String METRIC = "member.search.allocated";
+
+  private final MeterRegistry meterRegistry;
+  private final com.sun.management.ThreadMXBean threads;
+
+  public AllocationMeter(MeterRegistry meterRegistry) {
+    this.meterRegistry = meterRegistry;
+    this.threads = allocationCounter();
+  }
+
+  /** @return 지금 thread 가 지금까지 할당한 byte, 지원하지 않으면 -1 */
+  public long threadAllocatedBytes() {
+    return threads == null ? -1 : threads.getThreadAllocatedBytes(Thread.currentThread().getId());
+  }
+
+  /** @param startBytes 검색 전에 같은 thread 에서 읽은 {@link #threadAllocatedBytes()} */
+  public void record(
+      String endpoint, MemberSearchCondition condition, Pageable pageable, long startBytes) {
+    if (startBytes < 0) {
+      return;
+    }
+
+    long allocated = threadAllocatedBytes() - startBytes;
+
+    DistributionSummary.builder(METRIC)
+        .baseUnit("bytes")
+        .tag("endpoint", endpoint)
+        .tag("filters", filtersOf(condition))
+        .tag("pageSize", pageSizeOf(pageable))
+        .register(meterRegistry)
+        .record(allocated);
+  }
+
+  static String filtersOf(MemberSearchCondition condition) {
+    StringJoiner filters = new StringJoiner("+");
+
+    if (condition != null) {
+      if (hasText(condition.getUsername())) {
+        filters.add("username");
+      }
+      if (hasText(condition.getTeamName())) {
+        filters.add("teamName");
+      }
+      if (condition.getAgeGoe() != null) {
+        filters.add("ageGoe");
+      }
+      if (condition.getAgeLoe() != null) {
+        filters.add("ageLoe");
+      }
+      if (condition.isIncludeArchived()) {
+        filters.add("archived");
+      }
+    }
+
+    return filters.length() == 0 ? "none" : filters.toString();
+  }
+
+  static String pageSizeOf(Pageable pageable) {
+    if (pageable == null || pageable.isUnpaged()) {
+      return "unpaged";
+    }
+
+    int size = pageable.getPageSize();
+
+    if (size <= 20) {
+      return "1-20";
+    }
+    if (size <= 100) {
+      return "21-100";
+    }
+    if (size <= 500) {
+      return "101-500";
+    }
+    return "501+";
+  }
+
+  private static com.sun.management.ThreadMXBean allocationCounter() {
+    ThreadMXBean bean = ManagementFactory.getThreadMXBean();
+
+    if (!(bean instanceof com.sun.management.ThreadMXBean)
+        || !((com.sun.management.ThreadMXBean) bean).isThreadAllocatedMemorySupported()) {
+      log.info("thread allocation counter is not supported. {} is not recorded.", METRIC);
+      return null;
+    }
+
+    com.sun.management.ThreadMXBean threads = (com.sun.management.ThreadMXBean) bean;
+
+    if (!threads.isThreadAllocatedMemoryEnabled()) {
+      threads.setThreadAllocatedMemoryEnabled(true);
+    }
+
+    return threads;
+  }
+}
@@ -0,0 +1,51 @@
+package study.querydsl.controller.support;
+
+import org.springframework.beans.factory.DisposableBean;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.scheduling.concurrent.ThreadPoolTaskExecutor;
+import org.springframework.web.servlet.config.annotation.AsyncSupportConfigurer;
+import org.springframework.web.servlet.config.annotation.WebMvcConfigurer;
+
+import java.time.Duration;
+
+/**
+ * executor / timeout 을 따로 정하지 않은 async 요청 (StreamingResponseBody - CSV export) 의 기본값
+ *
+ * <pre>
+ *     - container 기본 timeout (Tomcat 30s) 으로는 큰 export 가 중간에 끊기기 때문에 member.export.timeout 을 쓴다.
+ *     - 정해진 수의 thread 에서만 실행하고, queue 가 차면 요청을 거절한다. (요청마다 thread 를 만들지 않는다.)
+ *     - 검색 (v1 / v2 / v3) 은 WebAsyncTask 에 자기 executor 와 deadline 이 있어서 여기 값을 쓰지 않는다.
+ * </pre>
+ */
+@Configuration
+public class AsyncWebConfig implements WebMvcConfigurer, DisposableBean {
+
+  private final Duration timeout;
+  private final ThreadPoolTaskExecutor executor;
+
+  public AsyncWebConfig(
+      @Value("${member.export.timeout:30m}") Duration timeout,
+      @Value("${member.export.threads:4}") int threads,
+      @Value("${member.export.queue-capacity:16}") int queueCapacity) {
+    this.timeout = timeout;
+
+    this.executor = new ThreadPoolTaskExecutor();
+    this.executor.setCorePoolSize(threads);
+    this.executor.setMaxPoolSize(threads);
+    this.executor.setQueueCapacity(queueCapacity);
+    this.executor.setThreadNamePrefix("member-export-");
+    this.executor.initialize();
+  }
+
+  @Override
+  public void configureAsyncSupport(AsyncSupportConfigurer configurer) {
+    configurer.setDefaultTimeout(timeout.toMillis());
+    configurer.setTaskExecutor(executor);
+  }
+
+  @Override
+  public void destroy() {
+    executor.shutdown();
+  }
+}
@@ -0,0 +1,174 @@
+package study.querydsl.controller.support;
+
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.data.domain.Pageable;
+import org.springframework.stereotype.Component;
+import study.querydsl.dto.MemberSearchCondition;
+
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.Objects;
+
+/**
+ * 직렬화까지 끝난 member 검색 response 를 data version 별로 들고 있는다.
+ *
+ * <pre>
+ *     - key 는 endpoint + 정규화한 조건 + page 이다. (빈 문자열은 조건 없음으로 본다.)
+ *     - 꺼낼 때 version 이 다르면 버린다. - 따로 지우지 않아도 된다.
+ *     - 개수 (max-entries) 와 전체 byte 수 (max-bytes) 를 넘으면 가장 오래 안 쓴 것부터 버린다.
+ * </pre>
+ */
+@Component
+public class MemberResponseCache {
+
+  private final int maxEntries;
+  private final long maxBytes;
+
+  private final LinkedHashMap<Key, Entry> entries = new LinkedHashMap<>(16, 0.75f, true);
+  private long totalBytes;
+
+  public MemberResponseCache(
+      @Value("${member.response-cache.max-entries:1000}") int maxEntries,
+      @Value("${member.response-cache.max-bytes:16777216}") long maxBytes) {
+    this.maxEntries = maxEntries;
+    this.maxBytes = maxBytes;
+  }
+
+  /** @return 없거나 version 이 다르면 null */
+  public synchronized byte[] get(Key key, long version) {
+    Entry entry = entries.get(key);
+
+    if (entry == null) {
+      return null;
+    }
+
+    if (entry.version != version) {
+      remove(key);
+      return null;
+    }
+
+    return entry.bytes;
+  }
+
+  public synchronized void put(Key key, long version, byte[] bytes) {
+    if (bytes.length > maxBytes) {
+      return;
+    }
+
+    remove(key);
+    entries.put(key, new Entry(version, bytes));
+    totalBytes += bytes.length;
+
+    Iterator<Map.Entry<Key, Entry>> eldest = entries.entrySet().iterator();
+    while (entries.size() > maxEntries || totalBytes > maxBytes) {
+      totalBytes -= eldest.next().getValue().bytes.length;
+      eldest.remove();
+    }
+  }
+
+  public synchronized int size() {
+    return entries.size();
+  }
+
+  private void remove(Key key) {
+    Entry removed = entries.remove(key);
+
+    if (removed != null) {
+      totalBytes -= removed.bytes.length;
+    }
+  }
+
+  public static Key key(String endpoint, MemberSearchCondition condition, Pageable pageable) {
+    return new Key(
+        endpoint,
+        normalize(condition.getUsername()),
+        normalize(condition.getTeamName()),
+        condition.getAgeGoe(),
+        condition.getAgeLoe(),
+        condition.isIncludeArchived(),
+        pageable.isPaged() ? pageable.getPageNumber() : -1,
+        pageable.isPaged() ? pageable.getPageSize() : -1,
+        pageable.getSort().toString());
+  }
+
+  private static String normalize(String value) {
+    if (value == null) {
+      return null;
+    }
+
+    String trimmed = value.trim();
+    return trimmed.isEmpty() ? null : value;
+  }
+
+  private static class Entry {
+
+    private final long version;
+    private final byte[] bytes;
+
+    private Entry(long version, byte[] bytes) {
+      this.version = version;
+      this.bytes = bytes;
+    }
+  }
+
+  public static final class Key {
+
+    private final String endpoint;
+    private final String username;
+    private final String teamName;
+    private final Integer ageGoe;
+    private final Integer ageLoe;
+    private final boolean includeArchived;
+    private final int page;
+    private final int size;
+    private final String sort;
+
+    private Key(
+        String endpoint,
+        String username,
+        String teamName,
+        Integer ageGoe,
+        Integer ageLoe,
+        boolean includeArchived,
+        int page,
+        int size,
+        String sort) {
+      this.endpoint = endpoint;
+      this.username = username;
+      this.teamName = teamName;
+      this.ageGoe = ageGoe;
+      this.ageLoe = ageLoe;
+      this.includeArchived = includeArchived;
+      this.page = page;
+      this.size = size;
+      this.sort = sort;
+    }
+
+    @Override
+    public boolean equals(Object o) {
+      if (this == o) {
+        return true;
+      }
+      if (o == null || getClass() != o.getClass()) {
+        return false;
+      }
+      Key key = (Key) o;
+      return includeArchived == key.includeArchived
+          && page == key.page
+          && size == key.size
+          && endpoint.equals(key.endpoint)
+          && Objects.equals(username, key.username)
+          && Objects.equals(teamName, key.teamName)
+          && Objects.equals(ageGoe, key.ageGoe)
+          && Objects.equals(ageLoe, key.ageLoe)
+          && sort.equals(key.sort);
+    }
+
+    @Override
+    public int hashCode() {
+      return Objects.hash(
+          endpoint, username, teamName, ageGoe, ageLoe, includeArchived, page, size, sort);
+    }
+  }
+}
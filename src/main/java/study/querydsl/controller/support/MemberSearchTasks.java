@@ -0,0 +1,225 @@
+package study.querydsl.controller.support;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.hibernate.Session;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.DisposableBean;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.core.env.Environment;
+import org.springframework.data.domain.Pageable;
+import org.springframework.http.HttpStatus;
+import org.springframework.scheduling.concurrent.ThreadPoolTaskExecutor;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+import org.springframework.web.context.request.async.WebAsyncTask;
+import org.springframework.web.server.ResponseStatusException;
+import study.querydsl.dto.MemberSearchCondition;
+import study.querydsl.repository.support.QueryDeadline;
+import study.querydsl.repository.support.RunningStatements;
+
+import javax.persistence.EntityManager;
+import java.time.Duration;
+import java.util.concurrent.Callable;
+
+/**
+ * member 검색 요청을 endpoint 별 deadline 안에서 실행한다.
+ *
+ * <pre>
+ *     - 검색은 별도 thread 에서 read-only transaction 으로 실행한다. (servlet async)
+ *       - transaction 하나에 session 하나라서, 실행 중인 query 를 다른 thread 에서 취소할 수 있다.
+ *       - querydsl-sql (member.search.engine=sql) statement 는 session 을 거치지 않기 때문에
+ *         RunningStatements 로 따로 잡아서 취소한다.
+ *     - deadline 은 member.search.timeout.{endpoint} 로 정하고, 없으면 member.search.timeout.default 를 쓴다.
+ *       - 남은 시간은 QueryDeadline 으로 content / count query 의 JDBC timeout 에 들어간다.
+ *     - deadline 이 지나면 실행 중인 query 를 취소한다. - MemberSearchTasksTest
+ *       - client 연결이 끊긴 것은 container 가 async error 를 알려줄 때만 취소한다.
+ *         (Tomcat 은 조용히 끊긴 연결을 응답을 쓰기 전까지 모르기 때문에, 보통은 deadline 까지 실행된다.)
+ *     - member.search.deadline counter (endpoint, outcome=timeout|cancelled) 로 남긴다.
+ *     - 검색 thread 가 할당한 byte 를 AllocationMeter 로 남긴다. (검색 조건 / page 크기 별)
+ * </pre>
+ */
+@Component
+public class MemberSearchTasks implements DisposableBean {
+
+  private static final Logger log = LoggerFactory.getLogger(MemberSearchTasks.class);
+
+  private static final String TIMEOUT_PROPERTY = "member.search.timeout.";
+
+  private final EntityManager em;
+  private final TransactionTemplate readOnly;
+  private final MeterRegistry meterRegistry;
+  private final AllocationMeter allocationMeter;
+  private final Environment environment;
+  private final Duration defaultTimeout;
+  private final ThreadPoolTaskExecutor executor;
+
+  public MemberSearchTasks(
+      EntityManager em,
+      PlatformTransactionManager transactionManager,
+      MeterRegistry meterRegistry,
+      AllocationMeter allocationMeter,
+      Environment environment,
+      @Value("${member.search.timeout.default:5s}") Duration defaultTimeout,
+      @Value("${member.search.threads:16}") int threads) {
+    this.em = em;
+    this.readOnly = new TransactionTemplate(transactionManager);
+    this.readOnly.setReadOnly(true);
+    this.meterRegistry = meterRegistry;
+    this.allocationMeter = allocationMeter;
+    this.environment = environment;
+    this.defaultTimeout = defaultTimeout;
+
+    this.executor = new ThreadPoolTaskExecutor();
+    this.executor.setCorePoolSize(threads);
+    this.executor.setMaxPoolSize(threads);
+    this.executor.setThreadNamePrefix("member-search-");
+    this.executor.initialize();
+  }
+
+  /** @param pageable paging 이 없는 검색이면 null */
+  public <T> WebAsyncTask<T> submit(
+      String endpoint, MemberSearchCondition condition, Pageable pageable, Callable<T> search) {
+    Duration timeout = timeoutOf(endpoint);
+    RunningSearch running = new RunningSearch();
+
+    Callable<T> task =
+        () -> {
+          long allocatedBytes = allocationMeter.threadAllocatedBytes();
+
+          try {
+            return QueryDeadline.call(
+                timeout,
+                () ->
+                    readOnly.execute(
+                        status -> {
+                          running.start(em.unwrap(Session.class));
+                          try {
+                            return running.statements.track(search);
+                          } catch (RuntimeException e) {
+                            throw e;
+                          } catch (Exception e) {
+                            throw new IllegalStateException(e);
+                          } finally {
+                            running.finish();
+                          }
+                        }));
+          } catch (RuntimeException e) {
+            if (running.isCancelled()) {
+              // 이미 timeout / 연결 끊김으로 처리된 요청
+              return null;
+            }
+
+            if (isTimeout(e)) {
+              counter(endpoint, "timeout").increment();
+              throw deadlineExceeded(endpoint, timeout);
+            }
+
+            throw e;
+          } finally {
+            allocationMeter.record(endpoint, condition, pageable, allocatedBytes);
+          }
+        };
+
+    WebAsyncTask<T> asyncTask = new WebAsyncTask<>(timeout.toMillis(), executor, task);
+
+    asyncTask.onTimeout(
+        () -> {
+          running.cancel();
+          counter(endpoint, "timeout").increment();
+          throw deadlineExceeded(endpoint, timeout);
+        });
+
+    asyncTask.onError(
+        () -> {
+          // container 가 async error 를 알려준 경우 (client 연결 끊김 등) - 응답을 받을 곳이 없다.
+          if (running.cancel()) {
+            counter(endpoint, "cancelled").increment();
+            log.debug("member search cancelled. endpoint={}", endpoint);
+          }
+          return null;
+        });
+
+    return asyncTask;
+  }
+
+  Duration timeoutOf(String endpoint) {
+    return environment.getProperty(TIMEOUT_PROPERTY + endpoint, Duration.class, defaultTimeout);
+  }
+
+  /** repository 에 따라 JPA / Hibernate / Spring 의 timeout 예외로 올라온다. */
+  private static boolean isTimeout(Throwable e) {
+    for (Throwable t = e; t != null; t = t.getCause()) {
+      if (t instanceof javax.persistence.QueryTimeoutException
+          || t instanceof org.hibernate.QueryTimeoutException
+          || t instanceof org.springframework.dao.QueryTimeoutException) {
+        return true;
+      }
+    }
+
+    return false;
+  }
+
+  private Counter counter(String endpoint, String outcome) {
+    return meterRegistry.counter("member.search.deadline", "endpoint", endpoint, "outcome", outcome);
+  }
+
+  private static ResponseStatusException deadlineExceeded(String endpoint, Duration timeout) {
+    return new ResponseStatusException(
+        HttpStatus.SERVICE_UNAVAILABLE,
+        "member search deadline exceeded. endpoint=" + endpoint + ", timeout=" + timeout);
+  }
+
+  @Override
+  public void destroy() {
+    executor.shutdown();
+  }
+
+  /** 다른 thread 에서 실행 중인 query 를 취소하기 위해 session 을 잡아둔다. */
+  private static class RunningSearch {
+
+    private final RunningStatements statements = new RunningStatements();
+
+    private Session session;
+    private boolean cancelled;
+
+    synchronized void start(Session session) {
+      this.session = session;
+    }
+
+    synchronized void finish() {
+      this.session = null;
+    }
+
+    /**
+     * 실행 중인 query 를 취소한다. 아직 query 전이라면 이후 결과를 버린다.
+     *
+     * @return 이번에 취소했으면 true, 이미 취소되어 있었으면 false
+     */
+    synchronized boolean cancel() {
+      if (cancelled) {
+        return false;
+      }
+
+      cancelled = true;
+
+      if (session != null) {
+        try {
+          session.cancelQuery();
+        } catch (RuntimeException e) {
+          log.debug("could not cancel member search query.", e);
+        }
+      }
+
+      statements.cancel();
+
+      return true;
+    }
+
+    synchronized boolean isCancelled() {
+      return cancelled;
+    }
+  }
+}
@@ -0,0 +1,105 @@
+package study.querydsl.controller.support;
+
+import com.fasterxml.jackson.core.JsonGenerator;
+import com.fasterxml.jackson.core.io.SerializedString;
+import com.fasterxml.jackson.databind.JsonSerializer;
+import com.fasterxml.jackson.databind.SerializerProvider;
+import org.springframework.boot.jackson.JsonComponent;
+import study.querydsl.dto.MemberTeamDto;
+import study.querydsl.dto.MemberTeamPage;
+
+import java.io.IOException;
+import java.util.List;
+
+/**
+ * MemberTeamDto / MemberTeamPage 를 reflection 없이 JsonGenerator 로 바로 쓴다.
+ *
+ * <pre>
+ *     - field 이름은 미리 encoding 해 둔 SerializedString 을 쓴다.
+ *     - 결과는 bean 직렬화와 같다. (null 도 그대로 쓴다.) - MemberTeamJsonComponentTest
+ * </pre>
+ */
+@JsonComponent
+public class MemberTeamJsonComponent {
+
+  private static final SerializedString MEMBER_ID = new SerializedString("memberId");
+  private static final SerializedString USERNAME = new SerializedString("username");
+  private static final SerializedString AGE = new SerializedString("age");
+  private static final SerializedString TEAM_ID = new SerializedString("teamId");
+  private static final SerializedString TEAM_NAME = new SerializedString("teamName");
+
+  private static final SerializedString CONTENT = new SerializedString("content");
+  private static final SerializedString PAGE = new SerializedString("page");
+  private static final SerializedString SIZE = new SerializedString("size");
+  private static final SerializedString TOTAL = new SerializedString("total");
+  private static final SerializedString HAS_NEXT = new SerializedString("hasNext");
+
+  static void write(MemberTeamDto dto, JsonGenerator gen) throws IOException {
+    gen.writeStartObject();
+
+    gen.writeFieldName(MEMBER_ID);
+    writeNullable(dto.getMemberId(), gen);
+
+    gen.writeFieldName(USERNAME);
+    gen.writeString(dto.getUsername());
+
+    gen.writeFieldName(AGE);
+    gen.writeNumber(dto.getAge());
+
+    gen.writeFieldName(TEAM_ID);
+    writeNullable(dto.getTeamId(), gen);
+
+    gen.writeFieldName(TEAM_NAME);
+    gen.writeString(dto.getTeamName());
+
+    gen.writeEndObject();
+  }
+
+  private static void writeNullable(Long value, JsonGenerator gen) throws IOException {
+    if (value != null) {
+      gen.writeNumber(value);
+    } else {
+      gen.writeNull();
+    }
+  }
+
+  public static class MemberTeamDtoSerializer extends JsonSerializer<MemberTeamDto> {
+
+    @Override
+    public void serialize(MemberTeamDto value, JsonGenerator gen, SerializerProvider serializers)
+        throws IOException {
+      write(value, gen);
+    }
+  }
+
+  public static class MemberTeamPageSerializer extends JsonSerializer<MemberTeamPage> {
+
+    @Override
+    public void serialize(MemberTeamPage value, JsonGenerator gen, SerializerProvider serializers)
+        throws IOException {
+      gen.writeStartObject();
+
+      gen.writeFieldName(CONTENT);
+      List<MemberTeamDto> content = value.getContent();
+      gen.writeStartArray(content, content.size());
+      for (MemberTeamDto dto : content) {
+        write(dto, gen);
+      }
+      gen.writeEndArray();
+
+      gen.writeFieldName(PAGE);
+      gen.writeNumber(value.getPage());
+
+      gen.writeFieldName(SIZE);
+      gen.writeNumber(value.getSize());
+
+      gen.writeFieldName(TOTAL);
+      gen.writeNumber(value.getTotal());
+
+      gen.writeFieldName(HAS_NEXT);
+      gen.writeBoolean(value.isHasNext());
+
+      gen.writeEndObject();
+    }
+  }
+}
@@ -0,0 +1,93 @@
+package study.querydsl.csv;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+import study.querydsl.dto.MemberSearchCondition;
+import study.querydsl.dto.MemberTeamDto;
+import study.querydsl.repository.MemberJpaRepository;
+import study.querydsl.repository.archive.MemberArchiveRepository;
+
+import java.io.IOException;
+import java.io.OutputStream;
+import java.util.List;
+import java.util.function.Function;
+
+/**
+ * 검색 조건에 맞는 member 전체를 CSV 로 내보낸다.
+ *
+ * <pre>
+ *     - member id 기준 keyset paging 으로 chunk 단위로 읽고, 읽은 chunk 는 바로 내보낸다.
+ *     - DTO 로 조회하기 때문에 chunk 가 영속성 컨텍스트에 남지 않는다. (따로 detach / clear 할 것이 없다.)
+ *     - 한번에 들고 있는 row 는 최대 chunk 크기 만큼이다.
+ *     - includeArchived 이면 member 다음에 member_archive 를 같은 방식으로 이어서 내보낸다.
+ * </pre>
+ */
+@Component
+public class MemberCsvExporter {
+
+  private static final Logger log = LoggerFactory.getLogger(MemberCsvExporter.class);
+
+  private final MemberJpaRepository memberJpaRepository;
+  private final MemberArchiveRepository memberArchiveRepository;
+  private final int chunkSize;
+
+  public MemberCsvExporter(
+      MemberJpaRepository memberJpaRepository,
+      MemberArchiveRepository memberArchiveRepository,
+      @Value("${member.export.chunk-size:1000}") int chunkSize) {
+    this.memberJpaRepository = memberJpaRepository;
+    this.memberArchiveRepository = memberArchiveRepository;
+    this.chunkSize = chunkSize;
+  }
+
+  public long export(MemberSearchCondition condition, OutputStream out) throws IOException {
+    long start = System.nanoTime();
+
+    MemberCsvWriter writer = new MemberCsvWriter(out);
+    writer.writeHeader();
+
+    exportAll(
+        writer,
+        lastMemberId -> memberJpaRepository.searchAfter(condition, lastMemberId, chunkSize));
+
+    if (condition.isIncludeArchived()) {
+      exportAll(
+          writer,
+          lastMemberId -> memberArchiveRepository.searchAfter(condition, lastMemberId, chunkSize));
+    }
+
+    long elapsedMillis = Math.max((System.nanoTime() - start) / 1_000_000, 1);
+
+    log.info(
+        "member csv exported. rows={}, bytes={}, elapsed={}ms, rows/sec={}",
+        writer.getRows(),
+        writer.getBytes(),
+        elapsedMillis,
+        writer.getRows() * 1000 / elapsedMillis);
+
+    return writer.getRows();
+  }
+
+  /** @param nextChunk 마지막으로 읽은 member id 다음부터 chunk 하나를 읽는다. (처음에는 null) */
+  private void exportAll(MemberCsvWriter writer, Function<Long, List<MemberTeamDto>> nextChunk)
+      throws IOException {
+    Long lastMemberId = null;
+    List<MemberTeamDto> chunk;
+
+    do {
+      chunk = nextChunk.apply(lastMemberId);
+
+      for (MemberTeamDto dto : chunk) {
+        writer.write(dto);
+      }
+
+      if (!chunk.isEmpty()) {
+        lastMemberId = chunk.get(chunk.size() - 1).getMemberId();
+      }
+
+      writer.flush();
+    } while (chunk.size() == chunkSize);
+  }
+}
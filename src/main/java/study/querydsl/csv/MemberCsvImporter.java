@@ -0,0 +1,316 @@
+package study.querydsl.csv;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+import study.querydsl.repository.support.MembersBulkChangedEvent;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.Comparator;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * member CSV 를 여러 thread 로 나누어 저장한다.
+ *
+ * <pre>
+ *     - CSV 는 한 줄씩 읽으면서 partition 단위로 잘라 thread pool 에 넘긴다.
+ *       - 처리 중인 partition 수를 제한해서 읽는 속도가 저장 속도를 앞지르지 않게 한다.
+ *     - team 이름은 메모리의 map 으로 id 를 찾고, 없는 team 은 읽는 thread 에서 먼저 만든다.
+ *     - partition 마다 별도 connection / transaction 에서 JDBC batch + multi-row insert 로 저장한다.
+ *       - entity 를 거치지 않기 때문에 저장 후 MembersBulkChangedEvent 를 발행한다.
+ *         (중간에 실패해도 저장된 row 가 있으면 발행한다.)
+ *     - id 는 hibernate_sequence 에서 partition 크기만큼 한번에 받아온다. (H2 문법)
+ *     - 끝난 job 은 member.import.job-retention 동안만 들고 있고, member.import.max-jobs 개를 넘으면
+ *       오래된 것부터 버린다. (버린 job 은 resume 할 수 없다.)
+ * </pre>
+ */
+@Component
+public class MemberCsvImporter {
+
+  private static final Logger log = LoggerFactory.getLogger(MemberCsvImporter.class);
+
+  private static final String SELECT_TEAMS = "select team_id, name from team";
+
+  private static final String INSERT_TEAM = "insert into team (team_id, name) values (?, ?)";
+
+  private static final String NEXT_IDS =
+      "select next value for hibernate_sequence from system_range(1, ?)";
+
+  private static final String INSERT_MEMBER_ROW = "(?, ?, ?, ?)";
+
+  private static final String INSERT_MEMBER =
+      "insert into member (member_id, username, age, team_id) values ";
+
+  private final JdbcTemplate jdbcTemplate;
+  private final TransactionTemplate transactionTemplate;
+  private final ApplicationEventPublisher eventPublisher;
+
+  private final int partitionSize;
+  private final int threads;
+  private final int rowsPerStatement;
+  private final String insertMembers;
+  private final Duration jobRetention;
+  private final int maxJobs;
+
+  private final Map<String, MemberImportJob> jobs = new ConcurrentHashMap<>();
+
+  public MemberCsvImporter(
+      JdbcTemplate jdbcTemplate,
+      PlatformTransactionManager transactionManager,
+      ApplicationEventPublisher eventPublisher,
+      @Value("${member.import.partition-size:5000}") int partitionSize,
+      @Value("${member.import.threads:4}") int threads,
+      @Value("${member.import.rows-per-statement:100}") int rowsPerStatement,
+      @Value("${member.import.job-retention:24h}") Duration jobRetention,
+      @Value("${member.import.max-jobs:100}") int maxJobs) {
+    this.jdbcTemplate = jdbcTemplate;
+    this.transactionTemplate = new TransactionTemplate(transactionManager);
+    this.eventPublisher = eventPublisher;
+    this.partitionSize = partitionSize;
+    this.threads = threads;
+    this.rowsPerStatement = rowsPerStatement;
+    this.insertMembers =
+        INSERT_MEMBER + String.join(", ", Collections.nCopies(rowsPerStatement, INSERT_MEMBER_ROW));
+    this.jobRetention = jobRetention;
+    this.maxJobs = maxJobs;
+  }
+
+  public MemberImportJob findJob(String jobId) {
+    return jobs.get(jobId);
+  }
+
+  /**
+   * @param resumeJobId 이어서 할 job id - 같은 파일, 같은 partition 크기여야 한다. 처음이면 null
+   */
+  public MemberImportJob importMembers(InputStream in, String resumeJobId) throws IOException {
+    evictJobs();
+
+    MemberImportJob job = resumeJobId != null ? jobs.get(resumeJobId) : null;
+
+    if (resumeJobId != null && job == null) {
+      throw new IllegalArgumentException("unknown import job. jobId=" + resumeJobId);
+    }
+
+    if (job == null) {
+      job = new MemberImportJob(partitionSize);
+      job.tryStart();
+      jobs.put(job.getId(), job);
+    } else if (job.getPartitionSize() != partitionSize) {
+      throw new IllegalStateException("partition size changed. jobId=" + resumeJobId);
+    } else if (!job.tryStart()) {
+      // 상태를 확인하고 바꾸는 것을 한번에 해서, 같은 job 을 두 번 이어서 하지 않는다.
+      throw new IllegalStateException("import job is still running. jobId=" + resumeJobId);
+    }
+
+    ExecutorService executor = Executors.newFixedThreadPool(threads);
+    Semaphore inFlight = new Semaphore(threads * 2);
+
+    try (MemberCsvReader reader = new MemberCsvReader(in)) {
+      Map<String, Long> teamIds = loadTeamIds();
+      List<MemberCsvRow> partition = new ArrayList<>(partitionSize);
+      int partitionIndex = 0;
+
+      while (true) {
+        MemberCsvRow row;
+        try {
+          row = reader.next();
+        } catch (MemberCsvParseException e) {
+          job.parseError(e.getMessage());
+          continue;
+        }
+
+        if (row == null) {
+          break;
+        }
+
+        job.rowRead();
+        partition.add(row);
+
+        if (partition.size() == partitionSize) {
+          submit(job, executor, inFlight, partitionIndex++, partition, teamIds);
+          partition = new ArrayList<>(partitionSize);
+        }
+      }
+
+      if (!partition.isEmpty()) {
+        submit(job, executor, inFlight, partitionIndex, partition, teamIds);
+      }
+    } catch (InterruptedException e) {
+      Thread.currentThread().interrupt();
+      throw new IOException("import interrupted", e);
+    } finally {
+      executor.shutdown();
+      awaitTermination(executor);
+      job.finish();
+
+      log.info(
+          "member csv imported. jobId={}, status={}, rows={}, skipped={}, failedPartitions={}, elapsed={}ms, rows/sec={}",
+          job.getId(),
+          job.getStatus(),
+          job.getRowsImported(),
+          job.getRowsSkipped(),
+          job.getFailedPartitions().size(),
+          job.getElapsedMillis(),
+          job.getRowsPerSecond());
+
+      // 읽다가 실패해도 이미 commit 된 partition 은 알린다.
+      if (job.getRowsImported() > 0) {
+        eventPublisher.publishEvent(
+            new MembersBulkChangedEvent("csv-import", job.getRowsImported()));
+      }
+    }
+
+    return job;
+  }
+
+  /** 오래된 job 을 버린다. 실행 중인 job 은 남긴다. */
+  private void evictJobs() {
+    long now = System.currentTimeMillis();
+
+    jobs.values().removeIf(job -> job.isExpired(now, jobRetention.toMillis()));
+
+    if (jobs.size() < maxJobs) {
+      return;
+    }
+
+    jobs.values().stream()
+        .filter(MemberImportJob::isFinished)
+        .sorted(Comparator.comparingLong(MemberImportJob::getFinishedAt))
+        .limit(jobs.size() - maxJobs + 1)
+        .forEach(job -> jobs.remove(job.getId()));
+  }
+
+  private void submit(
+      MemberImportJob job,
+      ExecutorService executor,
+      Semaphore inFlight,
+      int partitionIndex,
+      List<MemberCsvRow> rows,
+      Map<String, Long> teamIds)
+      throws InterruptedException {
+
+    if (job.isCompleted(partitionIndex)) {
+      job.partitionSkipped(rows.size());
+      return;
+    }
+
+    // team 은 partition 을 넘기기 전에 읽는 thread 에서 만들어 둔다.
+    List<Object[]> values = new ArrayList<>(rows.size());
+    for (MemberCsvRow row : rows) {
+      Long teamId =
+          row.getTeamName() != null
+              ? teamIds.computeIfAbsent(row.getTeamName(), this::createTeam)
+              : null;
+      values.add(new Object[] {row.getUsername(), row.getAge(), teamId});
+    }
+
+    long firstLine = rows.get(0).getLineNumber();
+    long lastLine = rows.get(rows.size() - 1).getLineNumber();
+
+    inFlight.acquire();
+    job.partitionSubmitted();
+
+    executor.execute(
+        () -> {
+          try {
+            transactionTemplate.executeWithoutResult(status -> insertMembers(values));
+            job.partitionCompleted(partitionIndex, values.size());
+          } catch (RuntimeException e) {
+            log.warn("member import partition failed. partition={}", partitionIndex, e);
+            job.partitionFailed(partitionIndex, firstLine, lastLine, e);
+          } finally {
+            inFlight.release();
+          }
+        });
+  }
+
+  private void insertMembers(List<Object[]> values) {
+    List<Long> ids = nextIds(values.size());
+
+    int multiRowCount = values.size() / rowsPerStatement * rowsPerStatement;
+
+    List<Object[]> multiRowArgs = new ArrayList<>(multiRowCount / rowsPerStatement);
+    for (int from = 0; from < multiRowCount; from += rowsPerStatement) {
+      Object[] args = new Object[rowsPerStatement * 4];
+
+      for (int i = 0; i < rowsPerStatement; i++) {
+        fill(args, i * 4, ids.get(from + i), values.get(from + i));
+      }
+
+      multiRowArgs.add(args);
+    }
+
+    if (!multiRowArgs.isEmpty()) {
+      jdbcTemplate.batchUpdate(insertMembers, multiRowArgs);
+    }
+
+    List<Object[]> singleRowArgs = new ArrayList<>(values.size() - multiRowCount);
+    for (int i = multiRowCount; i < values.size(); i++) {
+      Object[] args = new Object[4];
+      fill(args, 0, ids.get(i), values.get(i));
+      singleRowArgs.add(args);
+    }
+
+    if (!singleRowArgs.isEmpty()) {
+      jdbcTemplate.batchUpdate(INSERT_MEMBER + INSERT_MEMBER_ROW, singleRowArgs);
+    }
+  }
+
+  private static void fill(Object[] args, int offset, Long id, Object[] value) {
+    args[offset] = id;
+    args[offset + 1] = value[0];
+    args[offset + 2] = value[1];
+    args[offset + 3] = value[2];
+  }
+
+  private List<Long> nextIds(int count) {
+    return jdbcTemplate.queryForList(NEXT_IDS, Long.class, count);
+  }
+
+  private Map<String, Long> loadTeamIds() {
+    Map<String, Long> teamIds = new ConcurrentHashMap<>();
+
+    jdbcTemplate.query(
+        SELECT_TEAMS,
+        rs -> {
+          String name = rs.getString("name");
+          if (name != null) {
+            teamIds.putIfAbsent(name, rs.getLong("team_id"));
+          }
+        });
+
+    return teamIds;
+  }
+
+  private Long createTeam(String name) {
+    Long id = nextIds(1).get(0);
+    jdbcTemplate.update(INSERT_TEAM, id, name);
+    return id;
+  }
+
+  private static void awaitTermination(ExecutorService executor) {
+    try {
+      while (!executor.awaitTermination(1, TimeUnit.MINUTES)) {
+        log.info("waiting for member import partitions to finish.");
+      }
+    } catch (InterruptedException e) {
+      executor.shutdownNow();
+      Thread.currentThread().interrupt();
+    }
+  }
+}
@@ -0,0 +1,15 @@
+package study.querydsl.csv;
+
+public class MemberCsvParseException extends RuntimeException {
+
+  private final long lineNumber;
+
+  public MemberCsvParseException(long lineNumber, String message) {
+    super("line " + lineNumber + ": " + message);
+    this.lineNumber = lineNumber;
+  }
+
+  public long getLineNumber() {
+    return lineNumber;
+  }
+}
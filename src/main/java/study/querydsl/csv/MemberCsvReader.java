@@ -0,0 +1,136 @@
+package study.querydsl.csv;
+
+import java.io.BufferedReader;
+import java.io.Closeable;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.InputStreamReader;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * username,age,teamName 형식의 CSV 를 한 줄씩 읽는다.
+ *
+ * <pre>
+ *     - 전체를 메모리에 올리지 않는다.
+ *     - 첫 줄이 header (username,...) 이면 건너뛴다.
+ *     - teamName 은 생략할 수 있다.
+ *     - 따옴표로 감싼 값 안에는 , " 줄바꿈이 들어갈 수 있다. ("" 는 " 로 읽는다.)
+ * </pre>
+ */
+public class MemberCsvReader implements Closeable {
+
+  private final BufferedReader reader;
+  private final List<String> fields = new ArrayList<>(3);
+  private final StringBuilder field = new StringBuilder(64);
+
+  private long lineNumber;
+
+  public MemberCsvReader(InputStream in) {
+    this.reader = new BufferedReader(new InputStreamReader(in, StandardCharsets.UTF_8), 64 * 1024);
+  }
+
+  /**
+   * @return 다음 row, 더 없으면 null
+   * @throws MemberCsvParseException 형식이 맞지 않는 줄 - 해당 줄은 건너뛰고 다시 호출할 수 있다.
+   */
+  public MemberCsvRow next() throws IOException {
+    while (true) {
+      String line = reader.readLine();
+
+      if (line == null) {
+        return null;
+      }
+
+      lineNumber++;
+      long startLine = lineNumber;
+
+      if (line.trim().isEmpty()) {
+        continue;
+      }
+
+      if (startLine == 1 && line.toLowerCase().startsWith("username")) {
+        continue;
+      }
+
+      split(line);
+
+      if (fields.size() < 2 || fields.size() > 3) {
+        throw new MemberCsvParseException(startLine, "expected username,age[,teamName]");
+      }
+
+      String username = fields.get(0);
+      if (username.isEmpty()) {
+        throw new MemberCsvParseException(startLine, "username is empty");
+      }
+
+      int age;
+      try {
+        age = Integer.parseInt(fields.get(1).trim());
+      } catch (NumberFormatException e) {
+        throw new MemberCsvParseException(startLine, "age is not a number: " + fields.get(1));
+      }
+
+      String teamName = fields.size() == 3 && !fields.get(2).isEmpty() ? fields.get(2) : null;
+
+      return new MemberCsvRow(startLine, username, age, teamName);
+    }
+  }
+
+  @Override
+  public void close() throws IOException {
+    reader.close();
+  }
+
+  private void split(String firstLine) throws IOException {
+    fields.clear();
+    field.setLength(0);
+
+    String line = firstLine;
+    boolean quoted = false;
+    int i = 0;
+
+    while (true) {
+      if (i == line.length()) {
+        if (!quoted) {
+          break;
+        }
+
+        // 따옴표 안의 줄바꿈
+        String nextLine = reader.readLine();
+        if (nextLine == null) {
+          throw new MemberCsvParseException(lineNumber, "unterminated quote");
+        }
+
+        lineNumber++;
+        field.append('\n');
+        line = nextLine;
+        i = 0;
+        continue;
+      }
+
+      char c = line.charAt(i++);
+
+      if (quoted) {
+        if (c != '"') {
+          field.append(c);
+        } else if (i < line.length() && line.charAt(i) == '"') {
+          field.append('"');
+          i++;
+        } else {
+          quoted = false;
+        }
+      } else if (c == '"') {
+        quoted = true;
+      } else if (c == ',') {
+        fields.add(field.toString());
+        field.setLength(0);
+      } else {
+        field.append(c);
+      }
+    }
+
+    fields.add(field.toString());
+  }
+}
@@ -0,0 +1,33 @@
+package study.querydsl.csv;
+
+/** import 할 CSV 한 줄 - username,age,teamName */
+public class MemberCsvRow {
+
+  private final long lineNumber;
+  private final String username;
+  private final int age;
+  private final String teamName;
+
+  public MemberCsvRow(long lineNumber, String username, int age, String teamName) {
+    this.lineNumber = lineNumber;
+    this.username = username;
+    this.age = age;
+    this.teamName = teamName;
+  }
+
+  public long getLineNumber() {
+    return lineNumber;
+  }
+
+  public String getUsername() {
+    return username;
+  }
+
+  public int getAge() {
+    return age;
+  }
+
+  public String getTeamName() {
+    return teamName;
+  }
+}
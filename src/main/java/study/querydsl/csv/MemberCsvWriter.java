@@ -0,0 +1,128 @@
+package study.querydsl.csv;
+
+import study.querydsl.dto.MemberTeamDto;
+
+import java.io.BufferedWriter;
+import java.io.Closeable;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.io.OutputStreamWriter;
+import java.io.Writer;
+import java.nio.charset.StandardCharsets;
+
+/**
+ * MemberTeamDto 를 CSV 한 줄씩 output stream 에 쓴다.
+ *
+ * <pre>
+ *     - 한 줄을 만드는 buffer 와 출력 buffer 는 처음 만든 것을 계속 쓴다.
+ *     - 줄 단위로 String 을 만들지 않는다.
+ * </pre>
+ */
+public class MemberCsvWriter implements Closeable {
+
+  static final String HEADER = "memberId,username,age,teamId,teamName";
+
+  private static final int BUFFER_SIZE = 64 * 1024;
+
+  private final CountingOutputStream out;
+  private final Writer writer;
+  private final StringBuilder line = new StringBuilder(128);
+  private char[] chars = new char[128];
+
+  private long rows;
+
+  public MemberCsvWriter(OutputStream out) {
+    this.out = new CountingOutputStream(out);
+    this.writer =
+        new BufferedWriter(new OutputStreamWriter(this.out, StandardCharsets.UTF_8), BUFFER_SIZE);
+  }
+
+  public void writeHeader() throws IOException {
+    writer.write(HEADER);
+    writer.write('\n');
+  }
+
+  public void write(MemberTeamDto dto) throws IOException {
+    line.setLength(0);
+
+    appendNumber(dto.getMemberId());
+    line.append(',');
+    appendText(dto.getUsername());
+    line.append(',');
+    line.append(dto.getAge());
+    line.append(',');
+    appendNumber(dto.getTeamId());
+    line.append(',');
+    appendText(dto.getTeamName());
+    line.append('\n');
+
+    // Writer#append(CharSequence) 는 toString() 을 하기 때문에 char 배열로 복사해서 쓴다.
+    int length = line.length();
+    if (chars.length < length) {
+      chars = new char[Math.max(length, chars.length * 2)];
+    }
+
+    line.getChars(0, length, chars, 0);
+    writer.write(chars, 0, length);
+    rows++;
+  }
+
+  public void flush() throws IOException {
+    writer.flush();
+  }
+
+  public long getRows() {
+    return rows;
+  }
+
+  /** flush 된 byte 수 */
+  public long getBytes() {
+    return out.getCount();
+  }
+
+  @Override
+  public void close() throws IOException {
+    writer.close();
+  }
+
+  private void appendNumber(Long value) {
+    if (value != null) {
+      line.append(value.longValue());
+    }
+  }
+
+  private void appendText(String value) {
+    if (value == null) {
+      return;
+    }
+
+    if (!needsQuote(value)) {
+      line.append(value);
+      return;
+    }
+
+    line.append('"');
+    for (int i = 0; i < value.length(); i++) {
+      char c = value.charAt(i);
+
+      if (c == '"') {
+        line.append('"');
+      }
+
+      line.append(c);
+    }
+    line.append('"');
+  }
+
+  private static boolean needsQuote(String value) {
+    for (int i = 0; i < value.length(); i++) {
+      char c = value.charAt(i);
+
+      if (c == ',' || c == '"' || c == '\n' || c == '\r') {
+        return true;
+      }
+    }
+
+    return false;
+  }
+}
@@ -0,0 +1,182 @@
+package study.querydsl.csv;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.TreeMap;
+import java.util.UUID;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * member CSV import 진행 상황
+ *
+ * <pre>
+ *     - partition 은 하나의 transaction 으로 저장된다. 실패한 partition 은 통째로 rollback 된다.
+ *     - 같은 파일로 다시 import 하면서 job id 를 넘기면, 이미 저장된 partition 은 건너뛴다.
+ * </pre>
+ */
+public class MemberImportJob {
+
+  public enum Status {
+    RUNNING,
+    COMPLETED,
+    FAILED
+  }
+
+  private static final int MAX_ERRORS = 100;
+
+  private final String id = UUID.randomUUID().toString();
+  private final int partitionSize;
+
+  private final AtomicBoolean running = new AtomicBoolean();
+
+  private volatile Status status = Status.RUNNING;
+  private volatile long startedAt;
+  private volatile long finishedAt;
+
+  private final AtomicLong rowsRead = new AtomicLong();
+  private final AtomicLong rowsImported = new AtomicLong();
+  private final AtomicLong rowsSkipped = new AtomicLong();
+  private final AtomicLong partitionsSubmitted = new AtomicLong();
+
+  private final Set<Integer> completedPartitions = ConcurrentHashMap.newKeySet();
+  private final Map<Integer, String> failedPartitions = new ConcurrentHashMap<>();
+  private final List<String> errors = Collections.synchronizedList(new ArrayList<>());
+
+  MemberImportJob(int partitionSize) {
+    this.partitionSize = partitionSize;
+  }
+
+  /** @return 이미 실행 중이면 false (같은 job 을 동시에 resume 한 경우) */
+  boolean tryStart() {
+    if (!running.compareAndSet(false, true)) {
+      return false;
+    }
+
+    status = Status.RUNNING;
+    startedAt = System.currentTimeMillis();
+    finishedAt = 0;
+    rowsRead.set(0);
+    rowsImported.set(0);
+    rowsSkipped.set(0);
+    partitionsSubmitted.set(0);
+    failedPartitions.clear();
+    errors.clear();
+    return true;
+  }
+
+  void finish() {
+    finishedAt = System.currentTimeMillis();
+    status = failedPartitions.isEmpty() ? Status.COMPLETED : Status.FAILED;
+    running.set(false);
+  }
+
+  boolean isFinished() {
+    return !running.get() && finishedAt > 0;
+  }
+
+  /** 끝난 지 maxAgeMillis 가 지났으면 true (실행 중이면 false) */
+  boolean isExpired(long now, long maxAgeMillis) {
+    return isFinished() && now - finishedAt > maxAgeMillis;
+  }
+
+  long getFinishedAt() {
+    return finishedAt;
+  }
+
+  void rowRead() {
+    rowsRead.incrementAndGet();
+  }
+
+  void parseError(String message) {
+    addError(message);
+  }
+
+  boolean isCompleted(int partition) {
+    return completedPartitions.contains(partition);
+  }
+
+  void partitionSubmitted() {
+    partitionsSubmitted.incrementAndGet();
+  }
+
+  void partitionSkipped(int rows) {
+    rowsSkipped.addAndGet(rows);
+  }
+
+  void partitionCompleted(int partition, int rows) {
+    completedPartitions.add(partition);
+    rowsImported.addAndGet(rows);
+  }
+
+  void partitionFailed(int partition, long firstLine, long lastLine, Exception e) {
+    String message = "lines " + firstLine + "-" + lastLine + ": " + e.getMessage();
+    failedPartitions.put(partition, message);
+    addError("partition " + partition + " " + message);
+  }
+
+  private void addError(String message) {
+    synchronized (errors) {
+      if (errors.size() < MAX_ERRORS) {
+        errors.add(message);
+      }
+    }
+  }
+
+  public String getId() {
+    return id;
+  }
+
+  public Status getStatus() {
+    return status;
+  }
+
+  public int getPartitionSize() {
+    return partitionSize;
+  }
+
+  public long getRowsRead() {
+    return rowsRead.get();
+  }
+
+  public long getRowsImported() {
+    return rowsImported.get();
+  }
+
+  /** 이전 실행에서 이미 저장되어 건너뛴 row 수 */
+  public long getRowsSkipped() {
+    return rowsSkipped.get();
+  }
+
+  public long getPartitionsSubmitted() {
+    return partitionsSubmitted.get();
+  }
+
+  public int getPartitionsCompleted() {
+    return completedPartitions.size();
+  }
+
+  public Map<Integer, String> getFailedPartitions() {
+    return new TreeMap<>(failedPartitions);
+  }
+
+  /** 처음 100 개의 오류만 남긴다. */
+  public List<String> getErrors() {
+    synchronized (errors) {
+      return new ArrayList<>(errors);
+    }
+  }
+
+  public long getElapsedMillis() {
+    long end = finishedAt > 0 ? finishedAt : System.currentTimeMillis();
+    return end - startedAt;
+  }
+
+  public long getRowsPerSecond() {
+    return rowsImported.get() * 1000 / Math.max(getElapsedMillis(), 1);
+  }
+}
@@ -6,6 +6,7 @@ public class MemberSearchCondition {
   private String teamName;
   private Integer ageGoe;
   private Integer ageLoe;
+  private boolean includeArchived; // true 이면 archive 된 member 도 같이 검색한다.
 
   public String getUsername() {
     return username;
@@ -38,4 +39,30 @@ public class MemberSearchCondition {
   public void setAgeLoe(Integer ageLoe) {
     this.ageLoe = ageLoe;
   }
+
+  public boolean isIncludeArchived() {
+    return includeArchived;
+  }
+
+  public void setIncludeArchived(boolean includeArchived) {
+    this.includeArchived = includeArchived;
+  }
+
+  @Override
+  public String toString() {
+    return "MemberSearchCondition{"
+        + "username='"
+        + username
+        + '\''
+        + ", teamName='"
+        + teamName
+        + '\''
+        + ", ageGoe="
+        + ageGoe
+        + ", ageLoe="
+        + ageLoe
+        + ", includeArchived="
+        + includeArchived
+        + '}';
+  }
 }
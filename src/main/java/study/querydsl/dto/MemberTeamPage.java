@@ -0,0 +1,56 @@
+package study.querydsl.dto;
+
+import org.springframework.data.domain.Page;
+
+import java.util.List;
+
+/**
+ * v2 / v3 검색 응답
+ *
+ * <pre>
+ *     - PageImpl 을 그대로 내보내면 pageable / sort 까지 직렬화되기 때문에, 필요한 값만 담는다.
+ *     - 직렬화는 MemberTeamJsonComponent 가 한다.
+ * </pre>
+ */
+public class MemberTeamPage {
+
+  private final List<MemberTeamDto> content;
+  private final int page;
+  private final int size;
+  private final long total;
+  private final boolean hasNext;
+
+  public MemberTeamPage(
+      List<MemberTeamDto> content, int page, int size, long total, boolean hasNext) {
+    this.content = content;
+    this.page = page;
+    this.size = size;
+    this.total = total;
+    this.hasNext = hasNext;
+  }
+
+  public static MemberTeamPage of(Page<MemberTeamDto> page) {
+    return new MemberTeamPage(
+        page.getContent(), page.getNumber(), page.getSize(), page.getTotalElements(), page.hasNext());
+  }
+
+  public List<MemberTeamDto> getContent() {
+    return content;
+  }
+
+  public int getPage() {
+    return page;
+  }
+
+  public int getSize() {
+    return size;
+  }
+
+  public long getTotal() {
+    return total;
+  }
+
+  public boolean isHasNext() {
+    return hasNext;
+  }
+}
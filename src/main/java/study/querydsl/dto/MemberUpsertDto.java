@@ -0,0 +1,55 @@
+package study.querydsl.dto;
+
+/** username 으로 member 를 찾아 없으면 추가하고, 있으면 age / team 을 바꾼다. */
+public class MemberUpsertDto {
+
+  private String username;
+  private int age;
+  private String teamName;
+
+  public MemberUpsertDto() {}
+
+  public MemberUpsertDto(String username, int age, String teamName) {
+    this.username = username;
+    this.age = age;
+    this.teamName = teamName;
+  }
+
+  public String getUsername() {
+    return username;
+  }
+
+  public void setUsername(String username) {
+    this.username = username;
+  }
+
+  public int getAge() {
+    return age;
+  }
+
+  public void setAge(int age) {
+    this.age = age;
+  }
+
+  public String getTeamName() {
+    return teamName;
+  }
+
+  public void setTeamName(String teamName) {
+    this.teamName = teamName;
+  }
+
+  @Override
+  public String toString() {
+    return "MemberUpsertDto{"
+        + "username='"
+        + username
+        + '\''
+        + ", age="
+        + age
+        + ", teamName='"
+        + teamName
+        + '\''
+        + '}';
+  }
+}
@@ -0,0 +1,41 @@
+package study.querydsl.dto;
+
+public class MemberUpsertResult {
+
+  private long inserted;
+  private long updated;
+  private long unchanged;
+
+  public MemberUpsertResult() {}
+
+  public MemberUpsertResult(long inserted, long updated, long unchanged) {
+    this.inserted = inserted;
+    this.updated = updated;
+    this.unchanged = unchanged;
+  }
+
+  public long getInserted() {
+    return inserted;
+  }
+
+  public long getUpdated() {
+    return updated;
+  }
+
+  /** 값이 같아서 쓰지 않은 row 수 */
+  public long getUnchanged() {
+    return unchanged;
+  }
+
+  @Override
+  public String toString() {
+    return "MemberUpsertResult{"
+        + "inserted="
+        + inserted
+        + ", updated="
+        + updated
+        + ", unchanged="
+        + unchanged
+        + '}';
+  }
+}
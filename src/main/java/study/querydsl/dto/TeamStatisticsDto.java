@@ -0,0 +1,75 @@
+package study.querydsl.dto;
+
+import com.querydsl.core.annotations.QueryProjection;
+
+public class TeamStatisticsDto {
+
+  private Long teamId;
+  private String teamName;
+  private long memberCount;
+  private long ageSum;
+  private Double ageAvg;
+  private Integer ageMin;
+  private Integer ageMax;
+
+  @QueryProjection
+  public TeamStatisticsDto(
+      Long teamId, String teamName, long memberCount, long ageSum, Integer ageMin, Integer ageMax) {
+    this.teamId = teamId;
+    this.teamName = teamName;
+    this.memberCount = memberCount;
+    this.ageSum = ageSum;
+    this.ageAvg = memberCount > 0 ? (double) ageSum / memberCount : null;
+    this.ageMin = ageMin;
+    this.ageMax = ageMax;
+  }
+
+  public Long getTeamId() {
+    return teamId;
+  }
+
+  public String getTeamName() {
+    return teamName;
+  }
+
+  public long getMemberCount() {
+    return memberCount;
+  }
+
+  public long getAgeSum() {
+    return ageSum;
+  }
+
+  public Double getAgeAvg() {
+    return ageAvg;
+  }
+
+  public Integer getAgeMin() {
+    return ageMin;
+  }
+
+  public Integer getAgeMax() {
+    return ageMax;
+  }
+
+  @Override
+  public String toString() {
+    return "TeamStatisticsDto{"
+        + "teamId="
+        + teamId
+        + ", teamName='"
+        + teamName
+        + '\''
+        + ", memberCount="
+        + memberCount
+        + ", ageSum="
+        + ageSum
+        + ", ageAvg="
+        + ageAvg
+        + ", ageMin="
+        + ageMin
+        + ", ageMax="
+        + ageMax
+        + '}';
+  }
+}
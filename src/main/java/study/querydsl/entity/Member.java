@@ -1,10 +1,25 @@
 package study.querydsl.entity;
 
+import org.hibernate.Hibernate;
+import org.hibernate.engine.spi.ManagedEntity;
+
 import javax.persistence.*;
+import java.util.List;
 
 @Entity
 public class Member {
 
+  /**
+   * -PhibernateEnhance 로 build 했는지 여부
+   *
+   * <pre>
+   *     - build.gradle 은 enhancement 를 켤 때 association management 도 항상 같이 켠다.
+   *     - enhance 된 entity 는 ManagedEntity 를 구현한다. (association management 만 따로 알 수 있는 interface 는 없다.)
+   * </pre>
+   */
+  private static final boolean ASSOCIATION_MANAGED =
+      ManagedEntity.class.isAssignableFrom(Member.class);
+
   @Id
   @GeneratedValue
   @Column(name = "member_id")
@@ -39,7 +54,14 @@ public class Member {
   public void changeTeam(Team team) {
     this.team = team;
 
-    team.getMembers().add(this);
+    List<Member> members = team.getMembers();
+
+    // enhance 하지 않은 기본 build 에서는 contains (O(n)) 없이 그대로 추가한다.
+    // association management 가 켜져 있으면 위에서 이미 추가되어 있을 수 있다.
+    // 초기화되지 않은 collection 은 contains 로 초기화하지 않고 그대로 추가한다.
+    if (!ASSOCIATION_MANAGED || !Hibernate.isInitialized(members) || !members.contains(this)) {
+      members.add(this);
+    }
   }
 
   public Long getId() {
@@ -0,0 +1,80 @@
+package study.querydsl.entity;
+
+import javax.persistence.Column;
+import javax.persistence.Entity;
+import javax.persistence.Id;
+import javax.persistence.Index;
+import javax.persistence.Table;
+import java.time.LocalDateTime;
+
+/**
+ * archive 된 (cold) member
+ *
+ * <pre>
+ *     - MemberArchiver 가 member 에서 옮겨온다. member 와 같은 id 를 그대로 쓴다.
+ *     - team 은 연관관계 없이 id 만 들고 있는다. (team 이 지워져도 archive 는 남는다.)
+ *     - 기본 검색은 member 만 보고, includeArchived 일 때만 같이 본다.
+ * </pre>
+ */
+@Entity
+@Table(
+    name = "member_archive",
+    indexes = {
+      @Index(name = "idx_member_archive_username", columnList = "username"),
+      @Index(name = "idx_member_archive_team_id", columnList = "team_id")
+    })
+public class MemberArchive {
+
+  @Id
+  @Column(name = "member_id")
+  private Long memberId;
+
+  private String username;
+
+  private int age;
+
+  @Column(name = "team_id")
+  private Long teamId;
+
+  @Column(name = "archived_at")
+  private LocalDateTime archivedAt;
+
+  protected MemberArchive() {}
+
+  public Long getMemberId() {
+    return memberId;
+  }
+
+  public String getUsername() {
+    return username;
+  }
+
+  public int getAge() {
+    return age;
+  }
+
+  public Long getTeamId() {
+    return teamId;
+  }
+
+  public LocalDateTime getArchivedAt() {
+    return archivedAt;
+  }
+
+  @Override
+  public String toString() {
+    return "MemberArchive{"
+        + "memberId="
+        + memberId
+        + ", username='"
+        + username
+        + '\''
+        + ", age="
+        + age
+        + ", teamId="
+        + teamId
+        + ", archivedAt="
+        + archivedAt
+        + '}';
+  }
+}
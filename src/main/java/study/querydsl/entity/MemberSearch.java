@@ -0,0 +1,86 @@
+package study.querydsl.entity;
+
+import javax.persistence.Column;
+import javax.persistence.Entity;
+import javax.persistence.Id;
+import javax.persistence.Index;
+import javax.persistence.Table;
+
+/**
+ * member 검색 전용 비정규화 table
+ *
+ * <pre>
+ *     - team name 을 같이 저장해서 검색할 때 team 과 join 하지 않는다.
+ *     - index 에 조회 column 을 모두 넣어서 (covering index) table 을 읽지 않고 index 만으로 검색할 수 있게 한다.
+ *     - Member / Team 이 바뀔 때 MemberSearchTableListener 가 같이 갱신한다. 직접 수정하지 않는다.
+ * </pre>
+ */
+@Entity
+@Table(
+    name = "member_search",
+    indexes = {
+      @Index(
+          name = "idx_member_search_team_name_age",
+          columnList = "team_name, age, member_id, username, team_id"),
+      @Index(
+          name = "idx_member_search_age",
+          columnList = "age, member_id, username, team_id, team_name"),
+      @Index(name = "idx_member_search_username", columnList = "username"),
+      @Index(name = "idx_member_search_team_id", columnList = "team_id")
+    })
+public class MemberSearch {
+
+  @Id
+  @Column(name = "member_id")
+  private Long memberId;
+
+  private String username;
+
+  private int age;
+
+  @Column(name = "team_id")
+  private Long teamId;
+
+  @Column(name = "team_name")
+  private String teamName;
+
+  protected MemberSearch() {}
+
+  public Long getMemberId() {
+    return memberId;
+  }
+
+  public String getUsername() {
+    return username;
+  }
+
+  public int getAge() {
+    return age;
+  }
+
+  public Long getTeamId() {
+    return teamId;
+  }
+
+  public String getTeamName() {
+    return teamName;
+  }
+
+  @Override
+  public String toString() {
+    return "MemberSearch{"
+        + "memberId="
+        + memberId
+        + ", username='"
+        + username
+        + '\''
+        + ", age="
+        + age
+        + ", teamId="
+        + teamId
+        + ", teamName='"
+        + teamName
+        + '\''
+        + '}';
+  }
+}
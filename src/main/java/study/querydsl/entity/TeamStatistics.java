@@ -0,0 +1,67 @@
+package study.querydsl.entity;
+
+import javax.persistence.Column;
+import javax.persistence.Entity;
+import javax.persistence.Id;
+
+/**
+ * team 별 member age 통계
+ *
+ * <pre>
+ *     - member 를 매번 group by 하지 않기 위해 member 변경 시 같이 갱신한다.
+ *     - 갱신은 TeamStatisticsListener 에서 SQL 로 직접 한다. (entity 로 수정하지 않는다.)
+ * </pre>
+ */
+@Entity
+public class TeamStatistics {
+
+  @Id
+  @Column(name = "team_id")
+  private Long teamId;
+
+  private long memberCount;
+
+  private long ageSum;
+
+  private Integer ageMin;
+
+  private Integer ageMax;
+
+  protected TeamStatistics() {}
+
+  public Long getTeamId() {
+    return teamId;
+  }
+
+  public long getMemberCount() {
+    return memberCount;
+  }
+
+  public long getAgeSum() {
+    return ageSum;
+  }
+
+  public Integer getAgeMin() {
+    return ageMin;
+  }
+
+  public Integer getAgeMax() {
+    return ageMax;
+  }
+
+  @Override
+  public String toString() {
+    return "TeamStatistics{"
+        + "teamId="
+        + teamId
+        + ", memberCount="
+        + memberCount
+        + ", ageSum="
+        + ageSum
+        + ", ageMin="
+        + ageMin
+        + ", ageMax="
+        + ageMax
+        + '}';
+  }
+}
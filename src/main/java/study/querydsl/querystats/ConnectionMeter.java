@@ -0,0 +1,55 @@
+package study.querydsl.querystats;
+
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+
+import java.util.concurrent.TimeUnit;
+
+/**
+ * connection 을 얻을 때까지 기다린 시간과 들고 있던 시간을 endpoint 별로 남긴다.
+ *
+ * <pre>
+ *     - member.connection.acquire : pool 에서 connection 을 받을 때까지
+ *     - member.connection.hold : 받은 뒤 close (pool 반납) 할 때까지
+ *       - open-in-view 가 켜져 있으면 응답을 다 쓸 때까지 들고 있는다.
+ *     - endpoint tag 는 connection 을 받을 때 thread 에 bind 되어 있던 값 (요청의 URL pattern, 없으면 none)
+ *     - pool 전체 값은 hikaricp.connections.* 로 따로 남는다.
+ * </pre>
+ */
+public class ConnectionMeter {
+
+  static final String NONE = "none";
+
+  private static final ThreadLocal<String> ENDPOINT = new ThreadLocal<>();
+
+  private final MeterRegistry meterRegistry;
+
+  public ConnectionMeter(MeterRegistry meterRegistry) {
+    this.meterRegistry = meterRegistry;
+  }
+
+  public static String currentEndpoint() {
+    String endpoint = ENDPOINT.get();
+    return endpoint == null ? NONE : endpoint;
+  }
+
+  public static void bind(String endpoint) {
+    ENDPOINT.set(endpoint);
+  }
+
+  public static void unbind() {
+    ENDPOINT.remove();
+  }
+
+  void acquired(String endpoint, long waitNanos) {
+    timer("member.connection.acquire", endpoint).record(waitNanos, TimeUnit.NANOSECONDS);
+  }
+
+  void released(String endpoint, long holdNanos) {
+    timer("member.connection.hold", endpoint).record(holdNanos, TimeUnit.NANOSECONDS);
+  }
+
+  private Timer timer(String name, String endpoint) {
+    return Timer.builder(name).tag("endpoint", endpoint).register(meterRegistry);
+  }
+}
@@ -0,0 +1,74 @@
+package study.querydsl.querystats;
+
+import io.micrometer.core.instrument.MeterRegistry;
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.beans.factory.config.BeanPostProcessor;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.core.Ordered;
+import org.springframework.web.servlet.config.annotation.AsyncSupportConfigurer;
+import org.springframework.web.servlet.config.annotation.InterceptorRegistry;
+import org.springframework.web.servlet.config.annotation.WebMvcConfigurer;
+
+import javax.sql.DataSource;
+
+/**
+ * DataSource bean 을 {@link MeteredDataSource} 로 감싸고, 요청마다 endpoint 를 bind 한다.
+ *
+ * <pre>
+ *     - member.connection-metrics.enabled=false 이면 감싸지 않는다.
+ *     - TracingDataSource 가 있으면 그 바깥을 감싼다. (hold 시간은 connection 을 쓰는 전체 시간이다.)
+ * </pre>
+ */
+@Configuration(proxyBeanMethods = false)
+@ConditionalOnProperty(name = "member.connection-metrics.enabled", matchIfMissing = true)
+public class ConnectionMeterConfig implements WebMvcConfigurer {
+
+  private final ConnectionMeterInterceptor interceptor = new ConnectionMeterInterceptor();
+
+  @Bean
+  public ConnectionMeter connectionMeter(MeterRegistry meterRegistry) {
+    return new ConnectionMeter(meterRegistry);
+  }
+
+  // BeanPostProcessor 는 다른 bean 보다 먼저 만들어져야 하기 때문에 static
+  @Bean
+  public static BeanPostProcessor meteredDataSourcePostProcessor(
+      ObjectProvider<ConnectionMeter> connectionMeter) {
+    return new MeteredDataSourcePostProcessor(connectionMeter);
+  }
+
+  @Override
+  public void addInterceptors(InterceptorRegistry registry) {
+    registry.addInterceptor(interceptor);
+  }
+
+  @Override
+  public void configureAsyncSupport(AsyncSupportConfigurer configurer) {
+    configurer.registerCallableInterceptors(interceptor);
+  }
+
+  static class MeteredDataSourcePostProcessor implements BeanPostProcessor, Ordered {
+
+    private final ObjectProvider<ConnectionMeter> connectionMeter;
+
+    MeteredDataSourcePostProcessor(ObjectProvider<ConnectionMeter> connectionMeter) {
+      this.connectionMeter = connectionMeter;
+    }
+
+    @Override
+    public Object postProcessAfterInitialization(Object bean, String beanName) {
+      if (bean instanceof DataSource && !(bean instanceof MeteredDataSource)) {
+        return new MeteredDataSource((DataSource) bean, connectionMeter.getObject());
+      }
+
+      return bean;
+    }
+
+    @Override
+    public int getOrder() {
+      return Ordered.LOWEST_PRECEDENCE;
+    }
+  }
+}
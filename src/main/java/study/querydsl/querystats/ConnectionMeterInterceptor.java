@@ -0,0 +1,62 @@
+package study.querydsl.querystats;
+
+import org.springframework.web.context.request.NativeWebRequest;
+import org.springframework.web.context.request.RequestAttributes;
+import org.springframework.web.context.request.async.CallableProcessingInterceptor;
+import org.springframework.web.servlet.AsyncHandlerInterceptor;
+import org.springframework.web.servlet.HandlerMapping;
+
+import javax.servlet.http.HttpServletRequest;
+import javax.servlet.http.HttpServletResponse;
+import java.util.concurrent.Callable;
+
+/**
+ * 요청의 URL pattern (예: /v2/members) 을 {@link ConnectionMeter} 의 endpoint 로 bind 한다.
+ *
+ * <pre>
+ *     - 요청 thread : preHandle 에서 bind, 요청이 끝나거나 async 로 넘어가면 unbind
+ *     - async thread (WebAsyncTask, StreamingResponseBody) : Callable 실행 전후로 bind / unbind
+ * </pre>
+ */
+class ConnectionMeterInterceptor implements AsyncHandlerInterceptor, CallableProcessingInterceptor {
+
+  private static final String ENDPOINT_ATTRIBUTE =
+      ConnectionMeterInterceptor.class.getName() + ".endpoint";
+
+  @Override
+  public boolean preHandle(
+      HttpServletRequest request, HttpServletResponse response, Object handler) {
+    Object pattern = request.getAttribute(HandlerMapping.BEST_MATCHING_PATTERN_ATTRIBUTE);
+    String endpoint = pattern != null ? pattern.toString() : ConnectionMeter.NONE;
+
+    request.setAttribute(ENDPOINT_ATTRIBUTE, endpoint);
+    ConnectionMeter.bind(endpoint);
+    return true;
+  }
+
+  @Override
+  public void afterConcurrentHandlingStarted(
+      HttpServletRequest request, HttpServletResponse response, Object handler) {
+    ConnectionMeter.unbind();
+  }
+
+  @Override
+  public void afterCompletion(
+      HttpServletRequest request, HttpServletResponse response, Object handler, Exception ex) {
+    ConnectionMeter.unbind();
+  }
+
+  @Override
+  public <T> void preProcess(NativeWebRequest request, Callable<T> task) {
+    Object endpoint = request.getAttribute(ENDPOINT_ATTRIBUTE, RequestAttributes.SCOPE_REQUEST);
+
+    if (endpoint != null) {
+      ConnectionMeter.bind(endpoint.toString());
+    }
+  }
+
+  @Override
+  public <T> void postProcess(NativeWebRequest request, Callable<T> task, Object concurrentResult) {
+    ConnectionMeter.unbind();
+  }
+}
@@ -0,0 +1,59 @@
+package study.querydsl.querystats;
+
+import java.lang.reflect.InvocationHandler;
+import java.lang.reflect.InvocationTargetException;
+import java.lang.reflect.Method;
+import java.lang.reflect.Proxy;
+import java.sql.Wrapper;
+
+/**
+ * JDBC 객체 (Connection, Statement) 를 JDK proxy 로 감쌀 때 공통으로 필요한 처리
+ *
+ * <pre>
+ *     - equals / hashCode 는 proxy 자신으로 판단한다.
+ *     - unwrap / isWrapperFor 는 proxy 가 구현한 interface 면 proxy 를, 아니면 감싼 객체에 묻는다.
+ *       - 여러 겹으로 감싸도 안쪽 proxy 와 실제 객체까지 그대로 찾아갈 수 있다.
+ *     - 나머지 호출은 handle() 로 넘기고, proceed() 로 감싼 객체를 호출한다.
+ * </pre>
+ */
+abstract class JdbcProxyHandler<T extends Wrapper> implements InvocationHandler {
+
+  protected final T target;
+
+  protected JdbcProxyHandler(T target) {
+    this.target = target;
+  }
+
+  static <P> P newProxy(Class<P> type, JdbcProxyHandler<?> handler) {
+    return type.cast(
+        Proxy.newProxyInstance(
+            JdbcProxyHandler.class.getClassLoader(), new Class<?>[] {type}, handler));
+  }
+
+  @Override
+  public final Object invoke(Object proxy, Method method, Object[] args) throws Throwable {
+    switch (method.getName()) {
+      case "equals":
+        return proxy == args[0];
+      case "hashCode":
+        return System.identityHashCode(proxy);
+      case "unwrap":
+        return ((Class<?>) args[0]).isInstance(proxy) ? proxy : target.unwrap((Class<?>) args[0]);
+      case "isWrapperFor":
+        return ((Class<?>) args[0]).isInstance(proxy)
+            || target.isWrapperFor((Class<?>) args[0]);
+      default:
+        return handle(proxy, method, args);
+    }
+  }
+
+  protected abstract Object handle(Object proxy, Method method, Object[] args) throws Throwable;
+
+  protected Object proceed(Method method, Object[] args) throws Throwable {
+    try {
+      return method.invoke(target, args);
+    } catch (InvocationTargetException e) {
+      throw e.getTargetException();
+    }
+  }
+}
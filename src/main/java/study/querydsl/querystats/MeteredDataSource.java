@@ -0,0 +1,71 @@
+package study.querydsl.querystats;
+
+import org.springframework.jdbc.datasource.DelegatingDataSource;
+
+import javax.sql.DataSource;
+import java.lang.reflect.Method;
+import java.sql.Connection;
+import java.sql.SQLException;
+
+/**
+ * connection 을 얻는 시간과 들고 있는 시간을 {@link ConnectionMeter} 에 넘기는 DataSource
+ *
+ * <pre>
+ *     - Connection 만 JDK proxy 로 감싸고 close 를 기다린다. 나머지 호출은 그대로 넘긴다. ({@link JdbcProxyHandler})
+ *     - close 는 여러번 불려도 한번만 센다.
+ * </pre>
+ */
+public class MeteredDataSource extends DelegatingDataSource {
+
+  private final ConnectionMeter connectionMeter;
+
+  public MeteredDataSource(DataSource targetDataSource, ConnectionMeter connectionMeter) {
+    super(targetDataSource);
+    this.connectionMeter = connectionMeter;
+  }
+
+  @Override
+  public Connection getConnection() throws SQLException {
+    long start = System.nanoTime();
+    return wrap(super.getConnection(), start);
+  }
+
+  @Override
+  public Connection getConnection(String username, String password) throws SQLException {
+    long start = System.nanoTime();
+    return wrap(super.getConnection(username, password), start);
+  }
+
+  private Connection wrap(Connection connection, long start) {
+    long acquired = System.nanoTime();
+    String endpoint = ConnectionMeter.currentEndpoint();
+
+    connectionMeter.acquired(endpoint, acquired - start);
+
+    return JdbcProxyHandler.newProxy(
+        Connection.class, new ConnectionHandler(connection, endpoint, acquired));
+  }
+
+  private class ConnectionHandler extends JdbcProxyHandler<Connection> {
+
+    private final String endpoint;
+    private final long acquired;
+    private boolean closed;
+
+    private ConnectionHandler(Connection connection, String endpoint, long acquired) {
+      super(connection);
+      this.endpoint = endpoint;
+      this.acquired = acquired;
+    }
+
+    @Override
+    protected Object handle(Object proxy, Method method, Object[] args) throws Throwable {
+      if ("close".equals(method.getName()) && !closed) {
+        closed = true;
+        connectionMeter.released(endpoint, System.nanoTime() - acquired);
+      }
+
+      return proceed(method, args);
+    }
+  }
+}
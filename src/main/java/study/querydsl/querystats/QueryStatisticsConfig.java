@@ -0,0 +1,33 @@
+package study.querydsl.querystats;
+
+import org.hibernate.stat.spi.StatisticsFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.orm.jpa.HibernatePropertiesCustomizer;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+
+import java.time.Duration;
+
+import static org.hibernate.stat.internal.StatisticsInitiator.STATS_BUILDER;
+
+/**
+ * Hibernate 통계 구현을 {@link SlowQueryStatistics} 로 바꾼다. (hibernate.stats.factory)
+ *
+ * <pre>
+ *     - member.slow-query.threshold 보다 오래 걸린 query 만 log 에 남는다.
+ * </pre>
+ */
+@Configuration(proxyBeanMethods = false)
+public class QueryStatisticsConfig {
+
+  @Bean
+  public HibernatePropertiesCustomizer slowQueryStatisticsCustomizer(
+      @Value("${member.slow-query.threshold:200ms}") Duration threshold) {
+
+    long thresholdMillis = threshold.toMillis();
+    StatisticsFactory factory =
+        sessionFactory -> new SlowQueryStatistics(sessionFactory, thresholdMillis);
+
+    return properties -> properties.put(STATS_BUILDER, factory);
+  }
+}
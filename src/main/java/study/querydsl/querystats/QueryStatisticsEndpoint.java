@@ -0,0 +1,85 @@
+package study.querydsl.querystats;
+
+import org.hibernate.SessionFactory;
+import org.hibernate.stat.QueryStatistics;
+import org.hibernate.stat.Statistics;
+import org.springframework.boot.actuate.endpoint.annotation.DeleteOperation;
+import org.springframework.boot.actuate.endpoint.annotation.Endpoint;
+import org.springframework.boot.actuate.endpoint.annotation.ReadOperation;
+import org.springframework.lang.Nullable;
+import org.springframework.stereotype.Component;
+
+import javax.persistence.EntityManagerFactory;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * JPQL 별 Hibernate 통계 - /actuator/querystats
+ *
+ * <pre>
+ *     - GET : 실행 횟수, min / max / 평균 시간, 반환 row 수, query plan cache hit / miss, 2차 cache hit / miss
+ *       - 총 시간 (평균 x 횟수) 이 큰 순서로 limit 개 (기본 50)
+ *     - DELETE : 통계를 초기화한다.
+ * </pre>
+ */
+@Component
+@Endpoint(id = "querystats")
+public class QueryStatisticsEndpoint {
+
+  private static final int DEFAULT_LIMIT = 50;
+
+  private final Statistics statistics;
+
+  public QueryStatisticsEndpoint(EntityManagerFactory emf) {
+    this.statistics = emf.unwrap(SessionFactory.class).getStatistics();
+  }
+
+  @ReadOperation
+  public Map<String, Object> queries(@Nullable Integer limit) {
+    List<Map<String, Object>> queries = new ArrayList<>();
+
+    for (String query : statistics.getQueries()) {
+      queries.add(describe(query, statistics.getQueryStatistics(query)));
+    }
+
+    queries.sort(
+        Comparator.comparingLong((Map<String, Object> q) -> (Long) q.get("totalTime")).reversed());
+
+    int size = Math.min(queries.size(), limit == null ? DEFAULT_LIMIT : limit);
+
+    Map<String, Object> result = new LinkedHashMap<>();
+    result.put("enabled", statistics.isStatisticsEnabled());
+    result.put("queryExecutionCount", statistics.getQueryExecutionCount());
+    result.put("queryExecutionMaxTime", statistics.getQueryExecutionMaxTime());
+    result.put(
+        "queryExecutionMaxTimeQueryString", statistics.getQueryExecutionMaxTimeQueryString());
+    result.put("queryPlanCacheHitCount", statistics.getQueryPlanCacheHitCount());
+    result.put("queryPlanCacheMissCount", statistics.getQueryPlanCacheMissCount());
+    result.put("queries", queries.subList(0, size));
+    return result;
+  }
+
+  @DeleteOperation
+  public void clear() {
+    statistics.clear();
+  }
+
+  private static Map<String, Object> describe(String query, QueryStatistics stats) {
+    Map<String, Object> result = new LinkedHashMap<>();
+    result.put("query", query);
+    result.put("executionCount", stats.getExecutionCount());
+    result.put("totalTime", stats.getExecutionCount() * stats.getExecutionAvgTime());
+    result.put("minTime", stats.getExecutionMinTime());
+    result.put("maxTime", stats.getExecutionMaxTime());
+    result.put("avgTime", stats.getExecutionAvgTime());
+    result.put("rowCount", stats.getExecutionRowCount());
+    result.put("planCacheHitCount", stats.getPlanCacheHitCount());
+    result.put("planCacheMissCount", stats.getPlanCacheMissCount());
+    result.put("cacheHitCount", stats.getCacheHitCount());
+    result.put("cacheMissCount", stats.getCacheMissCount());
+    return result;
+  }
+}
@@ -0,0 +1,69 @@
+package study.querydsl.querystats;
+
+import java.util.Collection;
+
+/**
+ * 지금 thread 에서 실행 중인 repository method 와 그 인자
+ *
+ * <pre>
+ *     - 가장 바깥쪽 repository 호출만 남긴다. (repository 가 다른 repository 를 부르면 처음 불린 쪽)
+ *     - Hibernate 통계에는 JPQL 만 넘어오기 때문에, slow query log 에서 어디서 어떤 값으로 불렀는지 찾을 때 쓴다.
+ * </pre>
+ */
+final class RepositoryInvocation {
+
+  private static final int MAX_ARG_LENGTH = 200;
+  private static final ThreadLocal<RepositoryInvocation> CURRENT = new ThreadLocal<>();
+
+  private final String method;
+  private final Object[] args;
+
+  private RepositoryInvocation(String method, Object[] args) {
+    this.method = method;
+    this.args = args;
+  }
+
+  static RepositoryInvocation current() {
+    return CURRENT.get();
+  }
+
+  /** @return 이미 실행 중인 호출이 있으면 false (바깥쪽 호출을 그대로 둔다.) */
+  static boolean enter(String method, Object[] args) {
+    if (CURRENT.get() != null) {
+      return false;
+    }
+
+    CURRENT.set(new RepositoryInvocation(method, args));
+    return true;
+  }
+
+  static void exit() {
+    CURRENT.remove();
+  }
+
+  String getMethod() {
+    return method;
+  }
+
+  /** 인자를 log 에 남길 수 있는 길이로 줄인다. (collection 은 개수만) */
+  String describeArgs() {
+    StringBuilder builder = new StringBuilder("[");
+
+    for (int i = 0; i < args.length; i++) {
+      if (i > 0) {
+        builder.append(", ");
+      }
+
+      Object arg = args[i];
+      String value =
+          arg instanceof Collection
+              ? arg.getClass().getSimpleName() + "(size=" + ((Collection<?>) arg).size() + ")"
+              : String.valueOf(arg);
+
+      builder.append(
+          value.length() > MAX_ARG_LENGTH ? value.substring(0, MAX_ARG_LENGTH) + "..." : value);
+    }
+
+    return builder.append(']').toString();
+  }
+}
@@ -0,0 +1,39 @@
+package study.querydsl.querystats;
+
+import org.aspectj.lang.ProceedingJoinPoint;
+import org.aspectj.lang.annotation.Around;
+import org.aspectj.lang.annotation.Aspect;
+import org.springframework.stereotype.Component;
+
+/**
+ * repository 호출을 {@link RepositoryInvocation} 에 남긴다.
+ *
+ * <pre>
+ *     - @Repository class (MemberJpaRepository 등) 와 Spring Data repository (MemberRepository 등) 가 대상
+ *     - 같은 객체 안에서 부르는 method 는 proxy 를 거치지 않기 때문에 남지 않는다.
+ * </pre>
+ */
+@Aspect
+@Component
+public class RepositoryInvocationAspect {
+
+  @Around(
+      "execution(public * *(..)) && (within(@org.springframework.stereotype.Repository *)"
+          + " || this(org.springframework.data.repository.Repository))")
+  public Object record(ProceedingJoinPoint joinPoint) throws Throwable {
+    String method =
+        joinPoint.getSignature().getDeclaringType().getSimpleName()
+            + "."
+            + joinPoint.getSignature().getName();
+
+    if (!RepositoryInvocation.enter(method, joinPoint.getArgs())) {
+      return joinPoint.proceed();
+    }
+
+    try {
+      return joinPoint.proceed();
+    } finally {
+      RepositoryInvocation.exit();
+    }
+  }
+}
@@ -0,0 +1,46 @@
+package study.querydsl.querystats;
+
+import org.hibernate.engine.spi.SessionFactoryImplementor;
+import org.hibernate.stat.internal.StatisticsImpl;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+/**
+ * Hibernate 기본 통계에 slow query log 를 더한다.
+ *
+ * <pre>
+ *     - threshold 보다 오래 걸린 query 는 JPQL, 걸린 시간, row 수와 함께 호출한 repository method 와 인자를 남긴다.
+ *     - Querydsl 이 만드는 JPQL 은 ?1, ?2 로 binding 되기 때문에, 실제 값은 repository 인자 (검색 조건 등) 로 본다.
+ *     - hibernate.generate_statistics 가 켜져 있어야 Hibernate 가 부른다.
+ * </pre>
+ */
+class SlowQueryStatistics extends StatisticsImpl {
+
+  private static final Logger log = LoggerFactory.getLogger(SlowQueryStatistics.class);
+
+  private final long thresholdMillis;
+
+  SlowQueryStatistics(SessionFactoryImplementor sessionFactory, long thresholdMillis) {
+    super(sessionFactory);
+    this.thresholdMillis = thresholdMillis;
+  }
+
+  @Override
+  public void queryExecuted(String hql, int rows, long time) {
+    super.queryExecuted(hql, rows, time);
+
+    if (time < thresholdMillis) {
+      return;
+    }
+
+    RepositoryInvocation invocation = RepositoryInvocation.current();
+
+    log.warn(
+        "slow query. {}ms, rows={}, caller={}, args={}, query={}",
+        time,
+        rows,
+        invocation == null ? "-" : invocation.getMethod(),
+        invocation == null ? "-" : invocation.describeArgs(),
+        hql);
+  }
+}
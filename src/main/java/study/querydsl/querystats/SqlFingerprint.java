@@ -0,0 +1,147 @@
+package study.querydsl.querystats;
+
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.LongAccumulator;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.regex.Pattern;
+
+/**
+ * 값만 다른 SQL 을 하나로 묶은 형태 (fingerprint) 와 그 실행 집계
+ *
+ * <pre>
+ *     - 주석 제거, 공백 정리, 소문자
+ *     - 문자열 / 숫자 literal 은 ? 로 바꾼다.
+ *     - in (?, ?, ...) 은 개수와 상관없이 in (?...) 로, multi-row values 는 첫 row 만 남긴다.
+ * </pre>
+ */
+public final class SqlFingerprint {
+
+  private static final Pattern IN_LIST = Pattern.compile("in \\(\\?(?:, \\?)*\\)");
+  private static final Pattern VALUES_ROWS =
+      Pattern.compile("(values \\([^()]*\\))(?:, \\([^()]*\\))+");
+
+  private final String fingerprint;
+  private final LongAdder count = new LongAdder();
+  private final LongAdder errors = new LongAdder();
+  private final LongAdder totalNanos = new LongAdder();
+  private final LongAccumulator maxNanos = new LongAccumulator(Long::max, 0);
+
+  SqlFingerprint(String fingerprint) {
+    this.fingerprint = fingerprint;
+  }
+
+  void record(long nanos, boolean failed) {
+    count.increment();
+    totalNanos.add(nanos);
+    maxNanos.accumulate(nanos);
+
+    if (failed) {
+      errors.increment();
+    }
+  }
+
+  public String getFingerprint() {
+    return fingerprint;
+  }
+
+  public long getCount() {
+    return count.sum();
+  }
+
+  public long getErrors() {
+    return errors.sum();
+  }
+
+  public double getTotalMillis() {
+    return totalNanos.sum() / (double) TimeUnit.MILLISECONDS.toNanos(1);
+  }
+
+  public double getAvgMillis() {
+    long n = count.sum();
+    return n == 0 ? 0 : getTotalMillis() / n;
+  }
+
+  public double getMaxMillis() {
+    return maxNanos.get() / (double) TimeUnit.MILLISECONDS.toNanos(1);
+  }
+
+  static String normalize(String sql) {
+    StringBuilder out = new StringBuilder(sql.length());
+    boolean space = false;
+    int n = sql.length();
+    int i = 0;
+
+    while (i < n) {
+      char c = sql.charAt(i);
+
+      // 주석
+      if (c == '/' && i + 1 < n && sql.charAt(i + 1) == '*') {
+        int end = sql.indexOf("*/", i + 2);
+        i = end < 0 ? n : end + 2;
+        space = true;
+        continue;
+      }
+      if (c == '-' && i + 1 < n && sql.charAt(i + 1) == '-') {
+        int end = sql.indexOf('\n', i);
+        i = end < 0 ? n : end + 1;
+        space = true;
+        continue;
+      }
+
+      if (Character.isWhitespace(c)) {
+        space = true;
+        i++;
+        continue;
+      }
+
+      int start = i;
+
+      if (c == '\'') {
+        // 문자열 literal ('' 은 escape 된 ')
+        i++;
+        while (i < n) {
+          if (sql.charAt(i) == '\'') {
+            if (i + 1 < n && sql.charAt(i + 1) == '\'') {
+              i += 2;
+              continue;
+            }
+            i++;
+            break;
+          }
+          i++;
+        }
+      } else if (Character.isDigit(c)) {
+        while (i < n && (Character.isLetterOrDigit(sql.charAt(i)) || sql.charAt(i) == '.')) {
+          i++;
+        }
+      } else if (Character.isLetter(c) || c == '_' || c == '"') {
+        i++;
+        while (i < n && isIdentifierPart(sql.charAt(i))) {
+          i++;
+        }
+      } else {
+        i++;
+      }
+
+      char last = out.length() == 0 ? 0 : out.charAt(out.length() - 1);
+      if (space && out.length() > 0 && last != '(' && c != ')' && c != ',') {
+        out.append(' ');
+      }
+
+      if (c == '\'' || Character.isDigit(c)) {
+        out.append('?');
+      } else {
+        out.append(sql.substring(start, i).toLowerCase());
+      }
+
+      space = c == ',';
+    }
+
+    String normalized = IN_LIST.matcher(out).replaceAll("in (?...)");
+    return VALUES_ROWS.matcher(normalized).replaceAll("$1, ...");
+  }
+
+  private static boolean isIdentifierPart(char c) {
+    return Character.isLetterOrDigit(c) || c == '_' || c == '$' || c == '"' || c == '.';
+  }
+}
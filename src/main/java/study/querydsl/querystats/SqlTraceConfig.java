@@ -0,0 +1,73 @@
+package study.querydsl.querystats;
+
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.beans.factory.config.BeanPostProcessor;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.core.Ordered;
+
+import javax.sql.DataSource;
+import java.time.Duration;
+
+/**
+ * DataSource bean 을 {@link TracingDataSource} 로 감싼다.
+ *
+ * <pre>
+ *     - member.sql-trace.enabled=false 이면 감싸지 않는다.
+ *     - MeteredDataSource 보다 먼저 감싸서 안쪽에 있는다. (statement 시간에 connection 계측이 섞이지 않는다.)
+ *     - /actuator/sqltrace 로 fingerprint 별 집계를 본다.
+ * </pre>
+ */
+@Configuration(proxyBeanMethods = false)
+@ConditionalOnProperty(name = "member.sql-trace.enabled", matchIfMissing = true)
+public class SqlTraceConfig {
+
+  @Bean
+  public SqlTracer sqlTracer(
+      @Value("${member.sql-trace.sample-rate:0.01}") double sampleRate,
+      @Value("${member.sql-trace.slow-threshold:100ms}") Duration slowThreshold,
+      @Value("${member.sql-trace.buffer-size:10000}") int bufferSize,
+      @Value("${member.sql-trace.max-statements:5000}") int maxStatements) {
+    return new SqlTracer(sampleRate, slowThreshold, bufferSize, maxStatements);
+  }
+
+  @Bean
+  public SqlTraceEndpoint sqlTraceEndpoint(SqlTracer sqlTracer) {
+    return new SqlTraceEndpoint(sqlTracer);
+  }
+
+  // BeanPostProcessor 는 다른 bean 보다 먼저 만들어져야 하기 때문에 static
+  @Bean
+  public static BeanPostProcessor tracingDataSourcePostProcessor(
+      ObjectProvider<SqlTracer> sqlTracer) {
+    return new TracingDataSourcePostProcessor(sqlTracer);
+  }
+
+  static class TracingDataSourcePostProcessor implements BeanPostProcessor, Ordered {
+
+    /** ConnectionMeterConfig.MeteredDataSourcePostProcessor 보다 먼저 실행된다. */
+    static final int ORDER = Ordered.LOWEST_PRECEDENCE - 1;
+
+    private final ObjectProvider<SqlTracer> sqlTracer;
+
+    TracingDataSourcePostProcessor(ObjectProvider<SqlTracer> sqlTracer) {
+      this.sqlTracer = sqlTracer;
+    }
+
+    @Override
+    public Object postProcessAfterInitialization(Object bean, String beanName) {
+      if (bean instanceof DataSource && !(bean instanceof TracingDataSource)) {
+        return new TracingDataSource((DataSource) bean, sqlTracer.getObject());
+      }
+
+      return bean;
+    }
+
+    @Override
+    public int getOrder() {
+      return ORDER;
+    }
+  }
+}
@@ -0,0 +1,46 @@
+package study.querydsl.querystats;
+
+import org.springframework.boot.actuate.endpoint.annotation.DeleteOperation;
+import org.springframework.boot.actuate.endpoint.annotation.Endpoint;
+import org.springframework.boot.actuate.endpoint.annotation.ReadOperation;
+import org.springframework.lang.Nullable;
+
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * SQL fingerprint 별 집계 - /actuator/sqltrace
+ *
+ * <pre>
+ *     - GET : 총 시간이 큰 순서로 limit 개 (기본 50) 의 횟수, 오류, 총 / 평균 / 최대 시간(ms)
+ *     - DELETE : 집계를 초기화한다.
+ * </pre>
+ */
+@Endpoint(id = "sqltrace")
+public class SqlTraceEndpoint {
+
+  private static final int DEFAULT_LIMIT = 50;
+
+  private final SqlTracer sqlTracer;
+
+  public SqlTraceEndpoint(SqlTracer sqlTracer) {
+    this.sqlTracer = sqlTracer;
+  }
+
+  @ReadOperation
+  public Map<String, Object> fingerprints(@Nullable Integer limit) {
+    List<SqlFingerprint> fingerprints = sqlTracer.getFingerprints();
+    int size = Math.min(fingerprints.size(), limit == null ? DEFAULT_LIMIT : limit);
+
+    Map<String, Object> result = new LinkedHashMap<>();
+    result.put("dropped", sqlTracer.getDropped());
+    result.put("fingerprints", fingerprints.subList(0, size));
+    return result;
+  }
+
+  @DeleteOperation
+  public void reset() {
+    sqlTracer.reset();
+  }
+}
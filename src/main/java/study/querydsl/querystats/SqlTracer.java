@@ -0,0 +1,167 @@
+package study.querydsl.querystats;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.DisposableBean;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * JDBC statement 실행을 집계하고 일부만 log 에 남긴다. (p6spy 대신)
+ *
+ * <pre>
+ *     - 모든 statement : fingerprint 별 횟수 / 시간 / 오류를 LongAdder 로 집계한다.
+ *       - fingerprint 는 SQL 문자열마다 한번만 계산한다. (최대 maxStatements 개까지 기억)
+ *     - sampleRate 비율로 뽑은 statement 와, slowThreshold 를 넘거나 실패한 statement 는 log 로 남긴다.
+ *       - 요청 thread 는 bounded buffer 에 offer 만 하고, 가득 차 있으면 기다리지 않고 버린다. (dropped)
+ *       - log 는 "sql-trace-writer" thread 가 쓴다.
+ * </pre>
+ */
+public class SqlTracer implements DisposableBean {
+
+  private static final Logger log = LoggerFactory.getLogger(SqlTracer.class);
+
+  private static final int WRITE_BATCH = 256;
+
+  private final double sampleRate;
+  private final long slowNanos;
+  private final int maxStatements;
+
+  private final ConcurrentHashMap<String, SqlFingerprint> bySql = new ConcurrentHashMap<>();
+  private final ConcurrentHashMap<String, SqlFingerprint> byFingerprint =
+      new ConcurrentHashMap<>();
+
+  private final BlockingQueue<Event> buffer;
+  private final LongAdder dropped = new LongAdder();
+  private final Thread writer;
+
+  public SqlTracer(double sampleRate, Duration slowThreshold, int bufferSize, int maxStatements) {
+    this.sampleRate = sampleRate;
+    this.slowNanos = slowThreshold.toNanos();
+    this.maxStatements = maxStatements;
+    this.buffer = new ArrayBlockingQueue<>(bufferSize);
+
+    this.writer = new Thread(this::write, "sql-trace-writer");
+    this.writer.setDaemon(true);
+    this.writer.start();
+  }
+
+  /** statement 하나가 끝날 때마다 JDBC proxy 가 부른다. */
+  public void record(String sql, long nanos, boolean failed) {
+    SqlFingerprint fingerprint = fingerprintOf(sql);
+    fingerprint.record(nanos, failed);
+
+    boolean slow = nanos >= slowNanos;
+
+    if (slow || failed || ThreadLocalRandom.current().nextDouble() < sampleRate) {
+      Event event = new Event(sql, nanos, slow, failed, Thread.currentThread().getName());
+
+      if (!buffer.offer(event)) {
+        dropped.increment();
+      }
+    }
+  }
+
+  /** 총 시간이 큰 순서 */
+  public List<SqlFingerprint> getFingerprints() {
+    List<SqlFingerprint> result = new ArrayList<>(byFingerprint.values());
+    result.sort((a, b) -> Double.compare(b.getTotalMillis(), a.getTotalMillis()));
+    return result;
+  }
+
+  public long getDropped() {
+    return dropped.sum();
+  }
+
+  public void reset() {
+    bySql.clear();
+    byFingerprint.clear();
+    dropped.reset();
+  }
+
+  @Override
+  public void destroy() {
+    writer.interrupt();
+  }
+
+  private SqlFingerprint fingerprintOf(String sql) {
+    SqlFingerprint fingerprint = bySql.get(sql);
+
+    if (fingerprint != null) {
+      return fingerprint;
+    }
+
+    fingerprint =
+        byFingerprint.computeIfAbsent(SqlFingerprint.normalize(sql), SqlFingerprint::new);
+
+    // literal 이 박힌 SQL 이 많으면 한없이 늘어나기 때문에, 넘치면 매번 계산한다.
+    if (bySql.size() < maxStatements) {
+      bySql.putIfAbsent(sql, fingerprint);
+    }
+
+    return fingerprint;
+  }
+
+  private void write() {
+    List<Event> batch = new ArrayList<>(WRITE_BATCH);
+
+    try {
+      while (!Thread.currentThread().isInterrupted()) {
+        batch.add(buffer.take());
+        buffer.drainTo(batch, WRITE_BATCH - 1);
+
+        for (Event event : batch) {
+          write(event);
+        }
+
+        batch.clear();
+      }
+    } catch (InterruptedException e) {
+      Thread.currentThread().interrupt();
+    }
+  }
+
+  private void write(Event event) {
+    double millis = event.nanos / (double) TimeUnit.MILLISECONDS.toNanos(1);
+
+    if (event.failed || event.slow) {
+      log.warn(
+          "{} sql. {}ms, thread={}, sql={}",
+          event.failed ? "failed" : "slow",
+          String.format("%.3f", millis),
+          event.thread,
+          event.sql);
+    } else {
+      log.info(
+          "sampled sql. {}ms, thread={}, sql={}",
+          String.format("%.3f", millis),
+          event.thread,
+          event.sql);
+    }
+  }
+
+  private static final class Event {
+
+    private final String sql;
+    private final long nanos;
+    private final boolean slow;
+    private final boolean failed;
+    private final String thread;
+
+    private Event(String sql, long nanos, boolean slow, boolean failed, String thread) {
+      this.sql = sql;
+      this.nanos = nanos;
+      this.slow = slow;
+      this.failed = failed;
+      this.thread = thread;
+    }
+  }
+}
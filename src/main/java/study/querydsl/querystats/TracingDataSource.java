@@ -0,0 +1,117 @@
+package study.querydsl.querystats;
+
+import org.springframework.jdbc.datasource.DelegatingDataSource;
+
+import javax.sql.DataSource;
+import java.lang.reflect.Method;
+import java.sql.CallableStatement;
+import java.sql.Connection;
+import java.sql.PreparedStatement;
+import java.sql.SQLException;
+import java.sql.Statement;
+
+/**
+ * statement 실행 시간을 {@link SqlTracer} 에 넘기는 DataSource
+ *
+ * <pre>
+ *     - Connection / Statement 를 JDK proxy 로 감싸고, execute* 만 시간을 잰다.
+ *       - executeQuery 는 ResultSet 을 받을 때까지의 시간이다. (row 를 읽는 시간은 빠진다.)
+ *     - 나머지 호출 (unwrap, cancel 등) 은 그대로 넘긴다. ({@link JdbcProxyHandler})
+ * </pre>
+ */
+public class TracingDataSource extends DelegatingDataSource {
+
+  private static final String UNKNOWN_SQL = "<batch>";
+
+  private final SqlTracer tracer;
+
+  public TracingDataSource(DataSource targetDataSource, SqlTracer tracer) {
+    super(targetDataSource);
+    this.tracer = tracer;
+  }
+
+  @Override
+  public Connection getConnection() throws SQLException {
+    return wrap(super.getConnection());
+  }
+
+  @Override
+  public Connection getConnection(String username, String password) throws SQLException {
+    return wrap(super.getConnection(username, password));
+  }
+
+  private Connection wrap(Connection connection) {
+    return JdbcProxyHandler.newProxy(Connection.class, new ConnectionHandler(connection));
+  }
+
+  private class ConnectionHandler extends JdbcProxyHandler<Connection> {
+
+    private ConnectionHandler(Connection connection) {
+      super(connection);
+    }
+
+    @Override
+    protected Object handle(Object proxy, Method method, Object[] args) throws Throwable {
+      Object result = proceed(method, args);
+
+      if (!(result instanceof Statement)) {
+        return result;
+      }
+
+      // prepareStatement / prepareCall 은 첫 인자가 SQL, createStatement 는 execute 때 받는다.
+      String sql = method.getName().startsWith("prepare") ? (String) args[0] : null;
+      StatementHandler handler = new StatementHandler((Statement) result, (Connection) proxy, sql);
+
+      if (result instanceof CallableStatement) {
+        return JdbcProxyHandler.newProxy(CallableStatement.class, handler);
+      }
+
+      return result instanceof PreparedStatement
+          ? JdbcProxyHandler.newProxy(PreparedStatement.class, handler)
+          : JdbcProxyHandler.newProxy(Statement.class, handler);
+    }
+  }
+
+  private class StatementHandler extends JdbcProxyHandler<Statement> {
+
+    private final Connection connection;
+    private final String sql;
+
+    private StatementHandler(Statement statement, Connection connection, String sql) {
+      super(statement);
+      this.connection = connection;
+      this.sql = sql;
+    }
+
+    @Override
+    protected Object handle(Object proxy, Method method, Object[] args) throws Throwable {
+      String name = method.getName();
+
+      if ("getConnection".equals(name)) {
+        return connection;
+      }
+
+      if (!name.startsWith("execute")) {
+        return proceed(method, args);
+      }
+
+      String executed =
+          sql != null
+              ? sql
+              : args != null && args.length > 0 && args[0] instanceof String
+                  ? (String) args[0]
+                  : UNKNOWN_SQL;
+
+      long start = System.nanoTime();
+      boolean failed = true;
+
+      try {
+        Object result = proceed(method, args);
+        failed = false;
+        return result;
+      } finally {
+        tracer.record(executed, System.nanoTime() - start, failed);
+      }
+    }
+  }
+}
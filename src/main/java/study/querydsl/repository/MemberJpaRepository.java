@@ -3,7 +3,12 @@ package study.querydsl.repository;
 import com.querydsl.core.BooleanBuilder;
 import com.querydsl.core.types.Predicate;
 import com.querydsl.core.types.dsl.BooleanExpression;
+import com.querydsl.jpa.hibernate.HibernateQuery;
 import com.querydsl.jpa.impl.JPAQueryFactory;
+import org.hibernate.ScrollMode;
+import org.hibernate.ScrollableResults;
+import org.hibernate.SessionFactory;
+import org.hibernate.StatelessSession;
 import org.springframework.stereotype.Repository;
 import org.springframework.util.StringUtils;
 import study.querydsl.dto.MemberSearchCondition;
@@ -11,10 +16,18 @@ import study.querydsl.dto.MemberTeamDto;
 import study.querydsl.dto.QMemberTeamDto;
 import study.querydsl.entity.Member;
 import study.querydsl.entity.QTeam;
+import study.querydsl.repository.index.MemberSearchIndex;
+import study.querydsl.repository.support.MemberNearCache;
+import study.querydsl.repository.support.MultiGetSupport;
+import study.querydsl.repository.support.QueryDeadline;
+import study.querydsl.repository.support.ResultSizeGuard;
+import study.querydsl.repository.support.TeamFetchPlan;
 
 import javax.persistence.EntityManager;
+import java.util.Collection;
 import java.util.List;
 import java.util.Optional;
+import java.util.function.Consumer;
 
 import static org.springframework.util.StringUtils.hasText;
 import static study.querydsl.entity.QMember.member;
@@ -23,21 +36,47 @@ import static study.querydsl.entity.QTeam.team;
 @Repository
 public class MemberJpaRepository {
 
+  private static final int STREAM_FETCH_SIZE = 500;
+
   private final EntityManager em;
   private final JPAQueryFactory queryFactory;
+  private final MemberSearchIndex searchIndex;
+  private final ResultSizeGuard resultSizeGuard;
+  private final MemberNearCache nearCache;
 
-  public MemberJpaRepository(EntityManager em) {
+  public MemberJpaRepository(
+      EntityManager em,
+      MemberSearchIndex searchIndex,
+      ResultSizeGuard resultSizeGuard,
+      MemberNearCache nearCache) {
     this.em = em;
     this.queryFactory = new JPAQueryFactory(em); // 이렇게 하거나, Spring Bean 에 등록해도 된다.
+    this.searchIndex = searchIndex;
+    this.resultSizeGuard = resultSizeGuard;
+    this.nearCache = nearCache;
   }
 
   public void save(Member member) {
     em.persist(member);
   }
 
+  /** @see MemberNearCache */
   public Optional<Member> findById(Long id) {
-    Member findMember = em.find(Member.class, id);
-    return Optional.of(findMember);
+    return nearCache.findById(
+        id,
+        () -> {
+          Member findMember = em.find(Member.class, id);
+          return Optional.ofNullable(findMember);
+        });
+  }
+
+  public List<Member> findAllByIds(Collection<Long> ids) {
+    return MultiGetSupport.findAllByIds(
+        em,
+        Member.class,
+        ids,
+        chunk -> queryFactory.selectFrom(member).where(member.id.in(chunk)).fetch(),
+        Member::getId);
   }
 
   public List<Member> findAll() {
@@ -48,10 +87,14 @@ public class MemberJpaRepository {
     return queryFactory.selectFrom(member).fetch();
   }
 
+  /** @see MemberNearCache */
   public List<Member> findByUsername(String username) {
-    return em.createQuery("select m from Member m where m.username = :username", Member.class)
-        .setParameter("username", username)
-        .getResultList();
+    return nearCache.findByUsername(
+        username,
+        () ->
+            em.createQuery("select m from Member m where m.username = :username", Member.class)
+                .setParameter("username", username)
+                .getResultList());
   }
 
   public List<Member> findByUsernameQuerydsl(String username) {
@@ -92,7 +135,46 @@ public class MemberJpaRepository {
         .fetch();
   }
 
+  /** 최대 member.search.max-results 개까지만 조회한다. 넘으면 TruncatedList 로 잘라서 준다. */
   public List<MemberTeamDto> search(MemberSearchCondition condition) {
+    if (searchIndex.canServe()) {
+      return resultSizeGuard.fetch(
+          "MemberJpaRepository.search", limit -> searchIndex.search(condition, limit));
+    }
+
+    return resultSizeGuard.fetch(
+        "MemberJpaRepository.search",
+        limit ->
+            QueryDeadline.apply(
+                    queryFactory
+                        .select(
+                            new QMemberTeamDto(
+                                member.id.as("memberId"),
+                                member.username,
+                                member.age,
+                                team.id.as("teamId"),
+                                team.name.as("teamName")))
+                        .from(member)
+                        .leftJoin(member.team, team)
+                        .where(
+                            usernameEq(condition.getUsername()),
+                            teamNameEq(condition.getTeamName()),
+                            ageGoe(condition.getAgeGoe()),
+                            ageLoe(condition.getAgeLoe()))
+                        .limit(limit))
+                .fetch());
+  }
+
+  /**
+   * lastMemberId 다음 member 부터 id 순으로 limit 개를 조회한다. (keyset paging)
+   *
+   * <pre>
+   *     - offset 을 쓰지 않기 때문에 뒤로 갈수록 느려지지 않는다.
+   *     - 처음에는 lastMemberId 에 null 을 넘긴다.
+   * </pre>
+   */
+  public List<MemberTeamDto> searchAfter(
+      MemberSearchCondition condition, Long lastMemberId, int limit) {
     return queryFactory
         .select(
             new QMemberTeamDto(
@@ -104,23 +186,80 @@ public class MemberJpaRepository {
         .from(member)
         .leftJoin(member.team, team)
         .where(
+            memberIdGt(lastMemberId),
             usernameEq(condition.getUsername()),
             teamNameEq(condition.getTeamName()),
             ageGoe(condition.getAgeGoe()),
             ageLoe(condition.getAgeLoe()))
+        .orderBy(member.id.asc())
+        .limit(limit)
         .fetch();
   }
 
   public List<Member> searchMember(MemberSearchCondition condition) {
-    return queryFactory
-        .selectFrom(member)
-        .leftJoin(member.team, team)
-        .where(
-            usernameEq(condition.getUsername()),
-            teamNameEq(condition.getTeamName()),
-            ageGoe(condition.getAgeGoe()),
-            ageLoe(condition.getAgeLoe()))
-        .fetch();
+    return searchMember(condition, TeamFetchPlan.NONE);
+  }
+
+  /** 최대 member.search.max-results 개까지만 조회한다. 넘으면 TruncatedList 로 잘라서 준다. */
+  public List<Member> searchMember(MemberSearchCondition condition, TeamFetchPlan plan) {
+    List<Member> result =
+        resultSizeGuard.fetch(
+            "MemberJpaRepository.searchMember",
+            limit ->
+                plan.joinTeam(queryFactory.selectFrom(member))
+                    .where(
+                        usernameEq(condition.getUsername()),
+                        teamNameEq(condition.getTeamName()),
+                        ageGoe(condition.getAgeGoe()),
+                        ageLoe(condition.getAgeLoe()))
+                    .limit(limit)
+                    .fetch());
+
+    return plan.loadTeams(em, result);
+  }
+
+  /**
+   * 조건에 맞는 member 를 하나씩 consumer 에 넘긴다. - 대량 batch 처리용
+   *
+   * <pre>
+   *     - StatelessSession 으로 조회하기 때문에 영속성 컨텍스트에 쌓이지 않는다.
+   *       - 그래서 table 크기와 상관없이 memory 사용량이 일정하다.
+   *       - 별도 connection 을 쓰기 때문에, 현재 transaction 에서 commit 되지 않은 변경은 보이지 않는다.
+   *     - 넘겨받은 member 는 detached 상태이다.
+   *       - 바꿔도 저장되지 않고, lazy loading 도 할 수 없다.
+   *       - 그래서 team 은 fetch join 으로 같이 가져온다.
+   *     - id 순으로 넘긴다.
+   * </pre>
+   *
+   * @return 넘긴 member 수
+   */
+  public long streamMember(MemberSearchCondition condition, Consumer<Member> consumer) {
+    SessionFactory sessionFactory = em.getEntityManagerFactory().unwrap(SessionFactory.class);
+    long count = 0;
+
+    try (StatelessSession session = sessionFactory.openStatelessSession();
+        ScrollableResults results =
+            new HibernateQuery<Member>(session)
+                .select(member)
+                .from(member)
+                .leftJoin(member.team, team)
+                .fetchJoin()
+                .where(
+                    usernameEq(condition.getUsername()),
+                    teamNameEq(condition.getTeamName()),
+                    ageGoe(condition.getAgeGoe()),
+                    ageLoe(condition.getAgeLoe()))
+                .orderBy(member.id.asc())
+                .setFetchSize(STREAM_FETCH_SIZE)
+                .scroll(ScrollMode.FORWARD_ONLY)) {
+
+      while (results.next()) {
+        consumer.accept((Member) results.get(0));
+        count++;
+      }
+    }
+
+    return count;
   }
 
   private BooleanExpression ageBetween(int ageLoe, int ageGoe) {
@@ -128,6 +267,10 @@ public class MemberJpaRepository {
     return ageGoe(ageGoe).and(ageLoe(ageLoe));
   }
 
+  private BooleanExpression memberIdGt(Long memberId) {
+    return memberId != null ? member.id.gt(memberId) : null;
+  }
+
   private BooleanExpression usernameEq(String username) {
     return hasText(username) ? member.username.eq(username) : null;
   }
@@ -5,10 +5,5 @@ import org.springframework.data.querydsl.QuerydslPredicateExecutor;
 import study.querydsl.entity.Member;
 import study.querydsl.repository.custom.MemberRepositoryCustom;
 
-import java.util.List;
-
 public interface MemberRepository
-    extends JpaRepository<Member, Long>, MemberRepositoryCustom, QuerydslPredicateExecutor<Member> {
-
-  List<Member> findByUsername(String username);
-}
+    extends JpaRepository<Member, Long>, MemberRepositoryCustom, QuerydslPredicateExecutor<Member> {}
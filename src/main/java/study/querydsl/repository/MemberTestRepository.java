@@ -9,6 +9,7 @@ import org.springframework.stereotype.Repository;
 import study.querydsl.dto.MemberSearchCondition;
 import study.querydsl.entity.Member;
 import study.querydsl.repository.support.Querydsl4RepositorySupport;
+import study.querydsl.repository.support.TeamFetchPlan;
 
 import java.util.List;
 
@@ -27,6 +28,16 @@ public class MemberTestRepository extends Querydsl4RepositorySupport {
     return select(member).from(member).fetch();
   }
 
+  public List<Member> basicSelect(TeamFetchPlan plan) {
+    JPAQuery<Member> query = select(member).from(member);
+
+    if (plan == TeamFetchPlan.FETCH_JOIN) {
+      plan.joinTeam(query);
+    }
+
+    return plan.loadTeams(getEntityManager(), query.fetch());
+  }
+
   public List<Member> basicSelectFrom() {
     return selectFrom(member).fetch();
   }
@@ -46,6 +57,34 @@ public class MemberTestRepository extends Querydsl4RepositorySupport {
     return PageableExecutionUtils.getPage(content, pageable, jpaQuery::fetchCount);
   }
 
+  /** fetch join 이 들어간 query 로는 count 를 할 수 없기 때문에 count query 를 따로 만든다. */
+  public Page<Member> searchPageByApplyPage(
+      MemberSearchCondition condition, Pageable pageable, TeamFetchPlan plan) {
+    JPAQuery<Member> contentQuery =
+        plan.joinTeam(selectFrom(member))
+            .where(
+                usernameEq(condition.getUsername()),
+                teamNameEq(condition.getTeamName()),
+                ageGoe(condition.getAgeGoe()),
+                ageLoe(condition.getAgeLoe()));
+
+    List<Member> content =
+        plan.loadTeams(
+            getEntityManager(), getQuerydsl().applyPagination(pageable, contentQuery).fetch());
+
+    JPAQuery<Long> countQuery =
+        select(member.count())
+            .from(member)
+            .leftJoin(member.team, team)
+            .where(
+                usernameEq(condition.getUsername()),
+                teamNameEq(condition.getTeamName()),
+                ageGoe(condition.getAgeGoe()),
+                ageLoe(condition.getAgeLoe()));
+
+    return PageableExecutionUtils.getPage(content, pageable, countQuery::fetchOne);
+  }
+
   public Page<Member> applyPagination(MemberSearchCondition condition, Pageable pageable) {
     return applyPagination(
         pageable,
@@ -0,0 +1,49 @@
+package study.querydsl.repository.archive;
+
+import com.querydsl.core.types.dsl.BooleanExpression;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import static study.querydsl.entity.QMember.member;
+
+/**
+ * 어떤 member 를 archive 할지 정한다.
+ *
+ * <pre>
+ *     - 최근 member : id 가 가장 큰 keepRecent 명은 남긴다. (id 는 sequence 라 만든 순서와 같다.)
+ *     - 활동 중인 member : team 에 속한 member 는 남긴다. (teamlessOnly 가 false 이면 오래된 member 는 전부 옮긴다.)
+ * </pre>
+ */
+@Component
+public class ArchivePolicy {
+
+  private final int keepRecent;
+  private final boolean teamlessOnly;
+
+  public ArchivePolicy(
+      @Value("${member.archive.keep-recent:10000}") int keepRecent,
+      @Value("${member.archive.teamless-only:true}") boolean teamlessOnly) {
+    if (keepRecent < 0) {
+      throw new IllegalArgumentException("member.archive.keep-recent must be >= 0: " + keepRecent);
+    }
+
+    this.keepRecent = keepRecent;
+    this.teamlessOnly = teamlessOnly;
+  }
+
+  public int getKeepRecent() {
+    return keepRecent;
+  }
+
+  /** @param cutoffId 최근 keepRecent 명을 뺀 나머지 중 가장 큰 id */
+  public BooleanExpression matches(long cutoffId) {
+    BooleanExpression old = member.id.loe(cutoffId);
+
+    return teamlessOnly ? old.and(member.team.isNull()) : old;
+  }
+
+  @Override
+  public String toString() {
+    return "ArchivePolicy{" + "keepRecent=" + keepRecent + ", teamlessOnly=" + teamlessOnly + '}';
+  }
+}
@@ -0,0 +1,151 @@
+package study.querydsl.repository.archive;
+
+import com.querydsl.core.types.dsl.BooleanExpression;
+import com.querydsl.jpa.impl.JPAQuery;
+import com.querydsl.jpa.impl.JPAQueryFactory;
+import org.springframework.stereotype.Repository;
+import org.springframework.transaction.annotation.Transactional;
+import study.querydsl.dto.MemberSearchCondition;
+import study.querydsl.dto.MemberTeamDto;
+import study.querydsl.dto.QMemberTeamDto;
+import study.querydsl.repository.support.QueryDeadline;
+
+import javax.persistence.EntityManager;
+import javax.persistence.LockModeType;
+import java.util.List;
+
+import static org.springframework.util.StringUtils.hasText;
+import static study.querydsl.entity.QMember.member;
+import static study.querydsl.entity.QMemberArchive.memberArchive;
+import static study.querydsl.entity.QTeam.team;
+
+/**
+ * member -> member_archive 이동과 archive 검색
+ *
+ * @see study.querydsl.entity.MemberArchive
+ */
+@Repository
+public class MemberArchiveRepository {
+
+  private static final String INSERT_ARCHIVE =
+      "insert into member_archive (member_id, username, age, team_id, archived_at)"
+          + " select m.member_id, m.username, m.age, m.team_id, current_timestamp"
+          + " from member m where m.member_id in (:ids)";
+
+  private static final String DELETE_MEMBERS = "delete from member where member_id in (:ids)";
+
+  private final EntityManager em;
+  private final JPAQueryFactory queryFactory;
+
+  public MemberArchiveRepository(EntityManager em) {
+    this.em = em;
+    this.queryFactory = new JPAQueryFactory(em);
+  }
+
+  /** @return 최근 keepRecent 명을 뺀 나머지 중 가장 큰 id - 없으면 null */
+  @Transactional(readOnly = true)
+  public Long findCutoffId(int keepRecent) {
+    return queryFactory
+        .select(member.id)
+        .from(member)
+        .orderBy(member.id.desc())
+        .offset(keepRecent)
+        .fetchFirst();
+  }
+
+  /**
+   * policy 에 맞는 member 를 id 순서로 chunkSize 명까지 옮긴다.
+   *
+   * <pre>
+   *     - 옮길 member 는 select ... for update 로 잠가서, 옮기는 도중에 team 이 바뀌지 않게 한다.
+   *     - insert-select 와 delete 는 entity 를 거치지 않는다. (entity event 없음)
+   * </pre>
+   *
+   * @return 옮긴 member 수
+   */
+  @Transactional
+  public int archiveChunk(ArchivePolicy policy, long cutoffId, int chunkSize) {
+    List<Long> ids =
+        queryFactory
+            .select(member.id)
+            .from(member)
+            .where(policy.matches(cutoffId))
+            .orderBy(member.id.asc())
+            .limit(chunkSize)
+            .setLockMode(LockModeType.PESSIMISTIC_WRITE)
+            .fetch();
+
+    if (ids.isEmpty()) {
+      return 0;
+    }
+
+    em.createNativeQuery(INSERT_ARCHIVE).setParameter("ids", ids).executeUpdate();
+    return em.createNativeQuery(DELETE_MEMBERS).setParameter("ids", ids).executeUpdate();
+  }
+
+  public List<MemberTeamDto> search(MemberSearchCondition condition, long offset, long limit) {
+    return searchQuery(condition).offset(offset).limit(limit).fetch();
+  }
+
+  /** member id 기준 keyset paging - MemberJpaRepository#searchAfter 와 같다. */
+  public List<MemberTeamDto> searchAfter(
+      MemberSearchCondition condition, Long lastMemberId, int limit) {
+    return searchQuery(condition)
+        .where(lastMemberId != null ? memberArchive.memberId.gt(lastMemberId) : null)
+        .orderBy(memberArchive.memberId.asc())
+        .limit(limit)
+        .fetch();
+  }
+
+  public long count(MemberSearchCondition condition) {
+    return QueryDeadline.apply(
+            queryFactory
+                .select(memberArchive.memberId.count())
+                .from(memberArchive)
+                .leftJoin(team)
+                .on(team.id.eq(memberArchive.teamId))
+                .where(conditions(condition)))
+        .fetchOne();
+  }
+
+  private JPAQuery<MemberTeamDto> searchQuery(MemberSearchCondition condition) {
+    return QueryDeadline.apply(
+        queryFactory
+            .select(
+                new QMemberTeamDto(
+                    memberArchive.memberId,
+                    memberArchive.username,
+                    memberArchive.age,
+                    memberArchive.teamId,
+                    team.name))
+            .from(memberArchive)
+            .leftJoin(team)
+            .on(team.id.eq(memberArchive.teamId))
+            .where(conditions(condition)));
+  }
+
+  private BooleanExpression[] conditions(MemberSearchCondition condition) {
+    return new BooleanExpression[] {
+      usernameEq(condition.getUsername()),
+      teamNameEq(condition.getTeamName()),
+      ageGoe(condition.getAgeGoe()),
+      ageLoe(condition.getAgeLoe())
+    };
+  }
+
+  private BooleanExpression usernameEq(String username) {
+    return hasText(username) ? memberArchive.username.eq(username) : null;
+  }
+
+  private BooleanExpression teamNameEq(String teamName) {
+    return hasText(teamName) ? team.name.eq(teamName) : null;
+  }
+
+  private BooleanExpression ageGoe(Integer ageGoe) {
+    return ageGoe != null ? memberArchive.age.goe(ageGoe) : null;
+  }
+
+  private BooleanExpression ageLoe(Integer ageLoe) {
+    return ageLoe != null ? memberArchive.age.loe(ageLoe) : null;
+  }
+}
@@ -0,0 +1,86 @@
+package study.querydsl.repository.archive;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+import study.querydsl.repository.support.MembersBulkChangedEvent;
+
+import java.util.concurrent.atomic.AtomicBoolean;
+
+/**
+ * ArchivePolicy 에 맞는 member 를 background 로 member_archive 로 옮긴다.
+ *
+ * <pre>
+ *     - chunk 하나가 transaction 하나다. 잠그는 row 와 transaction 길이를 chunk 크기로 제한한다.
+ *     - 끝나면 (중간에 실패해도) 옮긴 member 가 있을 때 MembersBulkChangedEvent 를 발행한다.
+ *       (index, 검색 table, 통계, cache 를 다시 만든다.)
+ *       - 그 전까지는 index / 검색 table 에 옮겨진 member 가 남아 있을 수 있다.
+ *     - 같은 시간에 한번만 실행된다.
+ * </pre>
+ */
+@Component
+public class MemberArchiver {
+
+  private static final Logger log = LoggerFactory.getLogger(MemberArchiver.class);
+
+  private final MemberArchiveRepository archiveRepository;
+  private final ArchivePolicy policy;
+  private final ApplicationEventPublisher eventPublisher;
+  private final int chunkSize;
+
+  private final AtomicBoolean running = new AtomicBoolean();
+
+  public MemberArchiver(
+      MemberArchiveRepository archiveRepository,
+      ArchivePolicy policy,
+      ApplicationEventPublisher eventPublisher,
+      @Value("${member.archive.chunk-size:1000}") int chunkSize) {
+    this.archiveRepository = archiveRepository;
+    this.policy = policy;
+    this.eventPublisher = eventPublisher;
+    this.chunkSize = chunkSize;
+  }
+
+  /** @return 옮긴 member 수 (이미 실행 중이면 -1) */
+  @Scheduled(cron = "${member.archive.cron:-}")
+  public long archive() {
+    if (!running.compareAndSet(false, true)) {
+      log.info("member archive is already running.");
+      return -1;
+    }
+
+    long archived = 0;
+
+    try {
+      Long cutoffId = archiveRepository.findCutoffId(policy.getKeepRecent());
+
+      if (cutoffId == null) {
+        log.debug("no members to archive. {}", policy);
+        return 0;
+      }
+
+      int moved;
+
+      do {
+        moved = archiveRepository.archiveChunk(policy, cutoffId, chunkSize);
+        archived += moved;
+      } while (moved == chunkSize);
+
+      log.info("members archived. archived={}, cutoffId={}, {}", archived, cutoffId, policy);
+
+      return archived;
+    } finally {
+      try {
+        // 중간 chunk 가 실패해도 이미 commit 된 chunk 는 옮겨졌기 때문에 알린다.
+        if (archived > 0) {
+          eventPublisher.publishEvent(new MembersBulkChangedEvent("member-archive", archived));
+        }
+      } finally {
+        running.set(false);
+      }
+    }
+  }
+}
@@ -4,14 +4,51 @@ import org.springframework.data.domain.Page;
 import org.springframework.data.domain.Pageable;
 import study.querydsl.dto.MemberSearchCondition;
 import study.querydsl.dto.MemberTeamDto;
+import study.querydsl.dto.MemberUpsertDto;
+import study.querydsl.dto.MemberUpsertResult;
+import study.querydsl.entity.Member;
 
+import java.util.Collection;
 import java.util.List;
 
 public interface MemberRepositoryCustom {
 
+  /**
+   * id 목록에 해당하는 member 를 요청한 순서대로 조회한다.
+   *
+   * @see study.querydsl.repository.support.MultiGetSupport
+   */
+  List<Member> findAllByIds(Collection<Long> ids);
+
+  /**
+   * transaction 밖에서는 cache 를 거친다.
+   *
+   * @see study.querydsl.repository.support.MemberNearCache
+   */
+  List<Member> findByUsername(String username);
+
+  /**
+   * 최대 member.search.max-results 개까지만 조회한다.
+   *
+   * @return 넘으면 잘라서 {@link study.querydsl.repository.support.TruncatedList} 로 준다.
+   */
   List<MemberTeamDto> search(MemberSearchCondition condition);
 
   Page<MemberTeamDto> searchPageSimple(MemberSearchCondition condition, Pageable pageable);
 
   Page<MemberTeamDto> searchPageComplex(MemberSearchCondition condition, Pageable pageable);
+
+  /**
+   * username 으로 member 를 찾아서 없으면 추가하고, age / team 이 다르면 바꾼다.
+   *
+   * <pre>
+   *     - entity 를 조회하지 않고, chunk 단위 MERGE 문으로 한번에 쓴다.
+   *     - 값이 같은 row 는 쓰지 않는다.
+   *     - 같은 username 이 여러번 들어오면 마지막 값을 쓴다.
+   *     - 같은 username 의 member 가 이미 여러명이면 id 가 가장 작은 member 를 바꾼다.
+   *     - 없는 team 은 새로 만든다.
+   *     - 같은 process 의 upsert 는 한번에 하나씩 commit 까지 실행된다. (새 username 이 두번 insert 되지 않도록)
+   * </pre>
+   */
+  MemberUpsertResult upsertByUsername(Collection<MemberUpsertDto> members);
 }
@@ -1,23 +1,58 @@
 package study.querydsl.repository.custom.impl;
 
 import com.querydsl.core.QueryResults;
+import com.querydsl.core.Tuple;
 import com.querydsl.core.types.dsl.BooleanExpression;
 import com.querydsl.jpa.impl.JPAQuery;
 import com.querydsl.jpa.impl.JPAQueryFactory;
+import org.hibernate.Session;
+import org.hibernate.engine.spi.EntityKey;
+import org.hibernate.engine.spi.SessionImplementor;
+import org.hibernate.persister.entity.EntityPersister;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.ApplicationEventPublisher;
 import org.springframework.data.domain.Page;
 import org.springframework.data.domain.PageImpl;
 import org.springframework.data.domain.Pageable;
 import org.springframework.data.support.PageableExecutionUtils;
+import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
 import study.querydsl.dto.MemberSearchCondition;
 import study.querydsl.dto.MemberTeamDto;
+import study.querydsl.dto.MemberUpsertDto;
+import study.querydsl.dto.MemberUpsertResult;
 import study.querydsl.dto.QMemberTeamDto;
+import study.querydsl.entity.Member;
+import study.querydsl.entity.Team;
+import study.querydsl.repository.archive.MemberArchiveRepository;
 import study.querydsl.repository.custom.MemberRepositoryCustom;
+import study.querydsl.repository.index.MemberSearchIndex;
+import study.querydsl.repository.searchtable.MemberSearchTableRepository;
+import study.querydsl.repository.sql.MemberSqlSearchRepository;
+import study.querydsl.repository.support.HibernateSupport;
+import study.querydsl.repository.support.MemberNearCache;
+import study.querydsl.repository.support.MembersBulkChangedEvent;
+import study.querydsl.repository.support.MultiGetSupport;
+import study.querydsl.repository.support.QueryDeadline;
+import study.querydsl.repository.support.ResultSizeGuard;
 
 import javax.persistence.EntityManager;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.LinkedHashSet;
 import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.Set;
+import java.util.concurrent.locks.ReentrantLock;
 
 import static org.springframework.util.StringUtils.hasText;
 import static study.querydsl.entity.QMember.member;
+import static study.querydsl.entity.QMemberSearch.memberSearch;
 import static study.querydsl.entity.QTeam.team;
 
 /**
@@ -36,10 +71,54 @@ import static study.querydsl.entity.QTeam.team;
 //    implements MemberRepositoryCustom {
 public class MemberRepositoryImpl implements MemberRepositoryCustom {
 
+  private static final String NEXT_IDS =
+      "select next value for hibernate_sequence from system_range(1, ?)";
+
+  private static final String MERGE_MEMBERS_HEAD =
+      "merge into member m using (select * from (values ";
+
+  private static final String MERGE_MEMBERS_ROW = "(?, ?, ?, cast(? as bigint))";
+
+  private static final String MERGE_MEMBERS_TAIL =
+      ") v(member_id, username, age, team_id)) s"
+          + " on (m.username = s.username and m.member_id ="
+          + " (select min(x.member_id) from member x where x.username = s.username))"
+          + " when matched then update set m.age = s.age, m.team_id = s.team_id"
+          + " when not matched then insert (member_id, username, age, team_id)"
+          + " values (s.member_id, s.username, s.age, s.team_id)";
+
+  private final EntityManager em;
   private final JPAQueryFactory queryFactory;
+  private final MemberSearchIndex searchIndex;
+  private final MemberSearchTableRepository searchTable;
+  private final MemberSqlSearchRepository sqlSearch;
+  private final MemberArchiveRepository archive;
+  private final ResultSizeGuard resultSizeGuard;
+  private final ApplicationEventPublisher eventPublisher;
+  private final MemberNearCache nearCache;
+  private final int upsertChunkSize;
+  private final ReentrantLock upsertLock = new ReentrantLock();
 
-  public MemberRepositoryImpl(EntityManager em) {
+  public MemberRepositoryImpl(
+      EntityManager em,
+      MemberSearchIndex searchIndex,
+      MemberSearchTableRepository searchTable,
+      MemberSqlSearchRepository sqlSearch,
+      MemberArchiveRepository archive,
+      ResultSizeGuard resultSizeGuard,
+      ApplicationEventPublisher eventPublisher,
+      MemberNearCache nearCache,
+      @Value("${member.upsert.chunk-size:500}") int upsertChunkSize) {
+    this.em = em;
     this.queryFactory = new JPAQueryFactory(em);
+    this.searchIndex = searchIndex;
+    this.searchTable = searchTable;
+    this.sqlSearch = sqlSearch;
+    this.archive = archive;
+    this.resultSizeGuard = resultSizeGuard;
+    this.eventPublisher = eventPublisher;
+    this.nearCache = nearCache;
+    this.upsertChunkSize = upsertChunkSize;
   }
 
   //  public MemberRepositoryImpl() {
@@ -47,24 +126,66 @@ public class MemberRepositoryImpl implements MemberRepositoryCustom {
   //    this.queryFactory = new JPAQueryFactory(getEntityManager());
   //  }
 
+  @Override
+  public List<Member> findAllByIds(Collection<Long> ids) {
+    return MultiGetSupport.findAllByIds(
+        em,
+        Member.class,
+        ids,
+        chunk -> queryFactory.selectFrom(member).where(member.id.in(chunk)).fetch(),
+        Member::getId);
+  }
+
+  @Override
+  public List<Member> findByUsername(String username) {
+    return nearCache.findByUsername(
+        username,
+        () -> queryFactory.selectFrom(member).where(member.username.eq(username)).fetch());
+  }
+
   @Override
   public List<MemberTeamDto> search(MemberSearchCondition condition) {
-    return queryFactory
-        .select(
-            new QMemberTeamDto(
-                member.id.as("memberId"),
-                member.username,
-                member.age,
-                team.id.as("teamId"),
-                team.name.as("teamName")))
-        .from(member)
-        .leftJoin(member.team, team)
-        .where(
-            usernameEq(condition.getUsername()),
-            teamNameEq(condition.getTeamName()),
-            ageGoe(condition.getAgeGoe()),
-            ageLoe(condition.getAgeLoe()))
-        .fetch();
+    if (condition.isIncludeArchived()) {
+      return resultSizeGuard.fetch(
+          "MemberRepository.search", limit -> searchBothTiers(condition, limit));
+    }
+
+    if (searchIndex.canServe()) {
+      return resultSizeGuard.fetch(
+          "MemberRepository.search", limit -> searchIndex.search(condition, limit));
+    }
+
+    if (searchTable.canServe()) {
+      return resultSizeGuard.fetch(
+          "MemberRepository.search", limit -> searchTableQuery(condition).limit(limit).fetch());
+    }
+
+    if (sqlSearch.canServe()) {
+      return resultSizeGuard.fetch(
+          "MemberRepository.search", limit -> sqlSearch.search(condition, limit));
+    }
+
+    return resultSizeGuard.fetch(
+        "MemberRepository.search",
+        limit ->
+            QueryDeadline.apply(
+                    queryFactory
+                        .select(
+                            new QMemberTeamDto(
+                                member.id.as("memberId"),
+                                member.username,
+                                member.age,
+                                team.id.as("teamId"),
+                                team.name.as("teamName")))
+                        .from(member)
+                        .leftJoin(member.team, team)
+                        .where(
+                            usernameEq(condition.getUsername()),
+                            teamNameEq(condition.getTeamName()),
+                            ageGoe(condition.getAgeGoe()),
+                            ageLoe(condition.getAgeLoe()))
+                        .limit(limit))
+                .fetch());
     //    return from(member)
     //        .leftJoin(member.team, team)
     //        .where(
@@ -84,24 +205,42 @@ public class MemberRepositoryImpl implements MemberRepositoryCustom {
 
   @Override
   public Page<MemberTeamDto> searchPageSimple(MemberSearchCondition condition, Pageable pageable) {
+    if (condition.isIncludeArchived()) {
+      return searchPageBothTiers(condition, pageable);
+    }
+
+    if (searchIndex.canServe(pageable)) {
+      return searchIndex.searchPage(condition, pageable);
+    }
+
+    if (searchTable.canServe()) {
+      return searchTablePage(condition, pageable);
+    }
+
+    if (sqlSearch.canServe()) {
+      return sqlSearch.searchPage(condition, pageable);
+    }
+
+    // fetchResults 는 content 와 count 두 query 에 같은 hint 를 쓴다.
     QueryResults<MemberTeamDto> results =
-        queryFactory
-            .select(
-                new QMemberTeamDto(
-                    member.id.as("memberId"),
-                    member.username,
-                    member.age,
-                    team.id.as("teamId"),
-                    team.name.as("teamName")))
-            .from(member)
-            .leftJoin(member.team, team)
-            .where(
-                usernameEq(condition.getUsername()),
-                teamNameEq(condition.getTeamName()),
-                ageGoe(condition.getAgeGoe()),
-                ageLoe(condition.getAgeLoe()))
-            .offset(pageable.getOffset())
-            .limit(pageable.getPageSize())
+        QueryDeadline.apply(
+                queryFactory
+                    .select(
+                        new QMemberTeamDto(
+                            member.id.as("memberId"),
+                            member.username,
+                            member.age,
+                            team.id.as("teamId"),
+                            team.name.as("teamName")))
+                    .from(member)
+                    .leftJoin(member.team, team)
+                    .where(
+                        usernameEq(condition.getUsername()),
+                        teamNameEq(condition.getTeamName()),
+                        ageGoe(condition.getAgeGoe()),
+                        ageLoe(condition.getAgeLoe()))
+                    .offset(pageable.getOffset())
+                    .limit(pageable.getPageSize()))
             .fetchResults();
 
     //    JPQLQuery<MemberTeamDto> jpqlQuery =
@@ -131,8 +270,328 @@ public class MemberRepositoryImpl implements MemberRepositoryCustom {
 
   @Override
   public Page<MemberTeamDto> searchPageComplex(MemberSearchCondition condition, Pageable pageable) {
+    if (condition.isIncludeArchived()) {
+      return searchPageBothTiers(condition, pageable);
+    }
+
+    if (searchIndex.canServe(pageable)) {
+      return searchIndex.searchPage(condition, pageable);
+    }
+
+    if (searchTable.canServe()) {
+      return searchTablePage(condition, pageable);
+    }
+
+    if (sqlSearch.canServe()) {
+      return sqlSearch.searchPage(condition, pageable);
+    }
 
     List<MemberTeamDto> content =
+        QueryDeadline.apply(
+                queryFactory
+                    .select(
+                        new QMemberTeamDto(
+                            member.id.as("memberId"),
+                            member.username,
+                            member.age,
+                            team.id.as("teamId"),
+                            team.name.as("teamName")))
+                    .from(member)
+                    .leftJoin(member.team, team)
+                    .where(
+                        usernameEq(condition.getUsername()),
+                        teamNameEq(condition.getTeamName()),
+                        ageGoe(condition.getAgeGoe()),
+                        ageLoe(condition.getAgeLoe()))
+                    .offset(pageable.getOffset())
+                    .limit(pageable.getPageSize()))
+            .fetch();
+
+    // count query 는 content 를 조회하고 남은 시간 안에서 실행된다.
+    JPAQuery<Long> countQuery =
+        queryFactory
+            .select(member.id.count())
+            .from(member)
+            .leftJoin(member.team, team)
+            .where(
+                usernameEq(condition.getUsername()),
+                teamNameEq(condition.getTeamName()),
+                ageGoe(condition.getAgeGoe()),
+                ageLoe(condition.getAgeLoe()));
+
+    // 첫 페이지 - 전체 content 개수가 limit 보다 작을 경우 count query 실행 안함
+    // 마지막 페이지 - count query 실행 안함
+    return PageableExecutionUtils.getPage(
+        content, pageable, () -> QueryDeadline.apply(countQuery).fetchOne());
+
+    //    return new PageImpl<>(content, pageable, total != null ? total : 0);
+  }
+
+  @Override
+  @Transactional
+  public MemberUpsertResult upsertByUsername(Collection<MemberUpsertDto> members) {
+    lockUntilCompletion();
+
+    Map<String, MemberUpsertDto> byUsername = new LinkedHashMap<>();
+    for (MemberUpsertDto dto : members) {
+      byUsername.put(dto.getUsername(), dto);
+    }
+
+    List<MemberUpsertDto> rows = new ArrayList<>(byUsername.values());
+    Set<Long> changedMemberIds = new LinkedHashSet<>();
+    Set<Long> changedTeamIds = new LinkedHashSet<>();
+    long inserted = 0;
+    long updated = 0;
+
+    for (int from = 0; from < rows.size(); from += upsertChunkSize) {
+      long[] counts =
+          upsertChunk(
+              rows.subList(from, Math.min(from + upsertChunkSize, rows.size())),
+              changedMemberIds,
+              changedTeamIds);
+      inserted += counts[0];
+      updated += counts[1];
+    }
+
+    MemberUpsertResult result =
+        new MemberUpsertResult(inserted, updated, rows.size() - inserted - updated);
+
+    if (inserted + updated > 0) {
+      eventPublisher.publishEvent(
+          new MembersBulkChangedEvent(
+              "member-upsert", inserted + updated, changedMemberIds, changedTeamIds));
+    }
+
+    return result;
+  }
+
+  /**
+   * 읽고 나서 MERGE 하기 때문에, 두 upsert 가 같은 새 username 을 동시에 읽으면 둘 다 insert 하게 된다.
+   *
+   * <pre>
+   *     - commit (rollback) 될 때까지 다른 upsert 를 기다리게 한다.
+   *     - username 에 unique 제약이 없기 때문에 (같은 username 의 member 가 이미 있을 수 있다) DB 로는 막을 수 없다.
+   *     - MERGE 도 username 으로 맞추기 때문에, 다른 process 가 먼저 commit 한 username 은 insert 하지 않고 바꾼다.
+   * </pre>
+   */
+  private void lockUntilCompletion() {
+    if (!TransactionSynchronizationManager.isSynchronizationActive()) {
+      throw new IllegalStateException("upsertByUsername must run in a transaction");
+    }
+
+    upsertLock.lock();
+
+    TransactionSynchronizationManager.registerSynchronization(
+        new TransactionSynchronization() {
+          @Override
+          public void afterCompletion(int status) {
+            upsertLock.unlock();
+          }
+        });
+  }
+
+  /** @return {inserted, updated} */
+  private long[] upsertChunk(
+      List<MemberUpsertDto> chunk, Set<Long> changedMemberIds, Set<Long> changedTeamIds) {
+    Map<String, Tuple> existing = findExisting(chunk);
+    Map<String, Long> teamIds = findOrCreateTeams(chunk);
+
+    List<Object> parameters = new ArrayList<>(chunk.size() * 4);
+    List<Long> updatedIds = new ArrayList<>();
+    int inserts = 0;
+
+    for (MemberUpsertDto dto : chunk) {
+      Tuple row = existing.get(dto.getUsername());
+      Long teamId = dto.getTeamName() != null ? teamIds.get(dto.getTeamName()) : null;
+
+      if (row == null) {
+        inserts++;
+        parameters.add(null); // id 는 아래에서 채운다.
+      } else if (row.get(member.age) != dto.getAge()
+          || !Objects.equals(row.get(member.team.id), teamId)) {
+        updatedIds.add(row.get(member.id));
+        parameters.add(row.get(member.id));
+
+        if (row.get(member.team.id) != null) {
+          changedTeamIds.add(row.get(member.team.id)); // 빠져나간 team
+        }
+      } else {
+        continue;
+      }
+
+      if (teamId != null) {
+        changedTeamIds.add(teamId);
+      }
+
+      parameters.add(dto.getUsername());
+      parameters.add(dto.getAge());
+      parameters.add(teamId);
+    }
+
+    int rowCount = parameters.size() / 4;
+    if (rowCount == 0) {
+      return new long[] {0, 0};
+    }
+
+    fillNewIds(parameters, inserts);
+
+    for (int i = 0; i < parameters.size(); i += 4) {
+      changedMemberIds.add((Long) parameters.get(i));
+    }
+
+    String sql =
+        MERGE_MEMBERS_HEAD
+            + String.join(", ", Collections.nCopies(rowCount, MERGE_MEMBERS_ROW))
+            + MERGE_MEMBERS_TAIL;
+
+    // 새로 만든 team 은 아직 flush 전이다.
+    em.flush();
+    HibernateSupport.executeUpdate(em.unwrap(Session.class), sql, parameters.toArray());
+
+    refreshManaged(updatedIds);
+
+    return new long[] {inserts, updatedIds.size()};
+  }
+
+  /** entity 를 만들지 않도록 필요한 column 만 조회한다. */
+  private Map<String, Tuple> findExisting(List<MemberUpsertDto> chunk) {
+    Set<String> usernames = new LinkedHashSet<>();
+    for (MemberUpsertDto dto : chunk) {
+      usernames.add(dto.getUsername());
+    }
+
+    List<Tuple> rows =
+        queryFactory
+            .select(member.id, member.username, member.age, member.team.id)
+            .from(member)
+            .where(member.username.in(usernames))
+            .orderBy(member.id.desc())
+            .fetch();
+
+    // id 가 큰 것부터 넣어서, 같은 username 이 여러명이면 id 가 가장 작은 member 가 남는다.
+    Map<String, Tuple> existing = new HashMap<>(rows.size() * 2);
+    for (Tuple row : rows) {
+      existing.put(row.get(member.username), row);
+    }
+
+    return existing;
+  }
+
+  private Map<String, Long> findOrCreateTeams(List<MemberUpsertDto> chunk) {
+    Set<String> names = new LinkedHashSet<>();
+    for (MemberUpsertDto dto : chunk) {
+      if (dto.getTeamName() != null) {
+        names.add(dto.getTeamName());
+      }
+    }
+
+    Map<String, Long> teamIds = new HashMap<>(names.size() * 2);
+    if (names.isEmpty()) {
+      return teamIds;
+    }
+
+    List<Tuple> rows =
+        queryFactory
+            .select(team.id, team.name)
+            .from(team)
+            .where(team.name.in(names))
+            .orderBy(team.id.desc())
+            .fetch();
+
+    for (Tuple row : rows) {
+      teamIds.put(row.get(team.name), row.get(team.id));
+    }
+
+    for (String name : names) {
+      if (!teamIds.containsKey(name)) {
+        Team newTeam = new Team(name);
+        em.persist(newTeam);
+        teamIds.put(name, newTeam.getId());
+      }
+    }
+
+    return teamIds;
+  }
+
+  /** 새 member 의 id 를 sequence 에서 한번에 받아 비어있는 자리에 채운다. (H2 문법) */
+  private void fillNewIds(List<Object> parameters, int count) {
+    if (count == 0) {
+      return;
+    }
+
+    @SuppressWarnings("unchecked")
+    List<Number> ids = em.createNativeQuery(NEXT_IDS).setParameter(1, count).getResultList();
+
+    int next = 0;
+    for (int i = 0; i < parameters.size(); i += 4) {
+      if (parameters.get(i) == null) {
+        parameters.set(i, ids.get(next++).longValue());
+      }
+    }
+  }
+
+  /** 이미 영속성 컨텍스트에 있는 member 는 MERGE 로 바뀐 값을 다시 읽어온다. */
+  private void refreshManaged(List<Long> updatedIds) {
+    SessionImplementor session = em.unwrap(SessionImplementor.class);
+    EntityPersister persister = session.getFactory().getMetamodel().entityPersister(Member.class);
+
+    for (Long id : updatedIds) {
+      EntityKey key = session.generateEntityKey(id, persister);
+      Object managed = session.getPersistenceContext().getEntity(key);
+
+      if (managed != null) {
+        em.refresh(managed);
+      }
+    }
+  }
+
+  /**
+   * member (hot) 와 member_archive (cold) 를 이어서 조회한다.
+   *
+   * <pre>
+   *     - member 를 먼저 채우고, 모자란 만큼 archive 에서 채운다.
+   *     - index / 검색 table / sql engine 은 member 만 들고 있기 때문에 JPA query 로만 조회한다.
+   * </pre>
+   */
+  private List<MemberTeamDto> searchBothTiers(MemberSearchCondition condition, int limit) {
+    List<MemberTeamDto> content = new ArrayList<>(hotQuery(condition).limit(limit).fetch());
+
+    if (content.size() < limit) {
+      content.addAll(archive.search(condition, 0, limit - content.size()));
+    }
+
+    return content;
+  }
+
+  /** hot 의 전체 개수를 알아야 archive 의 offset 을 정할 수 있기 때문에 count 를 먼저 한다. */
+  private Page<MemberTeamDto> searchPageBothTiers(
+      MemberSearchCondition condition, Pageable pageable) {
+    long hotTotal = hotQuery(condition).fetchCount();
+    long coldTotal = archive.count(condition);
+
+    List<MemberTeamDto> content = new ArrayList<>(pageable.getPageSize());
+
+    if (pageable.getOffset() < hotTotal) {
+      content.addAll(
+          hotQuery(condition)
+              .offset(pageable.getOffset())
+              .limit(pageable.getPageSize())
+              .fetch());
+    }
+
+    if (content.size() < pageable.getPageSize() && coldTotal > 0) {
+      content.addAll(
+          archive.search(
+              condition,
+              Math.max(0, pageable.getOffset() - hotTotal),
+              pageable.getPageSize() - content.size()));
+    }
+
+    return new PageImpl<>(content, pageable, hotTotal + coldTotal);
+  }
+
+  private JPAQuery<MemberTeamDto> hotQuery(MemberSearchCondition condition) {
+    return QueryDeadline.apply(
         queryFactory
             .select(
                 new QMemberTeamDto(
@@ -147,27 +606,37 @@ public class MemberRepositoryImpl implements MemberRepositoryCustom {
                 usernameEq(condition.getUsername()),
                 teamNameEq(condition.getTeamName()),
                 ageGoe(condition.getAgeGoe()),
-                ageLoe(condition.getAgeLoe()))
-            .offset(pageable.getOffset())
-            .limit(pageable.getPageSize())
-            .fetch();
+                ageLoe(condition.getAgeLoe())));
+  }
 
-    JPAQuery<Long> countQuery =
+  /** member_search 는 team name 을 같이 가지고 있기 때문에 join 이 필요 없다. */
+  private JPAQuery<MemberTeamDto> searchTableQuery(MemberSearchCondition condition) {
+    return QueryDeadline.apply(
         queryFactory
-            .select(member.id.count())
-            .from(member)
-            .leftJoin(member.team, team)
+            .select(
+                new QMemberTeamDto(
+                    memberSearch.memberId,
+                    memberSearch.username,
+                    memberSearch.age,
+                    memberSearch.teamId,
+                    memberSearch.teamName))
+            .from(memberSearch)
             .where(
-                usernameEq(condition.getUsername()),
-                teamNameEq(condition.getTeamName()),
-                ageGoe(condition.getAgeGoe()),
-                ageLoe(condition.getAgeLoe()));
+                searchUsernameEq(condition.getUsername()),
+                searchTeamNameEq(condition.getTeamName()),
+                searchAgeGoe(condition.getAgeGoe()),
+                searchAgeLoe(condition.getAgeLoe())));
+  }
 
-    // 첫 페이지 - 전체 content 개수가 limit 보다 작을 경우 count query 실행 안함
-    // 마지막 페이지 - count query 실행 안함
-    return PageableExecutionUtils.getPage(content, pageable, countQuery::fetchOne);
+  private Page<MemberTeamDto> searchTablePage(MemberSearchCondition condition, Pageable pageable) {
+    List<MemberTeamDto> content =
+        searchTableQuery(condition)
+            .offset(pageable.getOffset())
+            .limit(pageable.getPageSize())
+            .fetch();
 
-    //    return new PageImpl<>(content, pageable, total != null ? total : 0);
+    return PageableExecutionUtils.getPage(
+        content, pageable, () -> searchTableQuery(condition).fetchCount());
   }
 
   private BooleanExpression usernameEq(String username) {
@@ -185,4 +654,20 @@ public class MemberRepositoryImpl implements MemberRepositoryCustom {
   private BooleanExpression ageLoe(Integer ageLoe) {
     return ageLoe != null ? member.age.loe(ageLoe) : null;
   }
+
+  private BooleanExpression searchUsernameEq(String username) {
+    return hasText(username) ? memberSearch.username.eq(username) : null;
+  }
+
+  private BooleanExpression searchTeamNameEq(String teamName) {
+    return hasText(teamName) ? memberSearch.teamName.eq(teamName) : null;
+  }
+
+  private BooleanExpression searchAgeGoe(Integer ageGoe) {
+    return ageGoe != null ? memberSearch.age.goe(ageGoe) : null;
+  }
+
+  private BooleanExpression searchAgeLoe(Integer ageLoe) {
+    return ageLoe != null ? memberSearch.age.loe(ageLoe) : null;
+  }
 }
@@ -0,0 +1,492 @@
+package study.querydsl.repository.index;
+
+import com.querydsl.core.Tuple;
+import com.querydsl.jpa.impl.JPAQueryFactory;
+import org.hibernate.event.service.spi.EventListenerRegistry;
+import org.hibernate.event.spi.EventType;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.core.Ordered;
+import org.springframework.core.annotation.Order;
+import org.springframework.data.domain.Page;
+import org.springframework.data.domain.PageImpl;
+import org.springframework.data.domain.Pageable;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.event.TransactionalEventListener;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+import study.querydsl.dto.MemberSearchCondition;
+import study.querydsl.dto.MemberTeamDto;
+import study.querydsl.entity.Member;
+import study.querydsl.entity.Team;
+import study.querydsl.repository.support.HibernateSupport;
+import study.querydsl.repository.support.MembersBulkChangedEvent;
+
+import javax.annotation.PostConstruct;
+import javax.annotation.PreDestroy;
+import javax.persistence.EntityManager;
+import javax.persistence.EntityManagerFactory;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.locks.ReentrantReadWriteLock;
+import java.util.function.Consumer;
+
+import static org.springframework.util.StringUtils.hasText;
+import static study.querydsl.entity.QMember.member;
+import static study.querydsl.entity.QTeam.team;
+
+/**
+ * member 검색용 in-process index
+ *
+ * <pre>
+ *     - id, age, team id 는 primitive column 으로, username / team name 은 dictionary code 로 heap 밖에 저장한다.
+ *       - member 가 늘어나도 heap 에 남는 객체가 늘어나지 않는다.
+ *     - 기동 시 DB 에서 한번 만들고, 이후에는 commit 된 Member / Team 변경 event 로 갱신한다.
+ *     - bulk update 처럼 event 가 발생하지 않는 변경 후에는 {@link #markStale()} 또는 {@link #rebuild()} 를 호출해야 한다.
+ *     - 변경 적용이 실패하면 DB 로 조회를 돌리고, background 로 다시 만든다.
+ *       - 다시 만드는 중에 실패한 변경이 있으면, 그 rebuild 는 ready 로 만들지 않고 다음 rebuild 에 맡긴다.
+ *     - 정렬이 필요한 paging, 쓰기 transaction 안에서의 조회 등 index 로 답할 수 없으면 DB 를 조회한다.
+ * </pre>
+ */
+@Component
+public class MemberSearchIndex {
+
+  private static final Logger log = LoggerFactory.getLogger(MemberSearchIndex.class);
+
+  private static final int LOAD_CHUNK_SIZE = 10_000;
+
+  private final EntityManagerFactory emf;
+  private final boolean enabled;
+
+  private final ReentrantReadWriteLock lock = new ReentrantReadWriteLock();
+  private Columns columns = new Columns(16);
+  private List<Consumer<Columns>> pendingChanges;
+  private long failedChanges;
+
+  private volatile boolean ready;
+
+  private final AtomicBoolean rebuildRequested = new AtomicBoolean();
+  private final ExecutorService rebuildExecutor =
+      Executors.newSingleThreadExecutor(
+          r -> {
+            Thread thread = new Thread(r, "member-search-index-rebuild");
+            thread.setDaemon(true);
+            return thread;
+          });
+
+  public MemberSearchIndex(
+      EntityManagerFactory emf, @Value("${member.search-index.enabled:false}") boolean enabled) {
+    this.emf = emf;
+    this.enabled = enabled;
+  }
+
+  @PostConstruct
+  public void registerListener() {
+    if (!enabled) {
+      return;
+    }
+
+    MemberSearchIndexListener listener = new MemberSearchIndexListener(this);
+    EventListenerRegistry registry = HibernateSupport.listenerRegistry(emf);
+
+    registry.appendListeners(EventType.POST_COMMIT_INSERT, listener);
+    registry.appendListeners(EventType.POST_COMMIT_UPDATE, listener);
+    registry.appendListeners(EventType.POST_COMMIT_DELETE, listener);
+  }
+
+  @PreDestroy
+  public void shutdown() {
+    rebuildExecutor.shutdownNow();
+  }
+
+  @EventListener(ApplicationReadyEvent.class)
+  public void buildOnStartup() {
+    if (enabled) {
+      rebuild();
+    }
+  }
+
+  /** JDBC 로 한번에 바뀐 건 entity event 가 없기 때문에 다시 만든다. */
+  @Order(Ordered.HIGHEST_PRECEDENCE) // MemberDataVersion 보다 먼저 다시 만든다.
+  @TransactionalEventListener(fallbackExecution = true)
+  public void onBulkChanged(MembersBulkChangedEvent event) {
+    if (enabled) {
+      log.info("member search index rebuild requested. {}", event);
+      rebuild();
+    }
+  }
+
+  /** index 로 조회해도 되는지 여부 - 쓰기 transaction 안이라면, 아직 commit 되지 않은 변경을 보기 위해 DB 를 조회해야 한다. */
+  public boolean canServe() {
+    return enabled
+        && ready
+        && (!TransactionSynchronizationManager.isActualTransactionActive()
+            || TransactionSynchronizationManager.isCurrentTransactionReadOnly());
+  }
+
+  /** index 는 저장된 순서 (id 순) 로만 결과를 줄 수 있다. */
+  public boolean canServe(Pageable pageable) {
+    return pageable.isPaged() && pageable.getSort().isUnsorted() && canServe();
+  }
+
+  public List<MemberTeamDto> search(MemberSearchCondition condition) {
+    return search(condition, Integer.MAX_VALUE);
+  }
+
+  public List<MemberTeamDto> search(MemberSearchCondition condition, int limit) {
+    List<MemberTeamDto> result = new ArrayList<>();
+
+    read(c -> c.scan(condition, 0, limit, result));
+
+    return result;
+  }
+
+  public Page<MemberTeamDto> searchPage(MemberSearchCondition condition, Pageable pageable) {
+    List<MemberTeamDto> content = new ArrayList<>(pageable.getPageSize());
+    long[] total = new long[1];
+
+    read(c -> total[0] = c.scan(condition, pageable.getOffset(), pageable.getPageSize(), content));
+
+    return new PageImpl<>(content, pageable, total[0]);
+  }
+
+  /** 다음 rebuild 전까지 index 를 쓰지 않는다. */
+  public void markStale() {
+    ready = false;
+  }
+
+  /** 이미 요청된 rebuild 가 시작 전이면 합친다. */
+  void requestRebuild() {
+    if (!rebuildRequested.compareAndSet(false, true)) {
+      return;
+    }
+
+    rebuildExecutor.execute(
+        () -> {
+          rebuildRequested.set(false);
+          rebuild();
+        });
+  }
+
+  public synchronized void rebuild() {
+    long start = System.nanoTime();
+    long failedChangesAtStart;
+
+    lock.writeLock().lock();
+    try {
+      pendingChanges = new ArrayList<>();
+      failedChangesAtStart = failedChanges;
+    } finally {
+      lock.writeLock().unlock();
+    }
+
+    Columns fresh;
+    try {
+      fresh = load();
+    } catch (RuntimeException e) {
+      lock.writeLock().lock();
+      try {
+        pendingChanges = null;
+      } finally {
+        lock.writeLock().unlock();
+      }
+
+      ready = false;
+      log.warn("member search index rebuild failed. searches fall back to database.", e);
+      return;
+    }
+
+    lock.writeLock().lock();
+    try {
+      // 읽는 동안 commit 된 변경을 다시 적용한다. (같은 변경이 두번 적용되어도 결과는 같다.)
+      for (Consumer<Columns> change : pendingChanges) {
+        try {
+          change.accept(fresh);
+        } catch (RuntimeException e) {
+          log.debug("skip change already reflected in rebuilt index.", e);
+        }
+      }
+
+      pendingChanges = null;
+      columns = fresh;
+
+      // 그 사이 실패한 변경이 새 index 에 제대로 들어갔는지 알 수 없다. - 실패할 때 요청된 rebuild 가 ready 로 만든다.
+      ready = failedChanges == failedChangesAtStart;
+    } finally {
+      lock.writeLock().unlock();
+    }
+
+    log.info(
+        "member search index built. members={}, teams={}, offHeapBytes={}, elapsed={}ms",
+        fresh.liveRows,
+        fresh.teamNameCodes.size(),
+        fresh.capacityBytes(),
+        (System.nanoTime() - start) / 1_000_000);
+  }
+
+  void upsertMember(Member m) {
+    Long memberId = m.getId();
+    String username = m.getUsername();
+    int age = m.getAge();
+    Long teamId = HibernateSupport.teamIdOf(m.getTeam());
+
+    change(c -> c.upsertMember(memberId, username, age, teamId));
+  }
+
+  void removeMember(Long memberId) {
+    change(c -> c.removeMember(memberId));
+  }
+
+  void upsertTeam(Team t) {
+    Long teamId = t.getId();
+    String name = t.getName();
+
+    change(c -> c.upsertTeam(teamId, name));
+  }
+
+  void removeTeam(Long teamId) {
+    change(c -> c.removeTeam(teamId));
+  }
+
+  private void change(Consumer<Columns> change) {
+    lock.writeLock().lock();
+    try {
+      // 실패해도 rebuild 중이면 새 index 에 다시 적용해 본다.
+      if (pendingChanges != null) {
+        pendingChanges.add(change);
+      }
+
+      change.accept(columns);
+    } catch (RuntimeException e) {
+      ready = false;
+      failedChanges++;
+      log.warn("member search index update failed. searches fall back to database.", e);
+      requestRebuild();
+    } finally {
+      lock.writeLock().unlock();
+    }
+  }
+
+  private void read(Consumer<Columns> reader) {
+    lock.readLock().lock();
+    try {
+      reader.accept(columns);
+    } finally {
+      lock.readLock().unlock();
+    }
+  }
+
+  private Columns load() {
+    EntityManager em = emf.createEntityManager();
+
+    try {
+      JPAQueryFactory queryFactory = new JPAQueryFactory(em);
+
+      List<Tuple> teams = queryFactory.select(team.id, team.name).from(team).fetch();
+
+      Columns fresh = new Columns(Math.max(teams.size(), 16));
+
+      for (Tuple t : teams) {
+        fresh.upsertTeam(t.get(team.id), t.get(team.name));
+      }
+
+      long lastId = Long.MIN_VALUE;
+
+      while (true) {
+        List<Tuple> chunk =
+            queryFactory
+                .select(member.id, member.username, member.age, team.id)
+                .from(member)
+                .leftJoin(member.team, team)
+                .where(member.id.gt(lastId))
+                .orderBy(member.id.asc())
+                .limit(LOAD_CHUNK_SIZE)
+                .fetch();
+
+        for (Tuple t : chunk) {
+          lastId = t.get(member.id);
+          fresh.upsertMember(lastId, t.get(member.username), t.get(member.age), t.get(team.id));
+        }
+
+        if (chunk.size() < LOAD_CHUNK_SIZE) {
+          return fresh;
+        }
+      }
+    } finally {
+      em.close();
+    }
+  }
+
+  /** index 의 실제 데이터. lock 을 잡은 상태에서만 접근한다. */
+  static class Columns {
+
+    static final int DELETED = -1;
+    static final int NULL_VALUE = -2;
+    static final int UNKNOWN_TEAM = -3;
+    static final long NO_TEAM = -1L;
+
+    private final OffHeapLongArray ids;
+    private final OffHeapIntArray ages;
+    private final OffHeapLongArray teamIds;
+    private final OffHeapIntArray usernameCodes;
+
+    private final OffHeapLongIntMap rowsById;
+    private final OffHeapLongIntMap teamNameCodes;
+
+    private final StringDictionary usernames;
+    private final StringDictionary teamNames;
+
+    private int liveRows;
+
+    Columns(int expectedTeams) {
+      this.ids = new OffHeapLongArray(1024);
+      this.ages = new OffHeapIntArray(1024);
+      this.teamIds = new OffHeapLongArray(1024);
+      this.usernameCodes = new OffHeapIntArray(1024);
+      this.rowsById = new OffHeapLongIntMap(1024);
+      this.teamNameCodes = new OffHeapLongIntMap(expectedTeams);
+      this.usernames = new StringDictionary(1024);
+      this.teamNames = new StringDictionary(expectedTeams);
+    }
+
+    void upsertMember(Long memberId, String username, int age, Long teamId) {
+      int usernameCode = username != null ? usernames.encode(username) : NULL_VALUE;
+      long teamValue = teamId != null ? teamId : NO_TEAM;
+
+      if (teamId != null && teamNameCodes.get(teamId, UNKNOWN_TEAM) == UNKNOWN_TEAM) {
+        throw new IllegalStateException("unknown team. teamId=" + teamId);
+      }
+
+      int row = rowsById.get(memberId, -1);
+
+      if (row < 0) {
+        row = ids.add(memberId);
+        ages.add(age);
+        teamIds.add(teamValue);
+        usernameCodes.add(usernameCode);
+        rowsById.put(memberId, row);
+        liveRows++;
+        return;
+      }
+
+      if (usernameCodes.get(row) == DELETED) {
+        liveRows++;
+      }
+
+      ages.set(row, age);
+      teamIds.set(row, teamValue);
+      usernameCodes.set(row, usernameCode);
+    }
+
+    void removeMember(Long memberId) {
+      int row = rowsById.get(memberId, -1);
+
+      if (row >= 0 && usernameCodes.get(row) != DELETED) {
+        usernameCodes.set(row, DELETED);
+        liveRows--;
+      }
+    }
+
+    void upsertTeam(Long teamId, String name) {
+      teamNameCodes.put(teamId, name != null ? teamNames.encode(name) : NULL_VALUE);
+    }
+
+    void removeTeam(Long teamId) {
+      teamNameCodes.put(teamId, StringDictionary.NOT_FOUND);
+    }
+
+    /**
+     * 조건에 맞는 row 중 offset 부터 limit 개를 result 에 담는다.
+     *
+     * @return 조건에 맞는 전체 row 개수
+     */
+    long scan(MemberSearchCondition condition, long offset, int limit, List<MemberTeamDto> result) {
+      int usernameCode = -1;
+      if (hasText(condition.getUsername())) {
+        usernameCode = usernames.find(condition.getUsername());
+
+        if (usernameCode == StringDictionary.NOT_FOUND) {
+          return 0;
+        }
+      }
+
+      int teamNameCode = -1;
+      if (hasText(condition.getTeamName())) {
+        teamNameCode = teamNames.find(condition.getTeamName());
+
+        if (teamNameCode == StringDictionary.NOT_FOUND) {
+          return 0;
+        }
+      }
+
+      int ageGoe = condition.getAgeGoe() != null ? condition.getAgeGoe() : Integer.MIN_VALUE;
+      int ageLoe = condition.getAgeLoe() != null ? condition.getAgeLoe() : Integer.MAX_VALUE;
+
+      long matched = 0;
+      int rows = ids.size();
+
+      for (int row = 0; row < rows; row++) {
+        int code = usernameCodes.get(row);
+
+        if (code == DELETED || (usernameCode >= 0 && code != usernameCode)) {
+          continue;
+        }
+
+        int age = ages.get(row);
+
+        if (age < ageGoe || age > ageLoe) {
+          continue;
+        }
+
+        if (teamNameCode >= 0) {
+          long teamId = teamIds.get(row);
+
+          if (teamId == NO_TEAM
+              || teamNameCodes.get(teamId, StringDictionary.NOT_FOUND) != teamNameCode) {
+            continue;
+          }
+        }
+
+        if (matched >= offset && result.size() < limit) {
+          result.add(toDto(row));
+        }
+
+        matched++;
+      }
+
+      return matched;
+    }
+
+    long capacityBytes() {
+      return ids.capacityBytes()
+          + ages.capacityBytes()
+          + teamIds.capacityBytes()
+          + usernameCodes.capacityBytes()
+          + rowsById.capacityBytes()
+          + teamNameCodes.capacityBytes()
+          + usernames.capacityBytes()
+          + teamNames.capacityBytes();
+    }
+
+    private MemberTeamDto toDto(int row) {
+      int usernameCode = usernameCodes.get(row);
+      long teamId = teamIds.get(row);
+
+      String username = usernameCode != NULL_VALUE ? usernames.decode(usernameCode) : null;
+
+      if (teamId == NO_TEAM) {
+        return new MemberTeamDto(ids.get(row), username, ages.get(row), null, null);
+      }
+
+      int teamNameCode = teamNameCodes.get(teamId, StringDictionary.NOT_FOUND);
+      String teamName = teamNameCode >= 0 ? teamNames.decode(teamNameCode) : null;
+
+      return new MemberTeamDto(ids.get(row), username, ages.get(row), teamId, teamName);
+    }
+  }
+}
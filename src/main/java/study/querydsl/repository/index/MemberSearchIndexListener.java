@@ -0,0 +1,69 @@
+package study.querydsl.repository.index;
+
+import org.hibernate.event.spi.PostCommitDeleteEventListener;
+import org.hibernate.event.spi.PostCommitInsertEventListener;
+import org.hibernate.event.spi.PostCommitUpdateEventListener;
+import org.hibernate.event.spi.PostDeleteEvent;
+import org.hibernate.event.spi.PostInsertEvent;
+import org.hibernate.event.spi.PostUpdateEvent;
+import org.hibernate.persister.entity.EntityPersister;
+import study.querydsl.entity.Member;
+import study.querydsl.entity.Team;
+
+/** commit 된 Member / Team 변경을 {@link MemberSearchIndex} 에 반영한다. */
+class MemberSearchIndexListener
+    implements PostCommitInsertEventListener,
+        PostCommitUpdateEventListener,
+        PostCommitDeleteEventListener {
+
+  private final transient MemberSearchIndex index;
+
+  MemberSearchIndexListener(MemberSearchIndex index) {
+    this.index = index;
+  }
+
+  @Override
+  public void onPostInsert(PostInsertEvent event) {
+    upsert(event.getEntity());
+  }
+
+  @Override
+  public void onPostUpdate(PostUpdateEvent event) {
+    upsert(event.getEntity());
+  }
+
+  @Override
+  public void onPostDelete(PostDeleteEvent event) {
+    Object entity = event.getEntity();
+
+    if (entity instanceof Member) {
+      index.removeMember((Long) event.getId());
+    } else if (entity instanceof Team) {
+      index.removeTeam((Long) event.getId());
+    }
+  }
+
+  // rollback 된 변경은 반영할 것이 없다.
+  @Override
+  public void onPostInsertCommitFailed(PostInsertEvent event) {}
+
+  @Override
+  public void onPostUpdateCommitFailed(PostUpdateEvent event) {}
+
+  @Override
+  public void onPostDeleteCommitFailed(PostDeleteEvent event) {}
+
+  @Override
+  public boolean requiresPostCommitHanding(EntityPersister persister) {
+    Class<?> mappedClass = persister.getMappedClass();
+    return Member.class.equals(mappedClass) || Team.class.equals(mappedClass);
+  }
+
+  private void upsert(Object entity) {
+    if (entity instanceof Member) {
+      index.upsertMember((Member) entity);
+    } else if (entity instanceof Team) {
+      index.upsertTeam((Team) entity);
+    }
+  }
+}
@@ -0,0 +1,59 @@
+package study.querydsl.repository.index;
+
+import java.nio.ByteBuffer;
+import java.nio.ByteOrder;
+
+/** heap 밖 (direct buffer) 에 저장되는 크기 가변 int 배열 */
+final class OffHeapIntArray {
+
+  private ByteBuffer buffer;
+  private int size;
+
+  OffHeapIntArray(int initialCapacity) {
+    this.buffer = allocate(Math.max(initialCapacity, 16));
+  }
+
+  int size() {
+    return size;
+  }
+
+  int get(int index) {
+    return buffer.getInt(index << 2);
+  }
+
+  void set(int index, int value) {
+    buffer.putInt(index << 2, value);
+  }
+
+  int add(int value) {
+    ensureCapacity(size + 1);
+    set(size, value);
+    return size++;
+  }
+
+  long capacityBytes() {
+    return buffer.capacity();
+  }
+
+  private void ensureCapacity(int capacity) {
+    int current = buffer.capacity() >>> 2;
+
+    if (capacity <= current) {
+      return;
+    }
+
+    ByteBuffer grown = allocate(Math.max(capacity, current << 1));
+
+    ByteBuffer source = buffer.duplicate();
+    source.position(0);
+    source.limit(size << 2);
+    grown.put(source);
+    grown.position(0);
+
+    buffer = grown;
+  }
+
+  private static ByteBuffer allocate(int capacity) {
+    return ByteBuffer.allocateDirect(capacity << 2).order(ByteOrder.nativeOrder());
+  }
+}
@@ -0,0 +1,59 @@
+package study.querydsl.repository.index;
+
+import java.nio.ByteBuffer;
+import java.nio.ByteOrder;
+
+/** heap 밖 (direct buffer) 에 저장되는 크기 가변 long 배열 */
+final class OffHeapLongArray {
+
+  private ByteBuffer buffer;
+  private int size;
+
+  OffHeapLongArray(int initialCapacity) {
+    this.buffer = allocate(Math.max(initialCapacity, 16));
+  }
+
+  int size() {
+    return size;
+  }
+
+  long get(int index) {
+    return buffer.getLong(index << 3);
+  }
+
+  void set(int index, long value) {
+    buffer.putLong(index << 3, value);
+  }
+
+  int add(long value) {
+    ensureCapacity(size + 1);
+    set(size, value);
+    return size++;
+  }
+
+  long capacityBytes() {
+    return buffer.capacity();
+  }
+
+  private void ensureCapacity(int capacity) {
+    int current = buffer.capacity() >>> 3;
+
+    if (capacity <= current) {
+      return;
+    }
+
+    ByteBuffer grown = allocate(Math.max(capacity, current << 1));
+
+    ByteBuffer source = buffer.duplicate();
+    source.position(0);
+    source.limit(size << 3);
+    grown.put(source);
+    grown.position(0);
+
+    buffer = grown;
+  }
+
+  private static ByteBuffer allocate(int capacity) {
+    return ByteBuffer.allocateDirect(capacity << 3).order(ByteOrder.nativeOrder());
+  }
+}
@@ -0,0 +1,130 @@
+package study.querydsl.repository.index;
+
+import java.nio.ByteBuffer;
+import java.nio.ByteOrder;
+
+/**
+ * heap 밖에 저장되는 long -> int open addressing hash map
+ *
+ * <pre>
+ *     - key 로 Long.MIN_VALUE 는 쓸 수 없다. (빈 slot 표시)
+ *     - 삭제는 지원하지 않는다. 값을 덮어쓰는 것으로 대신한다.
+ * </pre>
+ */
+final class OffHeapLongIntMap {
+
+  private static final long EMPTY = Long.MIN_VALUE;
+
+  private ByteBuffer keys;
+  private ByteBuffer values;
+  private int capacity;
+  private int size;
+
+  OffHeapLongIntMap(int expectedSize) {
+    allocate(tableSizeFor(Math.max(expectedSize, 8) * 2));
+  }
+
+  int size() {
+    return size;
+  }
+
+  int get(long key, int defaultValue) {
+    int mask = capacity - 1;
+    int slot = hash(key) & mask;
+
+    while (true) {
+      long current = keys.getLong(slot << 3);
+
+      if (current == key) {
+        return values.getInt(slot << 2);
+      }
+
+      if (current == EMPTY) {
+        return defaultValue;
+      }
+
+      slot = (slot + 1) & mask;
+    }
+  }
+
+  void put(long key, int value) {
+    if ((size + 1) * 2 > capacity) {
+      rehash(capacity << 1);
+    }
+
+    if (insert(key, value)) {
+      size++;
+    }
+  }
+
+  void forEach(LongIntConsumer consumer) {
+    for (int slot = 0; slot < capacity; slot++) {
+      long key = keys.getLong(slot << 3);
+
+      if (key != EMPTY) {
+        consumer.accept(key, values.getInt(slot << 2));
+      }
+    }
+  }
+
+  long capacityBytes() {
+    return keys.capacity() + (long) values.capacity();
+  }
+
+  private boolean insert(long key, int value) {
+    int mask = capacity - 1;
+    int slot = hash(key) & mask;
+
+    while (true) {
+      long current = keys.getLong(slot << 3);
+
+      if (current == key || current == EMPTY) {
+        keys.putLong(slot << 3, key);
+        values.putInt(slot << 2, value);
+        return current == EMPTY;
+      }
+
+      slot = (slot + 1) & mask;
+    }
+  }
+
+  private void rehash(int newCapacity) {
+    ByteBuffer oldKeys = keys;
+    ByteBuffer oldValues = values;
+    int oldCapacity = capacity;
+
+    allocate(newCapacity);
+
+    for (int slot = 0; slot < oldCapacity; slot++) {
+      long key = oldKeys.getLong(slot << 3);
+
+      if (key != EMPTY) {
+        insert(key, oldValues.getInt(slot << 2));
+      }
+    }
+  }
+
+  private void allocate(int newCapacity) {
+    this.capacity = newCapacity;
+    this.keys = ByteBuffer.allocateDirect(newCapacity << 3).order(ByteOrder.nativeOrder());
+    this.values = ByteBuffer.allocateDirect(newCapacity << 2).order(ByteOrder.nativeOrder());
+
+    for (int slot = 0; slot < newCapacity; slot++) {
+      keys.putLong(slot << 3, EMPTY);
+    }
+  }
+
+  private static int hash(long key) {
+    long h = key * 0x9E3779B97F4A7C15L;
+    return (int) (h ^ (h >>> 32));
+  }
+
+  private static int tableSizeFor(int size) {
+    int n = Integer.highestOneBit(Math.max(size - 1, 1)) << 1;
+    return Math.max(n, 16);
+  }
+
+  interface LongIntConsumer {
+    void accept(long key, int value);
+  }
+}
@@ -0,0 +1,171 @@
+package study.querydsl.repository.index;
+
+import java.nio.ByteBuffer;
+import java.nio.charset.StandardCharsets;
+
+/**
+ * 문자열 dictionary encoding
+ *
+ * <pre>
+ *     - 문자열은 한번만 UTF-8 로 heap 밖에 저장하고, 이후에는 int code 로만 다룬다.
+ *     - code 는 0 부터 순서대로 부여되고, 한번 부여된 code 는 바뀌지 않는다.
+ *     - 더 이상 쓰이지 않는 문자열도 지우지 않는다. (index 를 다시 만들 때 정리된다.)
+ * </pre>
+ */
+final class StringDictionary {
+
+  static final int NOT_FOUND = -1;
+
+  private ByteBuffer bytes;
+  private int bytesSize;
+
+  private final OffHeapIntArray offsets;
+  private final OffHeapIntArray lengths;
+  private final OffHeapIntArray hashes;
+
+  // slot 값은 code + 1, 0 이면 빈 slot
+  private OffHeapIntArray table;
+  private int tableCapacity;
+
+  StringDictionary(int expectedSize) {
+    this.bytes = ByteBuffer.allocateDirect(Math.max(expectedSize, 16) * 8);
+    this.offsets = new OffHeapIntArray(expectedSize);
+    this.lengths = new OffHeapIntArray(expectedSize);
+    this.hashes = new OffHeapIntArray(expectedSize);
+    allocateTable(Integer.highestOneBit(Math.max(expectedSize, 8)) << 2);
+  }
+
+  int size() {
+    return offsets.size();
+  }
+
+  int find(String value) {
+    byte[] utf8 = value.getBytes(StandardCharsets.UTF_8);
+    int slot = probe(utf8, hash(utf8));
+    return table.get(slot) - 1;
+  }
+
+  int encode(String value) {
+    byte[] utf8 = value.getBytes(StandardCharsets.UTF_8);
+    int hash = hash(utf8);
+    int slot = probe(utf8, hash);
+
+    if (table.get(slot) != 0) {
+      return table.get(slot) - 1;
+    }
+
+    int code = append(utf8, hash);
+    table.set(slot, code + 1);
+
+    if (size() * 2 > tableCapacity) {
+      allocateTable(tableCapacity << 1);
+    }
+
+    return code;
+  }
+
+  String decode(int code) {
+    int offset = offsets.get(code);
+    byte[] utf8 = new byte[lengths.get(code)];
+
+    for (int i = 0; i < utf8.length; i++) {
+      utf8[i] = bytes.get(offset + i);
+    }
+
+    return new String(utf8, StandardCharsets.UTF_8);
+  }
+
+  long capacityBytes() {
+    return bytes.capacity()
+        + offsets.capacityBytes()
+        + lengths.capacityBytes()
+        + hashes.capacityBytes()
+        + ((long) tableCapacity << 2);
+  }
+
+  private int probe(byte[] utf8, int hash) {
+    int mask = tableCapacity - 1;
+    int slot = hash & mask;
+
+    while (true) {
+      int entry = table.get(slot);
+
+      if (entry == 0 || matches(entry - 1, utf8, hash)) {
+        return slot;
+      }
+
+      slot = (slot + 1) & mask;
+    }
+  }
+
+  private boolean matches(int code, byte[] utf8, int hash) {
+    if (hashes.get(code) != hash || lengths.get(code) != utf8.length) {
+      return false;
+    }
+
+    int offset = offsets.get(code);
+
+    for (int i = 0; i < utf8.length; i++) {
+      if (bytes.get(offset + i) != utf8[i]) {
+        return false;
+      }
+    }
+
+    return true;
+  }
+
+  private int append(byte[] utf8, int hash) {
+    if (bytesSize + utf8.length > bytes.capacity()) {
+      ByteBuffer grown =
+          ByteBuffer.allocateDirect(Math.max(bytesSize + utf8.length, bytes.capacity() << 1));
+
+      ByteBuffer source = bytes.duplicate();
+      source.position(0);
+      source.limit(bytesSize);
+      grown.put(source);
+
+      bytes = grown;
+    }
+
+    for (int i = 0; i < utf8.length; i++) {
+      bytes.put(bytesSize + i, utf8[i]);
+    }
+
+    offsets.add(bytesSize);
+    lengths.add(utf8.length);
+    bytesSize += utf8.length;
+
+    return hashes.add(hash);
+  }
+
+  private void allocateTable(int capacity) {
+    this.tableCapacity = capacity;
+    this.table = new OffHeapIntArray(capacity);
+
+    for (int slot = 0; slot < capacity; slot++) {
+      table.add(0);
+    }
+
+    int mask = capacity - 1;
+
+    for (int code = 0; code < size(); code++) {
+      int slot = hashes.get(code) & mask;
+
+      while (table.get(slot) != 0) {
+        slot = (slot + 1) & mask;
+      }
+
+      table.set(slot, code + 1);
+    }
+  }
+
+  private static int hash(byte[] utf8) {
+    int h = 1;
+
+    for (byte b : utf8) {
+      h = 31 * h + b;
+    }
+
+    return h ^ (h >>> 16);
+  }
+}
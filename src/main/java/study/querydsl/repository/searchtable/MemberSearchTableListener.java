@@ -0,0 +1,189 @@
+package study.querydsl.repository.searchtable;
+
+import org.hibernate.event.service.spi.EventListenerRegistry;
+import org.hibernate.event.spi.EventType;
+import org.hibernate.event.spi.PostDeleteEvent;
+import org.hibernate.event.spi.PostDeleteEventListener;
+import org.hibernate.event.spi.PostInsertEvent;
+import org.hibernate.event.spi.PostInsertEventListener;
+import org.hibernate.event.spi.PostUpdateEvent;
+import org.hibernate.event.spi.PostUpdateEventListener;
+import org.hibernate.persister.entity.EntityPersister;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.core.Ordered;
+import org.springframework.core.annotation.Order;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.TransactionDefinition;
+import org.springframework.transaction.event.TransactionalEventListener;
+import org.springframework.transaction.support.TransactionTemplate;
+import study.querydsl.entity.Member;
+import study.querydsl.entity.Team;
+import study.querydsl.repository.support.HibernateSupport;
+import study.querydsl.repository.support.MembersBulkChangedEvent;
+
+import javax.annotation.PostConstruct;
+import javax.persistence.EntityManagerFactory;
+import java.util.Objects;
+
+/**
+ * Member / Team 이 flush 될 때 member_search 를 같은 transaction 안에서 갱신한다.
+ *
+ * <pre>
+ *     - team 이름이 바뀌면 해당 team 의 row 를 update 한번으로 모두 바꾼다.
+ *     - bulk update 처럼 event 가 발생하지 않는 변경은 반영되지 않는다. - MemberSearchTableRepository#rebuild()
+ * </pre>
+ */
+@Component
+public class MemberSearchTableListener
+    implements PostInsertEventListener, PostUpdateEventListener, PostDeleteEventListener {
+
+  private static final Logger log = LoggerFactory.getLogger(MemberSearchTableListener.class);
+
+  private static final String INSERT_MEMBER =
+      "insert into member_search (member_id, username, age, team_id, team_name)"
+          + " values (?, ?, ?, ?, (select t.name from team t where t.team_id = ?))";
+
+  private static final String UPDATE_MEMBER =
+      "update member_search"
+          + " set username = ?, age = ?, team_id = ?,"
+          + " team_name = (select t.name from team t where t.team_id = ?)"
+          + " where member_id = ?";
+
+  private static final String DELETE_MEMBER = "delete from member_search where member_id = ?";
+
+  private static final String RENAME_TEAM =
+      "update member_search set team_name = ? where team_id = ?";
+
+  private static final String DELETE_TEAM =
+      "update member_search set team_id = null, team_name = null where team_id = ?";
+
+  private final transient EntityManagerFactory emf;
+  private final transient MemberSearchTableRepository memberSearchTableRepository;
+  private final transient TransactionTemplate requiresNew;
+
+  public MemberSearchTableListener(
+      EntityManagerFactory emf,
+      MemberSearchTableRepository memberSearchTableRepository,
+      PlatformTransactionManager transactionManager) {
+    this.emf = emf;
+    this.memberSearchTableRepository = memberSearchTableRepository;
+    this.requiresNew = new TransactionTemplate(transactionManager);
+    this.requiresNew.setPropagationBehavior(TransactionDefinition.PROPAGATION_REQUIRES_NEW);
+  }
+
+  @PostConstruct
+  public void register() {
+    if (!memberSearchTableRepository.isEnabled()) {
+      return;
+    }
+
+    EventListenerRegistry registry = HibernateSupport.listenerRegistry(emf);
+
+    registry.appendListeners(EventType.POST_INSERT, this);
+    registry.appendListeners(EventType.POST_UPDATE, this);
+    registry.appendListeners(EventType.POST_DELETE, this);
+  }
+
+  @EventListener(ApplicationReadyEvent.class)
+  public void buildOnStartup() {
+    if (!memberSearchTableRepository.isEnabled()) {
+      return;
+    }
+
+    int rows = memberSearchTableRepository.rebuild();
+    memberSearchTableRepository.markReady();
+
+    log.info("member_search table built. rows={}", rows);
+  }
+
+  /**
+   * JDBC 로 한번에 바뀐 건 entity event 가 없기 때문에 다시 만든다.
+   *
+   * <pre>
+   *     - 바뀐 member id 를 알면 그 row 만, 모르면 전체를 다시 만든다.
+   *     - commit 이후에 불리기 때문에, thread 에 남아있는 (이미 commit 된) transaction 에 참여하지 않고 새로 시작한다.
+   * </pre>
+   */
+  @Order(Ordered.HIGHEST_PRECEDENCE) // MemberDataVersion 보다 먼저 다시 만든다.
+  @TransactionalEventListener(fallbackExecution = true)
+  public void onBulkChanged(MembersBulkChangedEvent event) {
+    if (!memberSearchTableRepository.isEnabled()) {
+      return;
+    }
+
+    if (event.getMemberIds() != null) {
+      Integer rows =
+          requiresNew.execute(status -> memberSearchTableRepository.refresh(event.getMemberIds()));
+      log.debug("member_search table refreshed. rows={}, {}", rows, event);
+      return;
+    }
+
+    Integer rows = requiresNew.execute(status -> memberSearchTableRepository.rebuild());
+
+    log.info("member_search table rebuilt. rows={}, {}", rows, event);
+  }
+
+  @Override
+  public void onPostInsert(PostInsertEvent event) {
+    if (event.getEntity() instanceof Member) {
+      Member member = (Member) event.getEntity();
+      Long teamId = HibernateSupport.teamIdOf(member.getTeam());
+
+      HibernateSupport.executeUpdate(
+          event.getSession(),
+          INSERT_MEMBER,
+          member.getId(),
+          member.getUsername(),
+          member.getAge(),
+          teamId,
+          teamId);
+    }
+  }
+
+  @Override
+  public void onPostUpdate(PostUpdateEvent event) {
+    Object entity = event.getEntity();
+
+    if (entity instanceof Member) {
+      Member member = (Member) entity;
+      Long teamId = HibernateSupport.teamIdOf(member.getTeam());
+
+      HibernateSupport.executeUpdate(
+          event.getSession(),
+          UPDATE_MEMBER,
+          member.getUsername(),
+          member.getAge(),
+          teamId,
+          teamId,
+          member.getId());
+    } else if (entity instanceof Team) {
+      int nameIndex = event.getPersister().getEntityMetamodel().getPropertyIndex("name");
+      Object[] oldState = event.getOldState();
+      String name = (String) event.getState()[nameIndex];
+
+      if (oldState == null || !Objects.equals(oldState[nameIndex], name)) {
+        HibernateSupport.executeUpdate(event.getSession(), RENAME_TEAM, name, event.getId());
+      }
+    }
+  }
+
+  @Override
+  public void onPostDelete(PostDeleteEvent event) {
+    Object entity = event.getEntity();
+
+    if (entity instanceof Member) {
+      HibernateSupport.executeUpdate(event.getSession(), DELETE_MEMBER, event.getId());
+    } else if (entity instanceof Team) {
+      HibernateSupport.executeUpdate(event.getSession(), DELETE_TEAM, event.getId());
+    }
+  }
+
+  @Override
+  public boolean requiresPostCommitHanding(EntityPersister persister) {
+    return false;
+  }
+}
@@ -0,0 +1,87 @@
+package study.querydsl.repository.searchtable;
+
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Repository;
+import org.springframework.transaction.annotation.Transactional;
+
+import javax.persistence.EntityManager;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.List;
+
+/**
+ * member_search table 관리
+ *
+ * @see study.querydsl.entity.MemberSearch
+ */
+@Repository
+public class MemberSearchTableRepository {
+
+  private static final String DELETE_ALL = "delete from member_search";
+
+  private static final String INSERT_ALL =
+      "insert into member_search (member_id, username, age, team_id, team_name)"
+          + " select m.member_id, m.username, m.age, t.team_id, t.name"
+          + " from member m left join team t on t.team_id = m.team_id";
+
+  private static final String DELETE_MEMBERS =
+      "delete from member_search where member_id in (:ids)";
+
+  private static final String INSERT_MEMBERS = INSERT_ALL + " where m.member_id in (:ids)";
+
+  private static final int IN_SIZE = 1000;
+
+  private final EntityManager em;
+  private final boolean enabled;
+
+  private volatile boolean ready;
+
+  public MemberSearchTableRepository(
+      EntityManager em, @Value("${member.search-table.enabled:false}") boolean enabled) {
+    this.em = em;
+    this.enabled = enabled;
+  }
+
+  public boolean isEnabled() {
+    return enabled;
+  }
+
+  /** member_search 로 검색해도 되는지 여부 - 처음 한번은 다시 만들어져 있어야 한다. */
+  public boolean canServe() {
+    return enabled && ready;
+  }
+
+  /** member / team 으로부터 member_search 를 다시 만든다. */
+  @Transactional
+  public int rebuild() {
+    em.flush();
+    em.createNativeQuery(DELETE_ALL).executeUpdate();
+    return em.createNativeQuery(INSERT_ALL).executeUpdate();
+  }
+
+  /**
+   * 주어진 member 의 row 만 다시 만든다. (없어진 member 는 지워진다.)
+   *
+   * @return 다시 만든 row 수
+   */
+  @Transactional
+  public int refresh(Collection<Long> memberIds) {
+    em.flush();
+
+    List<Long> ids = new ArrayList<>(memberIds);
+    int rows = 0;
+
+    for (int from = 0; from < ids.size(); from += IN_SIZE) {
+      List<Long> chunk = ids.subList(from, Math.min(from + IN_SIZE, ids.size()));
+
+      em.createNativeQuery(DELETE_MEMBERS).setParameter("ids", chunk).executeUpdate();
+      rows += em.createNativeQuery(INSERT_MEMBERS).setParameter("ids", chunk).executeUpdate();
+    }
+
+    return rows;
+  }
+
+  void markReady() {
+    ready = true;
+  }
+}
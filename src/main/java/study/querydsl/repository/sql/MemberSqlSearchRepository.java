@@ -0,0 +1,103 @@
+package study.querydsl.repository.sql;
+
+import com.querydsl.core.types.dsl.BooleanExpression;
+import com.querydsl.sql.SQLQuery;
+import com.querydsl.sql.SQLQueryFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.data.domain.Page;
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.support.PageableExecutionUtils;
+import org.springframework.stereotype.Repository;
+import org.springframework.transaction.annotation.Transactional;
+import study.querydsl.dto.MemberSearchCondition;
+import study.querydsl.dto.MemberTeamDto;
+import study.querydsl.dto.QMemberTeamDto;
+import study.querydsl.repository.support.QueryDeadline;
+
+import java.util.List;
+
+import static org.springframework.util.StringUtils.hasText;
+import static study.querydsl.repository.sql.QMemberRow.memberRow;
+import static study.querydsl.repository.sql.QTeamRow.teamRow;
+
+/**
+ * querydsl-sql 로 member 를 검색한다. (member.search.engine=sql)
+ *
+ * <pre>
+ *     - JPQL 번역, query plan cache, Hibernate ResultSet 처리를 거치지 않고 row 를 바로 MemberTeamDto 로 만든다.
+ *     - JPA 와 같은 transaction / connection 을 쓰지만, 영속성 컨텍스트는 보지 않는다.
+ *       - 아직 flush 안된 변경은 보이지 않는다. (JPA query 는 실행 전에 auto flush 한다.)
+ *     - QueryDeadline 의 남은 시간은 JDBC query timeout 으로 들어간다.
+ *     - Session.cancelQuery() 로는 취소되지 않는다. - statement 는 RunningStatements 로 취소한다. (SqlQueryConfig)
+ * </pre>
+ */
+@Repository
+@Transactional(readOnly = true)
+public class MemberSqlSearchRepository {
+
+  private final SQLQueryFactory queryFactory;
+  private final boolean enabled;
+
+  public MemberSqlSearchRepository(
+      SQLQueryFactory queryFactory, @Value("${member.search.engine:jpa}") String engine) {
+    if (!"jpa".equals(engine) && !"sql".equals(engine)) {
+      throw new IllegalArgumentException("member.search.engine must be jpa or sql: " + engine);
+    }
+
+    this.queryFactory = queryFactory;
+    this.enabled = "sql".equals(engine);
+  }
+
+  public boolean canServe() {
+    return enabled;
+  }
+
+  public List<MemberTeamDto> search(MemberSearchCondition condition, int limit) {
+    return QueryDeadline.apply(searchQuery(condition).limit(limit)).fetch();
+  }
+
+  public Page<MemberTeamDto> searchPage(MemberSearchCondition condition, Pageable pageable) {
+    List<MemberTeamDto> content =
+        QueryDeadline.apply(
+                searchQuery(condition).offset(pageable.getOffset()).limit(pageable.getPageSize()))
+            .fetch();
+
+    return PageableExecutionUtils.getPage(
+        content, pageable, () -> QueryDeadline.apply(searchQuery(condition)).fetchCount());
+  }
+
+  private SQLQuery<MemberTeamDto> searchQuery(MemberSearchCondition condition) {
+    return queryFactory
+        .select(
+            new QMemberTeamDto(
+                memberRow.memberId,
+                memberRow.username,
+                memberRow.age,
+                teamRow.teamId,
+                teamRow.name))
+        .from(memberRow)
+        .leftJoin(teamRow)
+        .on(memberRow.teamId.eq(teamRow.teamId))
+        .where(
+            usernameEq(condition.getUsername()),
+            teamNameEq(condition.getTeamName()),
+            ageGoe(condition.getAgeGoe()),
+            ageLoe(condition.getAgeLoe()));
+  }
+
+  private BooleanExpression usernameEq(String username) {
+    return hasText(username) ? memberRow.username.eq(username) : null;
+  }
+
+  private BooleanExpression teamNameEq(String teamName) {
+    return hasText(teamName) ? teamRow.name.eq(teamName) : null;
+  }
+
+  private BooleanExpression ageGoe(Integer ageGoe) {
+    return ageGoe != null ? memberRow.age.goe(ageGoe) : null;
+  }
+
+  private BooleanExpression ageLoe(Integer ageLoe) {
+    return ageLoe != null ? memberRow.age.loe(ageLoe) : null;
+  }
+}
@@ -0,0 +1,53 @@
+package study.querydsl.repository.sql;
+
+import com.querydsl.core.types.dsl.NumberPath;
+import com.querydsl.core.types.dsl.StringPath;
+import com.querydsl.sql.ColumnMetadata;
+import com.querydsl.sql.ForeignKey;
+import com.querydsl.sql.PrimaryKey;
+import com.querydsl.sql.RelationalPathBase;
+
+import java.sql.Types;
+
+import static com.querydsl.core.types.PathMetadataFactory.forVariable;
+
+/**
+ * member table 의 querydsl-sql metadata
+ *
+ * <pre>
+ *     - querydsl-sql codegen 이 만드는 Q-class 와 같은 모양이다.
+ *     - schema 는 JPA (ddl-auto) 가 만들기 때문에, DB 를 읽어서 만드는 codegen 대신 직접 적어둔다.
+ *     - {@link study.querydsl.entity.Member} 의 column mapping 이 바뀌면 같이 바꿔야 한다.
+ * </pre>
+ */
+public class QMemberRow extends RelationalPathBase<QMemberRow> {
+
+  private static final long serialVersionUID = 1L;
+
+  public static final QMemberRow memberRow = new QMemberRow("m");
+
+  public final NumberPath<Long> memberId = createNumber("memberId", Long.class);
+
+  public final StringPath username = createString("username");
+
+  public final NumberPath<Integer> age = createNumber("age", Integer.class);
+
+  public final NumberPath<Long> teamId = createNumber("teamId", Long.class);
+
+  public final PrimaryKey<QMemberRow> primary = createPrimaryKey(memberId);
+
+  public final ForeignKey<QTeamRow> teamFk = createForeignKey(teamId, "team_id");
+
+  public QMemberRow(String variable) {
+    super(QMemberRow.class, forVariable(variable), "PUBLIC", "member");
+    addMetadata();
+  }
+
+  private void addMetadata() {
+    addMetadata(
+        memberId, ColumnMetadata.named("member_id").withIndex(1).ofType(Types.BIGINT).notNull());
+    addMetadata(username, ColumnMetadata.named("username").withIndex(2).ofType(Types.VARCHAR));
+    addMetadata(age, ColumnMetadata.named("age").withIndex(3).ofType(Types.INTEGER).notNull());
+    addMetadata(teamId, ColumnMetadata.named("team_id").withIndex(4).ofType(Types.BIGINT));
+  }
+}
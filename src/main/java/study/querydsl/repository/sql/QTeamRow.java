@@ -0,0 +1,40 @@
+package study.querydsl.repository.sql;
+
+import com.querydsl.core.types.dsl.NumberPath;
+import com.querydsl.core.types.dsl.StringPath;
+import com.querydsl.sql.ColumnMetadata;
+import com.querydsl.sql.PrimaryKey;
+import com.querydsl.sql.RelationalPathBase;
+
+import java.sql.Types;
+
+import static com.querydsl.core.types.PathMetadataFactory.forVariable;
+
+/**
+ * team table 의 querydsl-sql metadata
+ *
+ * @see QMemberRow
+ */
+public class QTeamRow extends RelationalPathBase<QTeamRow> {
+
+  private static final long serialVersionUID = 1L;
+
+  public static final QTeamRow teamRow = new QTeamRow("t");
+
+  public final NumberPath<Long> teamId = createNumber("teamId", Long.class);
+
+  public final StringPath name = createString("name");
+
+  public final PrimaryKey<QTeamRow> primary = createPrimaryKey(teamId);
+
+  public QTeamRow(String variable) {
+    super(QTeamRow.class, forVariable(variable), "PUBLIC", "team");
+    addMetadata();
+  }
+
+  private void addMetadata() {
+    addMetadata(
+        teamId, ColumnMetadata.named("team_id").withIndex(1).ofType(Types.BIGINT).notNull());
+    addMetadata(name, ColumnMetadata.named("name").withIndex(2).ofType(Types.VARCHAR));
+  }
+}
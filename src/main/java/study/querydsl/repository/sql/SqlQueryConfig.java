@@ -0,0 +1,50 @@
+package study.querydsl.repository.sql;
+
+import com.querydsl.sql.H2Templates;
+import com.querydsl.sql.SQLBaseListener;
+import com.querydsl.sql.SQLListenerContext;
+import com.querydsl.sql.SQLQueryFactory;
+import com.querydsl.sql.spring.SpringConnectionProvider;
+import com.querydsl.sql.spring.SpringExceptionTranslator;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import study.querydsl.repository.support.RunningStatements;
+
+import javax.sql.DataSource;
+
+/**
+ * querydsl-sql 설정
+ *
+ * <pre>
+ *     - SpringConnectionProvider 는 transaction 에 묶인 connection 을 쓴다. (JPA 와 같은 connection)
+ *       - transaction 밖에서 쓰면 IllegalStateException 이 난다.
+ *     - SQLException 은 Spring 의 DataAccessException 으로 바꿔서 던진다.
+ *     - 실행 중인 statement 를 RunningStatements 에 알려서, 검색 deadline 이 지나면 취소할 수 있게 한다.
+ * </pre>
+ */
+@Configuration
+public class SqlQueryConfig {
+
+  @Bean
+  public SQLQueryFactory sqlQueryFactory(DataSource dataSource) {
+    com.querydsl.sql.Configuration configuration =
+        new com.querydsl.sql.Configuration(H2Templates.builder().build());
+    configuration.setExceptionTranslator(new SpringExceptionTranslator());
+    configuration.addListener(new RunningStatementsListener());
+
+    return new SQLQueryFactory(configuration, new SpringConnectionProvider(dataSource));
+  }
+
+  static class RunningStatementsListener extends SQLBaseListener {
+
+    @Override
+    public void prepared(SQLListenerContext context) {
+      RunningStatements.prepared(context.getPreparedStatement());
+    }
+
+    @Override
+    public void end(SQLListenerContext context) {
+      RunningStatements.closed(context.getPreparedStatement());
+    }
+  }
+}
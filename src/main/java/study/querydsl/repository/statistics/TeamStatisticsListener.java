@@ -0,0 +1,162 @@
+package study.querydsl.repository.statistics;
+
+import org.hibernate.event.service.spi.EventListenerRegistry;
+import org.hibernate.event.spi.EventSource;
+import org.hibernate.event.spi.EventType;
+import org.hibernate.event.spi.PostDeleteEvent;
+import org.hibernate.event.spi.PostDeleteEventListener;
+import org.hibernate.event.spi.PostInsertEvent;
+import org.hibernate.event.spi.PostInsertEventListener;
+import org.hibernate.event.spi.PostUpdateEvent;
+import org.hibernate.event.spi.PostUpdateEventListener;
+import org.hibernate.persister.entity.EntityPersister;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.stereotype.Component;
+import study.querydsl.entity.Member;
+import study.querydsl.entity.Team;
+import study.querydsl.repository.support.HibernateSupport;
+
+import javax.annotation.PostConstruct;
+import javax.persistence.EntityManagerFactory;
+import java.util.Objects;
+
+/**
+ * Member / Team 이 flush 될 때 team_statistics 를 같은 transaction 안에서 갱신한다.
+ *
+ * <pre>
+ *     - count / sum 은 증감만 한다.
+ *     - min / max 는 추가될 때는 비교만 하고, 빠지는 age 가 min / max 였을 때만 해당 team 을 다시 계산한다.
+ *     - bulk update 처럼 event 가 발생하지 않는 변경은 반영되지 않는다. - TeamStatisticsRepository#rebuild()
+ * </pre>
+ */
+@Component
+public class TeamStatisticsListener
+    implements PostInsertEventListener, PostUpdateEventListener, PostDeleteEventListener {
+
+  private static final Logger log = LoggerFactory.getLogger(TeamStatisticsListener.class);
+
+  private static final String INSERT_TEAM =
+      "insert into team_statistics (team_id, member_count, age_sum) values (?, 0, 0)";
+
+  private static final String DELETE_TEAM = "delete from team_statistics where team_id = ?";
+
+  private static final String ADD_MEMBER =
+      "update team_statistics"
+          + " set member_count = member_count + 1,"
+          + " age_sum = age_sum + ?,"
+          + " age_min = case when age_min is null or age_min > ? then ? else age_min end,"
+          + " age_max = case when age_max is null or age_max < ? then ? else age_max end"
+          + " where team_id = ?";
+
+  private static final String REMOVE_MEMBER =
+      "update team_statistics"
+          + " set member_count = member_count - 1,"
+          + " age_sum = age_sum - ?"
+          + " where team_id = ?";
+
+  private static final String RECALCULATE_MIN_MAX =
+      "update team_statistics"
+          + " set age_min = (select min(m.age) from member m where m.team_id = ?),"
+          + " age_max = (select max(m.age) from member m where m.team_id = ?)"
+          + " where team_id = ? and (age_min = ? or age_max = ?)";
+
+  private final transient EntityManagerFactory emf;
+
+  public TeamStatisticsListener(EntityManagerFactory emf) {
+    this.emf = emf;
+  }
+
+  @PostConstruct
+  public void register() {
+    EventListenerRegistry registry = HibernateSupport.listenerRegistry(emf);
+
+    registry.appendListeners(EventType.POST_INSERT, this);
+    registry.appendListeners(EventType.POST_UPDATE, this);
+    registry.appendListeners(EventType.POST_DELETE, this);
+  }
+
+  @Override
+  public void onPostInsert(PostInsertEvent event) {
+    Object entity = event.getEntity();
+
+    if (entity instanceof Team) {
+      execute(event.getSession(), INSERT_TEAM, event.getId());
+    } else if (entity instanceof Member) {
+      Member member = (Member) entity;
+      add(event.getSession(), HibernateSupport.teamIdOf(member.getTeam()), member.getAge());
+    }
+  }
+
+  @Override
+  public void onPostUpdate(PostUpdateEvent event) {
+    if (!(event.getEntity() instanceof Member)) {
+      return;
+    }
+
+    Object[] oldState = event.getOldState();
+
+    if (oldState == null) {
+      log.warn("member updated without loaded state, team statistics may drift. id={}", event.getId());
+      return;
+    }
+
+    EntityPersister persister = event.getPersister();
+    int ageIndex = persister.getEntityMetamodel().getPropertyIndex("age");
+    int teamIndex = persister.getEntityMetamodel().getPropertyIndex("team");
+
+    int oldAge = (Integer) oldState[ageIndex];
+    int newAge = (Integer) event.getState()[ageIndex];
+    Long oldTeamId = HibernateSupport.teamIdOf((Team) oldState[teamIndex]);
+    Long newTeamId = HibernateSupport.teamIdOf((Team) event.getState()[teamIndex]);
+
+    if (oldAge == newAge && Objects.equals(oldTeamId, newTeamId)) {
+      return;
+    }
+
+    remove(event.getSession(), oldTeamId, oldAge);
+    add(event.getSession(), newTeamId, newAge);
+  }
+
+  @Override
+  public void onPostDelete(PostDeleteEvent event) {
+    Object entity = event.getEntity();
+
+    if (entity instanceof Team) {
+      execute(event.getSession(), DELETE_TEAM, event.getId());
+    } else if (entity instanceof Member) {
+      EntityPersister persister = event.getPersister();
+      int ageIndex = persister.getEntityMetamodel().getPropertyIndex("age");
+      int teamIndex = persister.getEntityMetamodel().getPropertyIndex("team");
+
+      Object[] deletedState = event.getDeletedState();
+
+      remove(
+          event.getSession(),
+          HibernateSupport.teamIdOf((Team) deletedState[teamIndex]),
+          (Integer) deletedState[ageIndex]);
+    }
+  }
+
+  @Override
+  public boolean requiresPostCommitHanding(EntityPersister persister) {
+    return false;
+  }
+
+  private void add(EventSource session, Long teamId, int age) {
+    if (teamId != null) {
+      execute(session, ADD_MEMBER, age, age, age, age, age, teamId);
+    }
+  }
+
+  private void remove(EventSource session, Long teamId, int age) {
+    if (teamId != null) {
+      execute(session, REMOVE_MEMBER, age, teamId);
+      execute(session, RECALCULATE_MIN_MAX, teamId, teamId, teamId, age, age);
+    }
+  }
+
+  private void execute(EventSource session, String sql, Object... parameters) {
+    HibernateSupport.executeUpdate(session, sql, parameters);
+  }
+}
@@ -0,0 +1,164 @@
+package study.querydsl.repository.statistics;
+
+import com.querydsl.core.Tuple;
+import com.querydsl.core.types.dsl.Expressions;
+import com.querydsl.core.types.dsl.NumberExpression;
+import com.querydsl.jpa.impl.JPAQueryFactory;
+import org.springframework.stereotype.Repository;
+import org.springframework.transaction.annotation.Transactional;
+import study.querydsl.dto.QTeamStatisticsDto;
+import study.querydsl.dto.TeamStatisticsDto;
+
+import javax.persistence.EntityManager;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+import static study.querydsl.entity.QMember.member;
+import static study.querydsl.entity.QTeam.team;
+import static study.querydsl.entity.QTeamStatistics.teamStatistics;
+
+@Repository
+public class TeamStatisticsRepository {
+
+  private static final String DELETE_ALL = "delete from team_statistics";
+
+  private static final String INSERT_ALL =
+      "insert into team_statistics (team_id, member_count, age_sum, age_min, age_max)"
+          + " select t.team_id, count(m.member_id), coalesce(sum(m.age), 0), min(m.age), max(m.age)"
+          + " from team t left join member m on m.team_id = t.team_id"
+          + " group by t.team_id";
+
+  private static final String DELETE_TEAMS = "delete from team_statistics where team_id in (:ids)";
+
+  private static final String INSERT_TEAMS =
+      "insert into team_statistics (team_id, member_count, age_sum, age_min, age_max)"
+          + " select t.team_id, count(m.member_id), coalesce(sum(m.age), 0), min(m.age), max(m.age)"
+          + " from team t left join member m on m.team_id = t.team_id"
+          + " where t.team_id in (:ids)"
+          + " group by t.team_id";
+
+  private static final int IN_SIZE = 1000;
+
+  private final EntityManager em;
+  private final JPAQueryFactory queryFactory;
+
+  public TeamStatisticsRepository(EntityManager em) {
+    this.em = em;
+    this.queryFactory = new JPAQueryFactory(em);
+  }
+
+  /** team 수 만큼만 읽는다. */
+  @Transactional(readOnly = true)
+  public List<TeamStatisticsDto> findAll() {
+    return queryFactory
+        .select(
+            new QTeamStatisticsDto(
+                team.id,
+                team.name,
+                teamStatistics.memberCount,
+                teamStatistics.ageSum,
+                teamStatistics.ageMin,
+                teamStatistics.ageMax))
+        .from(teamStatistics)
+        .join(team)
+        .on(team.id.eq(teamStatistics.teamId))
+        .orderBy(team.id.asc())
+        .fetch();
+  }
+
+  /** member 전체를 다시 집계해서 통계를 새로 만든다. */
+  @Transactional
+  public int rebuild() {
+    em.flush();
+    em.createNativeQuery(DELETE_ALL).executeUpdate();
+    return em.createNativeQuery(INSERT_ALL).executeUpdate();
+  }
+
+  /**
+   * 주어진 team 만 다시 집계한다.
+   *
+   * @return 다시 만든 team 수
+   */
+  @Transactional
+  public int refresh(Collection<Long> teamIds) {
+    em.flush();
+
+    List<Long> ids = new ArrayList<>(teamIds);
+    int teams = 0;
+
+    for (int from = 0; from < ids.size(); from += IN_SIZE) {
+      List<Long> chunk = ids.subList(from, Math.min(from + IN_SIZE, ids.size()));
+
+      em.createNativeQuery(DELETE_TEAMS).setParameter("ids", chunk).executeUpdate();
+      teams += em.createNativeQuery(INSERT_TEAMS).setParameter("ids", chunk).executeUpdate();
+    }
+
+    return teams;
+  }
+
+  /**
+   * member 를 다시 집계한 결과와 저장된 통계를 비교한다.
+   *
+   * @return 통계가 맞지 않는 team id
+   */
+  @Transactional(readOnly = true)
+  public List<Long> verify() {
+    NumberExpression<Long> ageSum =
+        Expressions.numberTemplate(Long.class, "coalesce(sum({0}), 0)", member.age);
+
+    List<Tuple> actual =
+        queryFactory
+            .select(team.id, member.count(), ageSum, member.age.min(), member.age.max())
+            .from(team)
+            .leftJoin(team.members, member)
+            .groupBy(team.id)
+            .fetch();
+
+    // entity 로 읽으면 rebuild 이전에 영속성 컨텍스트에 올라온 값을 다시 볼 수 있기 때문에 값으로만 읽는다.
+    Map<Long, Tuple> stored = new HashMap<>();
+    for (Tuple tuple :
+        queryFactory
+            .select(
+                teamStatistics.teamId,
+                teamStatistics.memberCount,
+                teamStatistics.ageSum,
+                teamStatistics.ageMin,
+                teamStatistics.ageMax)
+            .from(teamStatistics)
+            .fetch()) {
+      stored.put(tuple.get(teamStatistics.teamId), tuple);
+    }
+
+    List<Long> drifted = new ArrayList<>();
+
+    for (Tuple tuple : actual) {
+      Long teamId = tuple.get(team.id);
+      Tuple statistics = stored.remove(teamId);
+
+      if (statistics == null
+          || !same(statistics.get(teamStatistics.memberCount), tuple.get(member.count()))
+          || !same(statistics.get(teamStatistics.ageSum), tuple.get(ageSum))
+          || !same(statistics.get(teamStatistics.ageMin), tuple.get(member.age.min()))
+          || !same(statistics.get(teamStatistics.ageMax), tuple.get(member.age.max()))) {
+        drifted.add(teamId);
+      }
+    }
+
+    // team 은 없는데 통계만 남아있는 경우
+    drifted.addAll(stored.keySet());
+
+    return drifted;
+  }
+
+  /** 집계 함수의 결과 type 이 DB 마다 다를 수 있기 때문에 값으로 비교한다. */
+  private static boolean same(Object stored, Object actual) {
+    if (stored == null || actual == null) {
+      return stored == actual;
+    }
+
+    return ((Number) stored).longValue() == ((Number) actual).longValue();
+  }
+}
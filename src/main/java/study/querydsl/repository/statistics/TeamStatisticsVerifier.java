@@ -0,0 +1,76 @@
+package study.querydsl.repository.statistics;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.core.Ordered;
+import org.springframework.core.annotation.Order;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.TransactionDefinition;
+import org.springframework.transaction.event.TransactionalEventListener;
+import org.springframework.transaction.support.TransactionTemplate;
+import study.querydsl.repository.support.MembersBulkChangedEvent;
+
+import java.util.List;
+
+/** 주기적으로 team 통계를 검증하고, 어긋나 있거나 JDBC 로 한번에 바뀌었으면 다시 만든다. */
+@Component
+public class TeamStatisticsVerifier {
+
+  private static final Logger log = LoggerFactory.getLogger(TeamStatisticsVerifier.class);
+
+  private final TeamStatisticsRepository teamStatisticsRepository;
+  private final boolean rebuildOnDrift;
+  private final TransactionTemplate requiresNew;
+
+  public TeamStatisticsVerifier(
+      TeamStatisticsRepository teamStatisticsRepository,
+      PlatformTransactionManager transactionManager,
+      @Value("${team.statistics.rebuild-on-drift:true}") boolean rebuildOnDrift) {
+    this.teamStatisticsRepository = teamStatisticsRepository;
+    this.rebuildOnDrift = rebuildOnDrift;
+    this.requiresNew = new TransactionTemplate(transactionManager);
+    this.requiresNew.setPropagationBehavior(TransactionDefinition.PROPAGATION_REQUIRES_NEW);
+  }
+
+  @Scheduled(cron = "${team.statistics.verify-cron:-}")
+  public void verify() {
+    List<Long> drifted = teamStatisticsRepository.verify();
+
+    if (drifted.isEmpty()) {
+      log.debug("team statistics verified.");
+      return;
+    }
+
+    log.warn("team statistics drifted. teamIds={}", drifted);
+
+    if (rebuildOnDrift) {
+      int teams = teamStatisticsRepository.rebuild();
+      log.info("team statistics rebuilt. teams={}", teams);
+    }
+  }
+
+  /**
+   * JDBC 로 한번에 바뀐 건 entity event 가 없기 때문에 통계를 다시 만든다.
+   *
+   * <pre>
+   *     - 바뀐 team id 를 알면 그 team 만, 모르면 전체를 다시 집계한다.
+   *     - commit 이후에 불리기 때문에 새 transaction 에서 실행한다.
+   * </pre>
+   */
+  @Order(Ordered.HIGHEST_PRECEDENCE) // MemberDataVersion 보다 먼저 다시 만든다.
+  @TransactionalEventListener(fallbackExecution = true)
+  public void onBulkChanged(MembersBulkChangedEvent event) {
+    if (event.getTeamIds() != null) {
+      Integer teams =
+          requiresNew.execute(status -> teamStatisticsRepository.refresh(event.getTeamIds()));
+      log.debug("team statistics refreshed. teams={}, {}", teams, event);
+      return;
+    }
+
+    Integer teams = requiresNew.execute(status -> teamStatisticsRepository.rebuild());
+    log.info("team statistics rebuilt. teams={}, {}", teams, event);
+  }
+}
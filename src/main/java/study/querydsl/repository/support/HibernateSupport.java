@@ -0,0 +1,60 @@
+package study.querydsl.repository.support;
+
+import org.hibernate.Session;
+import org.hibernate.engine.spi.SessionFactoryImplementor;
+import org.hibernate.event.service.spi.EventListenerRegistry;
+import org.hibernate.proxy.HibernateProxy;
+import study.querydsl.entity.Team;
+
+import javax.persistence.EntityManagerFactory;
+import java.sql.PreparedStatement;
+
+/** Hibernate 내부 API 를 쓰는 부분을 모아둔다. */
+public final class HibernateSupport {
+
+  private HibernateSupport() {}
+
+  /** entity event listener 를 등록할 수 있는 registry */
+  public static EventListenerRegistry listenerRegistry(EntityManagerFactory emf) {
+    return emf.unwrap(SessionFactoryImplementor.class)
+        .getServiceRegistry()
+        .getService(EventListenerRegistry.class);
+  }
+
+  /** lazy proxy 라도 초기화하지 않고 team id 를 꺼낸다. */
+  public static Long teamIdOf(Team team) {
+    if (team == null) {
+      return null;
+    }
+
+    if (team instanceof HibernateProxy) {
+      return (Long) ((HibernateProxy) team).getHibernateLazyInitializer().getIdentifier();
+    }
+
+    return team.getId();
+  }
+
+  /**
+   * session 의 connection 으로 SQL 을 바로 실행한다.
+   *
+   * <pre>
+   *     - entity event listener 안에서 다른 table 을 갱신할 때 쓴다.
+   *     - flush 도중이라도 entity 를 만들지 않기 때문에 영속성 컨텍스트에 영향이 없다.
+   *     - Hibernate 가 flush 해주지 않기 때문에, 필요하면 먼저 flush 해야 한다.
+   * </pre>
+   *
+   * @return 바뀐 row 수
+   */
+  public static int executeUpdate(Session session, String sql, Object... parameters) {
+    return session.doReturningWork(
+        connection -> {
+          try (PreparedStatement statement = connection.prepareStatement(sql)) {
+            for (int i = 0; i < parameters.length; i++) {
+              statement.setObject(i + 1, parameters[i]);
+            }
+
+            return statement.executeUpdate();
+          }
+        });
+  }
+}
@@ -0,0 +1,103 @@
+package study.querydsl.repository.support;
+
+import org.hibernate.event.service.spi.EventListenerRegistry;
+import org.hibernate.event.spi.EventType;
+import org.hibernate.event.spi.PostCommitDeleteEventListener;
+import org.hibernate.event.spi.PostCommitInsertEventListener;
+import org.hibernate.event.spi.PostCommitUpdateEventListener;
+import org.hibernate.event.spi.PostDeleteEvent;
+import org.hibernate.event.spi.PostInsertEvent;
+import org.hibernate.event.spi.PostUpdateEvent;
+import org.hibernate.persister.entity.EntityPersister;
+import org.springframework.core.Ordered;
+import org.springframework.core.annotation.Order;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.event.TransactionalEventListener;
+import study.querydsl.entity.Member;
+import study.querydsl.entity.Team;
+import study.querydsl.repository.index.MemberSearchIndex;
+
+import javax.annotation.PostConstruct;
+import javax.persistence.EntityManagerFactory;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Member / Team 이 바뀔 때마다 올라가는 번호
+ *
+ * <pre>
+ *     - commit 된 entity 변경과 MembersBulkChangedEvent 로 올린다.
+ *     - 번호가 같으면 검색 결과도 같다고 보고, response cache / ETag 에 쓴다.
+ *     - index 등이 갱신된 후에 올라가야 하기 때문에, listener 를 가장 나중에 등록한다.
+ *       - MemberSearchIndex 를 주입받는 건 그쪽 listener 가 먼저 등록되게 하기 위해서이다.
+ *     - 기동할 때마다 0 부터 시작하기 때문에, 밖으로 내보낼 때는 getEpoch() 와 같이 쓴다.
+ * </pre>
+ */
+@Component
+public class MemberDataVersion
+    implements PostCommitInsertEventListener,
+        PostCommitUpdateEventListener,
+        PostCommitDeleteEventListener {
+
+  private final transient EntityManagerFactory emf;
+  private final AtomicLong version = new AtomicLong();
+  private final long epoch = System.currentTimeMillis();
+
+  public MemberDataVersion(EntityManagerFactory emf, MemberSearchIndex searchIndex) {
+    this.emf = emf;
+  }
+
+  @PostConstruct
+  public void register() {
+    EventListenerRegistry registry = HibernateSupport.listenerRegistry(emf);
+
+    registry.appendListeners(EventType.POST_COMMIT_INSERT, this);
+    registry.appendListeners(EventType.POST_COMMIT_UPDATE, this);
+    registry.appendListeners(EventType.POST_COMMIT_DELETE, this);
+  }
+
+  public long current() {
+    return version.get();
+  }
+
+  public long getEpoch() {
+    return epoch;
+  }
+
+  /** 다시 만드는 listener 들이 끝난 후에 올린다. */
+  @Order(Ordered.LOWEST_PRECEDENCE)
+  @TransactionalEventListener(fallbackExecution = true)
+  public void onBulkChanged(MembersBulkChangedEvent event) {
+    version.incrementAndGet();
+  }
+
+  @Override
+  public void onPostInsert(PostInsertEvent event) {
+    version.incrementAndGet();
+  }
+
+  @Override
+  public void onPostUpdate(PostUpdateEvent event) {
+    version.incrementAndGet();
+  }
+
+  @Override
+  public void onPostDelete(PostDeleteEvent event) {
+    version.incrementAndGet();
+  }
+
+  // rollback 된 변경은 검색 결과를 바꾸지 않는다.
+  @Override
+  public void onPostInsertCommitFailed(PostInsertEvent event) {}
+
+  @Override
+  public void onPostUpdateCommitFailed(PostUpdateEvent event) {}
+
+  @Override
+  public void onPostDeleteCommitFailed(PostDeleteEvent event) {}
+
+  @Override
+  public boolean requiresPostCommitHanding(EntityPersister persister) {
+    Class<?> mappedClass = persister.getMappedClass();
+    return Member.class.equals(mappedClass) || Team.class.equals(mappedClass);
+  }
+}
@@ -0,0 +1,323 @@
+package study.querydsl.repository.support;
+
+import com.querydsl.core.Tuple;
+import com.querydsl.core.types.Predicate;
+import com.querydsl.jpa.impl.JPAQueryFactory;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.hibernate.event.service.spi.EventListenerRegistry;
+import org.hibernate.event.spi.EventType;
+import org.hibernate.event.spi.PostCommitDeleteEventListener;
+import org.hibernate.event.spi.PostCommitInsertEventListener;
+import org.hibernate.event.spi.PostCommitUpdateEventListener;
+import org.hibernate.event.spi.PostDeleteEvent;
+import org.hibernate.event.spi.PostInsertEvent;
+import org.hibernate.event.spi.PostUpdateEvent;
+import org.hibernate.persister.entity.EntityPersister;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.event.TransactionalEventListener;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+import study.querydsl.entity.Member;
+import study.querydsl.entity.Team;
+
+import javax.annotation.PostConstruct;
+import javax.persistence.EntityManager;
+import javax.persistence.EntityManagerFactory;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.Optional;
+import java.util.function.Supplier;
+
+import static study.querydsl.entity.QMember.member;
+import static study.querydsl.entity.QTeam.team;
+
+/**
+ * Member 를 id / username 으로 찾을 때 쓰는 in-process cache
+ *
+ * <pre>
+ *     - transaction 밖에서 부를 때만 쓴다.
+ *       - transaction 안에서는 영속성 컨텍스트 / DB 를 그대로 본다. (자기가 쓴 값을 바로 읽고, 같은 id 는 같은 객체)
+ *       - transaction 밖에서 찾은 Member 는 원래도 detached 이기 때문에, cache 값으로 만든 detached 복사본을 준다.
+ *         - 복사본의 team 은 id / name 만 채운 Team 이다.
+ *     - id key 와 username key 를 합쳐서 최대 member.near-cache.max-entries 개, 가장 오래 안 쓴 것부터 버린다. (LRU)
+ *       - 없는 id / username 도 빈 결과로 cache 한다.
+ *     - 무효화
+ *       - commit 된 Member 추가 / 변경 / 삭제 : 그 member 의 id 와 username (바뀌기 전 / 후) key 를 지운다.
+ *       - commit 된 Team 변경 / 삭제 : 그 team 의 member key 를 지운다.
+ *       - MembersBulkChangedEvent : 전부 지운다.
+ *       - 지울 때마다 version 을 올리고, DB 에서 읽는 사이에 version 이 바뀌었으면 읽은 값은 넣지 않는다.
+ *     - member.near-cache.requests (lookup=id|username, result=hit|miss), member.near-cache.hit-ratio
+ * </pre>
+ */
+@Component
+public class MemberNearCache
+    implements PostCommitInsertEventListener,
+        PostCommitUpdateEventListener,
+        PostCommitDeleteEventListener {
+
+  private final transient EntityManagerFactory emf;
+  private final transient JPAQueryFactory queryFactory;
+  private final boolean enabled;
+
+  // key 는 id (Long) 또는 username (String)
+  private final transient Map<Object, List<Snapshot>> entries;
+  private long version;
+
+  private final transient Counter idHit;
+  private final transient Counter idMiss;
+  private final transient Counter usernameHit;
+  private final transient Counter usernameMiss;
+
+  public MemberNearCache(
+      EntityManagerFactory emf,
+      EntityManager em,
+      MeterRegistry meterRegistry,
+      @Value("${member.near-cache.enabled:true}") boolean enabled,
+      @Value("${member.near-cache.max-entries:10000}") int maxEntries) {
+    this.emf = emf;
+    this.queryFactory = new JPAQueryFactory(em);
+    this.enabled = enabled;
+
+    this.entries =
+        new LinkedHashMap<Object, List<Snapshot>>(16, 0.75f, true) {
+          @Override
+          protected boolean removeEldestEntry(Map.Entry<Object, List<Snapshot>> eldest) {
+            return size() > maxEntries;
+          }
+        };
+
+    this.idHit = requests(meterRegistry, "id", "hit");
+    this.idMiss = requests(meterRegistry, "id", "miss");
+    this.usernameHit = requests(meterRegistry, "username", "hit");
+    this.usernameMiss = requests(meterRegistry, "username", "miss");
+
+    Gauge.builder("member.near-cache.hit-ratio", this, MemberNearCache::hitRatio)
+        .register(meterRegistry);
+    Gauge.builder("member.near-cache.size", this, MemberNearCache::size).register(meterRegistry);
+  }
+
+  @PostConstruct
+  public void register() {
+    EventListenerRegistry registry = HibernateSupport.listenerRegistry(emf);
+
+    registry.appendListeners(EventType.POST_COMMIT_INSERT, this);
+    registry.appendListeners(EventType.POST_COMMIT_UPDATE, this);
+    registry.appendListeners(EventType.POST_COMMIT_DELETE, this);
+  }
+
+  /** @param direct cache 를 쓸 수 없을 때 (transaction 안 등) 의 원래 조회 */
+  public Optional<Member> findById(Long id, Supplier<Optional<Member>> direct) {
+    if (!usable() || id == null) {
+      return direct.get();
+    }
+
+    List<Snapshot> found = lookup(id, idHit, idMiss, member.id.eq(id));
+    return found.isEmpty() ? Optional.empty() : Optional.of(found.get(0).toMember());
+  }
+
+  /** @param direct cache 를 쓸 수 없을 때 (transaction 안 등) 의 원래 조회 */
+  public List<Member> findByUsername(String username, Supplier<List<Member>> direct) {
+    if (!usable() || username == null) {
+      return direct.get();
+    }
+
+    List<Snapshot> found =
+        lookup(username, usernameHit, usernameMiss, member.username.eq(username));
+
+    List<Member> result = new ArrayList<>(found.size());
+    for (Snapshot snapshot : found) {
+      result.add(snapshot.toMember());
+    }
+
+    return result;
+  }
+
+  public synchronized int size() {
+    return entries.size();
+  }
+
+  public double hitRatio() {
+    double hits = idHit.count() + usernameHit.count();
+    double total = hits + idMiss.count() + usernameMiss.count();
+
+    return total == 0 ? 0 : hits / total;
+  }
+
+  @TransactionalEventListener(fallbackExecution = true)
+  public void onBulkChanged(MembersBulkChangedEvent event) {
+    clear();
+  }
+
+  public synchronized void clear() {
+    version++;
+    entries.clear();
+  }
+
+  @Override
+  public void onPostInsert(PostInsertEvent event) {
+    if (event.getEntity() instanceof Member) {
+      Member inserted = (Member) event.getEntity();
+      invalidate(inserted.getId(), inserted.getUsername());
+    }
+  }
+
+  @Override
+  public void onPostUpdate(PostUpdateEvent event) {
+    if (event.getEntity() instanceof Team) {
+      invalidateTeam((Long) event.getId());
+      return;
+    }
+
+    Member updated = (Member) event.getEntity();
+    Object[] oldState = event.getOldState();
+
+    if (oldState == null) {
+      // 바뀌기 전 username 을 알 수 없다.
+      clear();
+      return;
+    }
+
+    int username = event.getPersister().getEntityMetamodel().getPropertyIndex("username");
+    invalidate(updated.getId(), updated.getUsername(), oldState[username]);
+  }
+
+  @Override
+  public void onPostDelete(PostDeleteEvent event) {
+    if (event.getEntity() instanceof Team) {
+      invalidateTeam((Long) event.getId());
+      return;
+    }
+
+    Member deleted = (Member) event.getEntity();
+    invalidate(deleted.getId(), deleted.getUsername());
+  }
+
+  // rollback 된 변경은 cache 에 들어간 적이 없다.
+  @Override
+  public void onPostInsertCommitFailed(PostInsertEvent event) {}
+
+  @Override
+  public void onPostUpdateCommitFailed(PostUpdateEvent event) {}
+
+  @Override
+  public void onPostDeleteCommitFailed(PostDeleteEvent event) {}
+
+  @Override
+  public boolean requiresPostCommitHanding(EntityPersister persister) {
+    Class<?> mappedClass = persister.getMappedClass();
+    return Member.class.equals(mappedClass) || Team.class.equals(mappedClass);
+  }
+
+  private boolean usable() {
+    return enabled && !TransactionSynchronizationManager.isActualTransactionActive();
+  }
+
+  private List<Snapshot> lookup(Object key, Counter hit, Counter miss, Predicate predicate) {
+    long loadedAt;
+
+    synchronized (this) {
+      List<Snapshot> cached = entries.get(key);
+
+      if (cached != null) {
+        hit.increment();
+        return cached;
+      }
+
+      loadedAt = version;
+    }
+
+    miss.increment();
+
+    List<Snapshot> loaded = load(predicate);
+
+    synchronized (this) {
+      if (version == loadedAt) {
+        entries.put(key, loaded);
+      }
+    }
+
+    return loaded;
+  }
+
+  private List<Snapshot> load(Predicate predicate) {
+    List<Tuple> rows =
+        queryFactory
+            .select(member.id, member.username, member.age, team.id, team.name)
+            .from(member)
+            .leftJoin(member.team, team)
+            .where(predicate)
+            .orderBy(member.id.asc())
+            .fetch();
+
+    List<Snapshot> snapshots = new ArrayList<>(rows.size());
+    for (Tuple row : rows) {
+      snapshots.add(
+          new Snapshot(
+              row.get(member.id),
+              row.get(member.username),
+              row.get(member.age),
+              row.get(team.id),
+              row.get(team.name)));
+    }
+
+    return Collections.unmodifiableList(snapshots);
+  }
+
+  private synchronized void invalidate(Object... keys) {
+    version++;
+
+    for (Object key : keys) {
+      entries.remove(key);
+    }
+  }
+
+  private synchronized void invalidateTeam(Long teamId) {
+    version++;
+
+    entries
+        .values()
+        .removeIf(
+            snapshots -> snapshots.stream().anyMatch(s -> Objects.equals(s.teamId, teamId)));
+  }
+
+  private static Counter requests(MeterRegistry meterRegistry, String lookup, String result) {
+    return meterRegistry.counter("member.near-cache.requests", "lookup", lookup, "result", result);
+  }
+
+  /** session 과 상관없는 Member 값 */
+  private static final class Snapshot {
+
+    private final Long id;
+    private final String username;
+    private final int age;
+    private final Long teamId;
+    private final String teamName;
+
+    private Snapshot(Long id, String username, Integer age, Long teamId, String teamName) {
+      this.id = id;
+      this.username = username;
+      this.age = age;
+      this.teamId = teamId;
+      this.teamName = teamName;
+    }
+
+    private Member toMember() {
+      Team copy = null;
+
+      if (teamId != null) {
+        copy = new Team(teamName);
+        copy.setId(teamId);
+      }
+
+      Member result = new Member(username, age, copy);
+      result.setId(id);
+      return result;
+    }
+  }
+}
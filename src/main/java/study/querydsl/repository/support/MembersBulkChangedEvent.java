@@ -0,0 +1,67 @@
+package study.querydsl.repository.support;
+
+import java.util.Collection;
+import java.util.Collections;
+
+/**
+ * entity event 없이 member / team 이 한번에 바뀌었음을 알린다. (JDBC bulk insert, bulk update 등)
+ *
+ * <pre>
+ *     - entity event 로 갱신되는 index, 통계, 검색 table 은 이 event 를 받으면 다시 만든다.
+ *     - 바뀐 member / team id 를 알면 같이 넘긴다. 받는 쪽은 전체 대신 그 id 만 다시 만들 수 있다.
+ *       - member id 는 새로 생기거나 바뀐 member, team id 는 member 가 빠지거나 들어온 team 이다.
+ *       - null 이면 무엇이 바뀌었는지 모르는 것이다. (전체를 다시 만들어야 한다.)
+ * </pre>
+ */
+public class MembersBulkChangedEvent {
+
+  private final String source;
+  private final long affectedRows;
+  private final Collection<Long> memberIds;
+  private final Collection<Long> teamIds;
+
+  public MembersBulkChangedEvent(String source, long affectedRows) {
+    this(source, affectedRows, null, null);
+  }
+
+  public MembersBulkChangedEvent(
+      String source, long affectedRows, Collection<Long> memberIds, Collection<Long> teamIds) {
+    this.source = source;
+    this.affectedRows = affectedRows;
+    this.memberIds = memberIds != null ? Collections.unmodifiableCollection(memberIds) : null;
+    this.teamIds = teamIds != null ? Collections.unmodifiableCollection(teamIds) : null;
+  }
+
+  public String getSource() {
+    return source;
+  }
+
+  public long getAffectedRows() {
+    return affectedRows;
+  }
+
+  /** @return null 이면 알 수 없음 */
+  public Collection<Long> getMemberIds() {
+    return memberIds;
+  }
+
+  /** @return null 이면 알 수 없음 */
+  public Collection<Long> getTeamIds() {
+    return teamIds;
+  }
+
+  @Override
+  public String toString() {
+    return "MembersBulkChangedEvent{"
+        + "source='"
+        + source
+        + '\''
+        + ", affectedRows="
+        + affectedRows
+        + ", memberIds="
+        + (memberIds != null ? memberIds.size() : "unknown")
+        + ", teamIds="
+        + (teamIds != null ? teamIds.size() : "unknown")
+        + '}';
+  }
+}
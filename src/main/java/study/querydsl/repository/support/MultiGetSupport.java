@@ -0,0 +1,122 @@
+package study.querydsl.repository.support;
+
+import org.hibernate.engine.spi.EntityKey;
+import org.hibernate.engine.spi.PersistenceContext;
+import org.hibernate.engine.spi.SessionImplementor;
+import org.hibernate.persister.entity.EntityPersister;
+
+import javax.persistence.EntityManager;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.function.Function;
+
+/**
+ * id 목록으로 여러 entity 를 한번에 조회하기 위한 지원 클래스
+ *
+ * <pre>
+ *     - 이미 영속성 컨텍스트에 있는 entity 는 query 없이 그대로 사용한다.
+ *     - 나머지 id 는 최대 {@link #MAX_IN_SIZE} 개씩 나누어 IN 절로 조회한다.
+ *     - IN 절의 파라미터 개수는 {@link #IN_SIZES} 중 하나로 맞춘다. (마지막 id 를 반복해서 채움)
+ *       - 파라미터 개수가 제각각이면 query plan cache 에 매번 다른 query 가 쌓이기 때문
+ *     - 결과는 요청한 id 순서대로 반환한다. (중복 id 는 한번만, 없는 id 는 제외)
+ * </pre>
+ */
+public final class MultiGetSupport {
+
+  static final int[] IN_SIZES = {8, 32, 128, 512};
+  static final int MAX_IN_SIZE = IN_SIZES[IN_SIZES.length - 1];
+
+  private MultiGetSupport() {}
+
+  public static <T> List<T> findAllByIds(
+      EntityManager em,
+      Class<T> domainClass,
+      Collection<Long> ids,
+      Function<List<Long>, List<T>> loader,
+      Function<T, Long> idExtractor) {
+
+    if (ids == null || ids.isEmpty()) {
+      return Collections.emptyList();
+    }
+
+    Set<Long> requested = new LinkedHashSet<>(ids);
+    requested.remove(null);
+
+    Map<Long, T> found = new HashMap<>(requested.size() * 2);
+    List<Long> missing = new ArrayList<>(requested.size());
+
+    // transaction 밖에서는 shared EntityManager 가 호출마다 새로 열리고 닫히기 때문에 볼 영속성 컨텍스트가 없다.
+    SessionImplementor session = em.unwrap(SessionImplementor.class);
+
+    if (session.isOpen()) {
+      PersistenceContext persistenceContext = session.getPersistenceContext();
+      EntityPersister persister =
+          session.getFactory().getMetamodel().entityPersister(domainClass);
+
+      for (Long id : requested) {
+        EntityKey key = session.generateEntityKey(id, persister);
+        Object managed = persistenceContext.getEntity(key);
+
+        if (managed != null) {
+          found.put(id, domainClass.cast(managed));
+        } else {
+          missing.add(id);
+        }
+      }
+    } else {
+      missing.addAll(requested);
+    }
+
+    for (int from = 0; from < missing.size(); from += MAX_IN_SIZE) {
+      List<Long> chunk = missing.subList(from, Math.min(from + MAX_IN_SIZE, missing.size()));
+
+      for (T entity : loader.apply(pad(chunk))) {
+        found.put(idExtractor.apply(entity), entity);
+      }
+    }
+
+    List<T> result = new ArrayList<>(found.size());
+    for (Long id : requested) {
+      T entity = found.get(id);
+      if (entity != null) {
+        result.add(entity);
+      }
+    }
+
+    return result;
+  }
+
+  static List<Long> pad(List<Long> chunk) {
+    int size = paddedSize(chunk.size());
+
+    if (size == chunk.size()) {
+      return chunk;
+    }
+
+    List<Long> padded = new ArrayList<>(size);
+    padded.addAll(chunk);
+
+    Long last = chunk.get(chunk.size() - 1);
+    while (padded.size() < size) {
+      padded.add(last);
+    }
+
+    return padded;
+  }
+
+  static int paddedSize(int size) {
+    for (int inSize : IN_SIZES) {
+      if (size <= inSize) {
+        return inSize;
+      }
+    }
+
+    return MAX_IN_SIZE;
+  }
+}
@@ -0,0 +1,78 @@
+package study.querydsl.repository.support;
+
+import com.querydsl.jpa.impl.AbstractJPAQuery;
+import com.querydsl.sql.AbstractSQLQuery;
+import com.querydsl.sql.StatementOptions;
+import org.hibernate.annotations.QueryHints;
+
+import javax.persistence.QueryTimeoutException;
+import java.time.Duration;
+import java.util.concurrent.Callable;
+
+/**
+ * 요청 하나에 주어진 시간 안에서 query 를 실행한다.
+ *
+ * <pre>
+ *     - call() 안에서 실행되는 query 에 apply() 를 하면, 남은 시간이 JDBC query timeout 으로 들어간다.
+ *       - content query 와 count query 가 시간을 나눠 쓴다.
+ *     - JDBC query timeout 은 초 단위라서 남은 시간을 올림한다. (최소 1초)
+ *     - 이미 시간이 지났으면 query 를 실행하지 않고 QueryTimeoutException 을 던진다.
+ *     - call() 밖에서는 아무것도 하지 않는다.
+ *     - JPA query 와 querydsl-sql query 둘 다 쓸 수 있다.
+ * </pre>
+ */
+public final class QueryDeadline {
+
+  private static final ThreadLocal<Long> DEADLINE = new ThreadLocal<>();
+
+  private QueryDeadline() {}
+
+  public static <T> T call(Duration timeout, Callable<T> callable) throws Exception {
+    Long previous = DEADLINE.get();
+    DEADLINE.set(System.nanoTime() + timeout.toNanos());
+
+    try {
+      return callable.call();
+    } finally {
+      if (previous != null) {
+        DEADLINE.set(previous);
+      } else {
+        DEADLINE.remove();
+      }
+    }
+  }
+
+  public static <Q extends AbstractJPAQuery<?, Q>> Q apply(Q query) {
+    Integer seconds = remainingSeconds();
+
+    return seconds != null ? query.setHint(QueryHints.TIMEOUT_HIBERNATE, seconds) : query;
+  }
+
+  /** querydsl-sql query 는 hint 대신 statement option 으로 넣는다. */
+  public static <Q extends AbstractSQLQuery<?, Q>> Q apply(Q query) {
+    Integer seconds = remainingSeconds();
+
+    if (seconds != null) {
+      query.setStatementOptions(StatementOptions.builder().setQueryTimeout(seconds).build());
+    }
+
+    return query;
+  }
+
+  /** @return deadline 이 없으면 null */
+  static Integer remainingSeconds() {
+    Long deadline = DEADLINE.get();
+
+    if (deadline == null) {
+      return null;
+    }
+
+    long remaining = deadline - System.nanoTime();
+
+    if (remaining <= 0) {
+      throw new QueryTimeoutException("query deadline exceeded");
+    }
+
+    return (int) Math.max(1, (remaining + 999_999_999L) / 1_000_000_000L);
+  }
+}
@@ -0,0 +1,54 @@
+package study.querydsl.repository.support;
+
+import io.micrometer.core.instrument.MeterRegistry;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import java.util.List;
+import java.util.function.IntFunction;
+
+/**
+ * paging 없는 검색이 table 전체를 읽지 않도록 결과 개수를 제한한다.
+ *
+ * <pre>
+ *     - query 에 limit + 1 을 걸어서 조회하고, limit 보다 많으면 잘라서 TruncatedList 로 돌려준다.
+ *     - 잘릴 때마다 member.search.truncated counter (source) 를 올린다.
+ * </pre>
+ */
+@Component
+public class ResultSizeGuard {
+
+  private static final Logger log = LoggerFactory.getLogger(ResultSizeGuard.class);
+
+  private final int maxResults;
+  private final MeterRegistry meterRegistry;
+
+  public ResultSizeGuard(
+      @Value("${member.search.max-results:1000}") int maxResults, MeterRegistry meterRegistry) {
+    this.maxResults = maxResults;
+    this.meterRegistry = meterRegistry;
+  }
+
+  /**
+   * @param source counter / log 에 남길 이름
+   * @param fetcher 최대 몇 개를 읽을지 받아서 조회한다.
+   */
+  public <T> List<T> fetch(String source, IntFunction<List<T>> fetcher) {
+    List<T> result = fetcher.apply(maxResults + 1);
+
+    if (result.size() <= maxResults) {
+      return result;
+    }
+
+    meterRegistry.counter("member.search.truncated", "source", source).increment();
+    log.warn("search result truncated. source={}, limit={}", source, maxResults);
+
+    return new TruncatedList<>(result.subList(0, maxResults), maxResults);
+  }
+
+  public int getMaxResults() {
+    return maxResults;
+  }
+}
@@ -0,0 +1,83 @@
+package study.querydsl.repository.support;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.sql.SQLException;
+import java.sql.Statement;
+import java.util.Set;
+import java.util.concurrent.Callable;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * Hibernate 를 거치지 않는 JDBC statement 를 다른 thread 에서 취소하기 위해 잡아둔다.
+ *
+ * <pre>
+ *     - Session.cancelQuery() 는 Hibernate 가 만든 statement 만 취소한다. (querydsl-sql 은 따로 취소해야 한다.)
+ *     - track() 안에서 실행되는 동안 prepared() / closed() 로 알려준 statement 를 들고 있는다.
+ *     - cancel() 후에 준비된 statement 는 바로 취소한다.
+ *     - track() 밖에서는 아무것도 하지 않는다.
+ * </pre>
+ */
+public final class RunningStatements {
+
+  private static final Logger log = LoggerFactory.getLogger(RunningStatements.class);
+
+  private static final ThreadLocal<RunningStatements> CURRENT = new ThreadLocal<>();
+
+  private final Set<Statement> statements = ConcurrentHashMap.newKeySet();
+  private volatile boolean cancelled;
+
+  public <T> T track(Callable<T> callable) throws Exception {
+    RunningStatements previous = CURRENT.get();
+    CURRENT.set(this);
+
+    try {
+      return callable.call();
+    } finally {
+      if (previous != null) {
+        CURRENT.set(previous);
+      } else {
+        CURRENT.remove();
+      }
+    }
+  }
+
+  public static void prepared(Statement statement) {
+    RunningStatements running = CURRENT.get();
+
+    if (running == null || statement == null) {
+      return;
+    }
+
+    running.statements.add(statement);
+
+    if (running.cancelled) {
+      cancelQuietly(statement);
+    }
+  }
+
+  public static void closed(Statement statement) {
+    RunningStatements running = CURRENT.get();
+
+    if (running != null && statement != null) {
+      running.statements.remove(statement);
+    }
+  }
+
+  public void cancel() {
+    cancelled = true;
+
+    for (Statement statement : statements) {
+      cancelQuietly(statement);
+    }
+  }
+
+  private static void cancelQuietly(Statement statement) {
+    try {
+      statement.cancel();
+    } catch (SQLException | RuntimeException e) {
+      log.debug("could not cancel statement.", e);
+    }
+  }
+}
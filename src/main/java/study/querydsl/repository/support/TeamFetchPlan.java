@@ -0,0 +1,72 @@
+package study.querydsl.repository.support;
+
+import com.querydsl.jpa.impl.JPAQuery;
+import com.querydsl.jpa.impl.JPAQueryFactory;
+import org.hibernate.Hibernate;
+import org.hibernate.proxy.HibernateProxy;
+import study.querydsl.entity.Member;
+import study.querydsl.entity.Team;
+
+import javax.persistence.EntityManager;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Set;
+
+import static study.querydsl.entity.QMember.member;
+import static study.querydsl.entity.QTeam.team;
+
+/**
+ * Member entity 를 조회할 때 team 을 어떻게 가져올지 정한다.
+ *
+ * <pre>
+ *     - NONE : team 은 lazy proxy 로 남는다. team 접근 시 team 마다 select 가 한번씩 나간다.
+ *     - FETCH_JOIN : fetch join 으로 member 와 team 을 한번에 조회한다.
+ *       - ManyToOne 이라 row 가 늘어나지 않기 때문에 offset / limit 이 그대로 DB 에서 적용된다.
+ *       - 단, count query 에는 fetch join 을 쓰면 안된다.
+ *     - BATCH : member 를 조회한 후, 필요한 team 을 IN 절로 한번에 조회한다.
+ * </pre>
+ */
+public enum TeamFetchPlan {
+  NONE,
+  FETCH_JOIN,
+  BATCH;
+
+  public JPAQuery<Member> joinTeam(JPAQuery<Member> query) {
+    query.leftJoin(member.team, team);
+
+    if (this == FETCH_JOIN) {
+      query.fetchJoin();
+    }
+
+    return query;
+  }
+
+  public List<Member> loadTeams(EntityManager em, List<Member> members) {
+    if (this != BATCH) {
+      return members;
+    }
+
+    Set<Long> teamIds = new LinkedHashSet<>();
+
+    for (Member m : members) {
+      Team t = m.getTeam();
+
+      if (t instanceof HibernateProxy && !Hibernate.isInitialized(t)) {
+        teamIds.add((Long) ((HibernateProxy) t).getHibernateLazyInitializer().getIdentifier());
+      }
+    }
+
+    if (!teamIds.isEmpty()) {
+      // 같은 영속성 컨텍스트에 team 이 올라오면, member 가 들고 있는 proxy 는 query 없이 초기화된다.
+      JPAQueryFactory queryFactory = new JPAQueryFactory(em);
+      MultiGetSupport.findAllByIds(
+          em,
+          Team.class,
+          teamIds,
+          chunk -> queryFactory.selectFrom(team).where(team.id.in(chunk)).fetch(),
+          Team::getId);
+    }
+
+    return members;
+  }
+}
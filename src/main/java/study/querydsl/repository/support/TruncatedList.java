@@ -0,0 +1,25 @@
+package study.querydsl.repository.support;
+
+import java.util.ArrayList;
+import java.util.Collection;
+
+/**
+ * 최대 개수를 넘어서 잘린 검색 결과
+ *
+ * <pre>
+ *     - List 로 그대로 쓸 수 있고, 잘렸는지는 instanceof 로 확인한다.
+ * </pre>
+ */
+public class TruncatedList<E> extends ArrayList<E> {
+
+  private final int limit;
+
+  public TruncatedList(Collection<? extends E> content, int limit) {
+    super(content);
+    this.limit = limit;
+  }
+
+  public int getLimit() {
+    return limit;
+  }
+}
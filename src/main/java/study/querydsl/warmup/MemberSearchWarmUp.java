@@ -0,0 +1,190 @@
+package study.querydsl.warmup;
+
+import com.zaxxer.hikari.HikariDataSource;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.ApplicationArguments;
+import org.springframework.boot.ApplicationRunner;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.data.domain.Pageable;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+import study.querydsl.dto.MemberSearchCondition;
+import study.querydsl.repository.MemberJpaRepository;
+import study.querydsl.repository.MemberRepository;
+
+import javax.sql.DataSource;
+import java.sql.Connection;
+import java.sql.SQLException;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+
+/**
+ * 배포 직후 첫 요청들이 느린 것을 막기 위해, readiness 전에 member 검색을 미리 실행해 둔다.
+ *
+ * <pre>
+ *     - ApplicationRunner 가 끝나야 readiness 가 ACCEPTING_TRAFFIC 으로 바뀐다.
+ *       - 그래서 warm-up 이 끝나거나 time-budget 이 지날 때까지 traffic 을 받지 않는다.
+ *     - MemberSearchCondition 의 조건 조합 16 가지 x (v1 목록, v2 / v3 paging 여러 모양) 을 반복 실행한다.
+ *       - JIT compile, Hibernate query plan cache, PreparedStatement 를 미리 채우는 목적이다.
+ *       - 값은 아무거나 써도 된다. 결과가 아니라 실행 경로가 중요하다.
+ *     - connection pool 은 minimumIdle 개를 한번에 빌렸다가 돌려줘서 미리 채운다.
+ * </pre>
+ */
+@Component
+public class MemberSearchWarmUp implements ApplicationRunner {
+
+  private static final Logger log = LoggerFactory.getLogger(MemberSearchWarmUp.class);
+
+  private static final List<Pageable> PAGEABLES =
+      Arrays.asList(PageRequest.of(0, 20), PageRequest.of(1, 20), PageRequest.of(0, 5));
+
+  private final MemberJpaRepository memberJpaRepository;
+  private final MemberRepository memberRepository;
+  private final TransactionTemplate readOnly;
+  private final DataSource dataSource;
+
+  private final boolean enabled;
+  private final int iterations;
+  private final Duration timeBudget;
+
+  public MemberSearchWarmUp(
+      MemberJpaRepository memberJpaRepository,
+      MemberRepository memberRepository,
+      PlatformTransactionManager transactionManager,
+      DataSource dataSource,
+      @Value("${member.warmup.enabled:true}") boolean enabled,
+      @Value("${member.warmup.iterations:200}") int iterations,
+      @Value("${member.warmup.time-budget:15s}") Duration timeBudget) {
+    this.memberJpaRepository = memberJpaRepository;
+    this.memberRepository = memberRepository;
+    this.readOnly = new TransactionTemplate(transactionManager);
+    this.readOnly.setReadOnly(true);
+    this.dataSource = dataSource;
+    this.enabled = enabled;
+    this.iterations = iterations;
+    this.timeBudget = timeBudget;
+  }
+
+  @Override
+  public void run(ApplicationArguments args) {
+    if (!enabled) {
+      return;
+    }
+
+    long start = System.nanoTime();
+    long deadline = start + timeBudget.toNanos();
+
+    int connections = fillPool();
+
+    List<MemberSearchCondition> conditions = conditions();
+    long firstRoundNanos = 0;
+    long lastRoundNanos = 0;
+    int rounds = 0;
+
+    try {
+      while (rounds < iterations && System.nanoTime() < deadline) {
+        long roundStart = System.nanoTime();
+
+        for (MemberSearchCondition condition : conditions) {
+          readOnly.executeWithoutResult(status -> search(condition));
+        }
+
+        lastRoundNanos = System.nanoTime() - roundStart;
+        if (rounds == 0) {
+          firstRoundNanos = lastRoundNanos;
+        }
+
+        rounds++;
+      }
+    } catch (RuntimeException e) {
+      // warm-up 이 실패했다고 해서 기동을 막지는 않는다.
+      log.warn("member search warm-up failed. rounds={}", rounds, e);
+    }
+
+    log.info(
+        "member search warm-up finished. rounds={}/{}, elapsed={}ms, budgetExceeded={}, pooledConnections={}, firstRound={}us, lastRound={}us",
+        rounds,
+        iterations,
+        (System.nanoTime() - start) / 1_000_000,
+        rounds < iterations,
+        connections,
+        firstRoundNanos / 1_000,
+        lastRoundNanos / 1_000);
+  }
+
+  private void search(MemberSearchCondition condition) {
+    memberJpaRepository.search(condition);
+
+    for (Pageable pageable : PAGEABLES) {
+      memberRepository.searchPageSimple(condition, pageable);
+      memberRepository.searchPageComplex(condition, pageable);
+    }
+  }
+
+  /** username / teamName / ageGoe / ageLoe 를 넣고 빼는 16 가지 조합 */
+  static List<MemberSearchCondition> conditions() {
+    List<MemberSearchCondition> conditions = new ArrayList<>(16);
+
+    for (int shape = 0; shape < 16; shape++) {
+      MemberSearchCondition condition = new MemberSearchCondition();
+
+      if ((shape & 1) != 0) {
+        condition.setUsername("member1");
+      }
+      if ((shape & 2) != 0) {
+        condition.setTeamName("teamA");
+      }
+      if ((shape & 4) != 0) {
+        condition.setAgeGoe(10);
+      }
+      if ((shape & 8) != 0) {
+        condition.setAgeLoe(40);
+      }
+
+      conditions.add(condition);
+    }
+
+    return conditions;
+  }
+
+  /** @return 빌렸던 connection 수 */
+  private int fillPool() {
+    int minimumIdle;
+
+    try {
+      // TracingDataSource 등으로 감싸져 있을 수 있다.
+      if (!dataSource.isWrapperFor(HikariDataSource.class)) {
+        return 0;
+      }
+
+      minimumIdle = dataSource.unwrap(HikariDataSource.class).getMinimumIdle();
+    } catch (SQLException e) {
+      return 0;
+    }
+
+    List<Connection> borrowed = new ArrayList<>(minimumIdle);
+
+    try {
+      for (int i = 0; i < minimumIdle; i++) {
+        borrowed.add(dataSource.getConnection());
+      }
+    } catch (SQLException e) {
+      log.warn("could not fill connection pool. borrowed={}", borrowed.size(), e);
+    } finally {
+      for (Connection connection : borrowed) {
+        try {
+          connection.close();
+        } catch (SQLException e) {
+          log.debug("could not return connection.", e);
+        }
+      }
+    }
+
+    return borrowed.size();
+  }
+}
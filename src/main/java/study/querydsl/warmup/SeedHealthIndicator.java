@@ -0,0 +1,34 @@
+package study.querydsl.warmup;
+
+import org.springframework.boot.actuate.health.AbstractHealthIndicator;
+import org.springframework.boot.actuate.health.Health;
+import org.springframework.stereotype.Component;
+
+/** readiness group 에 넣어서, seed 가 끝날 때까지 traffic 을 받지 않게 한다. */
+@Component("memberSeed")
+public class SeedHealthIndicator extends AbstractHealthIndicator {
+
+  private final SeedStatus seedStatus;
+
+  public SeedHealthIndicator(SeedStatus seedStatus) {
+    this.seedStatus = seedStatus;
+  }
+
+  @Override
+  protected void doHealthCheck(Health.Builder builder) {
+    switch (seedStatus.getState()) {
+      case RUNNING:
+        builder.outOfService();
+        break;
+      case FAILED:
+        builder.down().withDetail("error", seedStatus.getError());
+        break;
+      default:
+        builder.up();
+    }
+
+    builder
+        .withDetail("state", seedStatus.getState())
+        .withDetail("elapsedMillis", seedStatus.getElapsedMillis());
+  }
+}
@@ -0,0 +1,94 @@
+package study.querydsl.warmup;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.boot.context.event.ApplicationStartedEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.stereotype.Component;
+
+import java.lang.management.ManagementFactory;
+
+/**
+ * 기동 후 background 로 넣는 seed data 의 진행 상태
+ *
+ * <pre>
+ *     - seed 를 하지 않는 환경에서는 처음부터 ready 이다.
+ *     - seed 가 도는 동안에는 readiness 가 DOWN 이고, member API 는 503 (warming up) 을 준다.
+ *     - 기동 시간, warm-up 시간 (ApplicationRunner), seed 시간을 따로 남긴다.
+ * </pre>
+ */
+@Component
+public class SeedStatus {
+
+  private static final Logger log = LoggerFactory.getLogger(SeedStatus.class);
+
+  public enum State {
+    NOT_REQUIRED,
+    RUNNING,
+    COMPLETED,
+    FAILED
+  }
+
+  private volatile State state = State.NOT_REQUIRED;
+  private volatile long startedAt;
+  private volatile long elapsedMillis;
+  private volatile String error;
+  private volatile long startupMillis;
+
+  public void started() {
+    startedAt = System.currentTimeMillis();
+    state = State.RUNNING;
+  }
+
+  public void completed(long rows) {
+    elapsedMillis = System.currentTimeMillis() - startedAt;
+    state = State.COMPLETED;
+
+    log.info("seed completed. rows={}, seed={}ms", rows, elapsedMillis);
+  }
+
+  public void failed(Exception e) {
+    elapsedMillis = System.currentTimeMillis() - startedAt;
+    error = e.toString();
+    state = State.FAILED;
+
+    log.error("seed failed. seed={}ms", elapsedMillis, e);
+  }
+
+  /** seed 가 끝나기 전이면 true */
+  public boolean isWarmingUp() {
+    return state == State.RUNNING;
+  }
+
+  public State getState() {
+    return state;
+  }
+
+  public long getElapsedMillis() {
+    return state == State.RUNNING ? System.currentTimeMillis() - startedAt : elapsedMillis;
+  }
+
+  public String getError() {
+    return error;
+  }
+
+  /** context 가 뜬 시점 - ApplicationRunner (warm-up) 전이다. */
+  @EventListener(ApplicationStartedEvent.class)
+  public void recordStartup() {
+    startupMillis = ManagementFactory.getRuntimeMXBean().getUptime();
+  }
+
+  /** seed 는 기동 시간에 들어가지 않는다. */
+  @EventListener(ApplicationReadyEvent.class)
+  public void logStartup() {
+    long readyMillis = ManagementFactory.getRuntimeMXBean().getUptime();
+
+    log.info(
+        "application ready. startup={}ms, warmUp={}ms, ready={}ms, seed={}",
+        startupMillis,
+        readyMillis - startupMillis,
+        readyMillis,
+        state);
+  }
+}
@@ -0,0 +1,87 @@
+package study.querydsl.warmup;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.SpringApplication;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.core.Ordered;
+import org.springframework.core.annotation.Order;
+import org.springframework.stereotype.Component;
+
+import java.io.IOException;
+import java.lang.management.ManagementFactory;
+import java.lang.management.MemoryMXBean;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+
+/**
+ * ready 가 된 시점의 기동 시간과 memory 를 한 줄로 남긴다.
+ *
+ * <pre>
+ *     - gradle cdsCompare 가 이 줄 (startup-report) 을 읽어서 CDS archive 유무를 비교한다.
+ *     - app.exit-on-ready=true 이면 stdout 으로도 찍고 바로 종료한다. (CDS training / 비교 run 용)
+ *       - 평소에는 log 로만 남긴다.
+ * </pre>
+ */
+@Component
+public class StartupReporter {
+
+  private static final Logger log = LoggerFactory.getLogger(StartupReporter.class);
+
+  private static final Path PROC_STATUS = Paths.get("/proc/self/status");
+
+  private final boolean exitOnReady;
+
+  public StartupReporter(@Value("${app.exit-on-ready:false}") boolean exitOnReady) {
+    this.exitOnReady = exitOnReady;
+  }
+
+  /** 다른 ready listener (index / table build 등) 가 끝난 후에 잰다. */
+  @Order(Ordered.LOWEST_PRECEDENCE)
+  @EventListener(ApplicationReadyEvent.class)
+  public void report(ApplicationReadyEvent event) {
+    MemoryMXBean memory = ManagementFactory.getMemoryMXBean();
+
+    String report =
+        "startup-report: startupMillis="
+            + ManagementFactory.getRuntimeMXBean().getUptime()
+            + ", loadedClasses="
+            + ManagementFactory.getClassLoadingMXBean().getLoadedClassCount()
+            + ", heapUsedKb="
+            + memory.getHeapMemoryUsage().getUsed() / 1024
+            + ", nonHeapUsedKb="
+            + memory.getNonHeapMemoryUsage().getUsed() / 1024
+            + ", rssKb="
+            + residentSetKb();
+
+    log.info(report);
+
+    if (exitOnReady) {
+      // logging 설정과 상관없이 gradle (cdsCompare) 이 읽을 수 있도록 stdout 으로도 찍는다.
+      System.out.println(report);
+      System.exit(SpringApplication.exit(event.getApplicationContext()));
+    }
+  }
+
+  /** Linux 가 아니면 -1 */
+  private static long residentSetKb() {
+    if (!Files.isReadable(PROC_STATUS)) {
+      return -1;
+    }
+
+    try {
+      for (String line : Files.readAllLines(PROC_STATUS)) {
+        if (line.startsWith("VmRSS:")) {
+          return Long.parseLong(line.replaceAll("[^0-9]", ""));
+        }
+      }
+    } catch (IOException | NumberFormatException e) {
+      log.debug("could not read {}", PROC_STATUS, e);
+    }
+
+    return -1;
+  }
+}
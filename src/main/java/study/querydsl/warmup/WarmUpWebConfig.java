@@ -0,0 +1,22 @@
+package study.querydsl.warmup;
+
+import org.springframework.context.annotation.Configuration;
+import org.springframework.web.servlet.config.annotation.InterceptorRegistry;
+import org.springframework.web.servlet.config.annotation.WebMvcConfigurer;
+
+@Configuration
+public class WarmUpWebConfig implements WebMvcConfigurer {
+
+  private final SeedStatus seedStatus;
+
+  public WarmUpWebConfig(SeedStatus seedStatus) {
+    this.seedStatus = seedStatus;
+  }
+
+  @Override
+  public void addInterceptors(InterceptorRegistry registry) {
+    registry
+        .addInterceptor(new WarmingUpInterceptor(seedStatus))
+        .addPathPatterns("/v*/members/**", "/v*/teams/**");
+  }
+}
@@ -0,0 +1,40 @@
+package study.querydsl.warmup;
+
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
+import org.springframework.web.servlet.HandlerInterceptor;
+
+import javax.servlet.http.HttpServletRequest;
+import javax.servlet.http.HttpServletResponse;
+import java.nio.charset.StandardCharsets;
+
+/** seed 가 도는 동안 들어온 요청은 바로 503 으로 돌려보낸다. (load balancer 가 readiness 를 보기 전까지) */
+public class WarmingUpInterceptor implements HandlerInterceptor {
+
+  private static final String RETRY_AFTER_SECONDS = "5";
+
+  private final SeedStatus seedStatus;
+
+  public WarmingUpInterceptor(SeedStatus seedStatus) {
+    this.seedStatus = seedStatus;
+  }
+
+  @Override
+  public boolean preHandle(
+      HttpServletRequest request, HttpServletResponse response, Object handler)
+      throws Exception {
+
+    if (!seedStatus.isWarmingUp()) {
+      return true;
+    }
+
+    response.setStatus(HttpStatus.SERVICE_UNAVAILABLE.value());
+    response.setHeader(HttpHeaders.RETRY_AFTER, RETRY_AFTER_SECONDS);
+    response.setContentType(MediaType.TEXT_PLAIN_VALUE);
+    response.setCharacterEncoding(StandardCharsets.UTF_8.name());
+    response.getWriter().write("warming up");
+
+    return false;
+  }
+}
@@ -0,0 +1,121 @@
+package study.querydsl.controller;
+
+import org.hibernate.SessionFactory;
+import org.hibernate.stat.Statistics;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.http.HttpHeaders;
+import org.springframework.test.web.servlet.MockMvc;
+import org.springframework.test.web.servlet.MvcResult;
+import org.springframework.test.web.servlet.request.MockHttpServletRequestBuilder;
+import study.querydsl.entity.Member;
+import study.querydsl.repository.MemberRepository;
+
+import javax.persistence.EntityManagerFactory;
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.asyncDispatch;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.content;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.header;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.request;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
+
+/**
+ * v3 검색의 ETag / response cache
+ *
+ * <pre>
+ *     - 검색과 직렬화는 async task 안에서만 하기 때문에, async 가 시작되지 않았으면 둘 다 하지 않은 것이다.
+ *     - data version 은 commit 이후에 올라가기 때문에 transaction 없이 넣고 직접 지운다.
+ * </pre>
+ */
+@SpringBootTest
+@AutoConfigureMockMvc
+class MemberControllerCacheTest {
+
+  private static final int AGE = 41041;
+
+  @Autowired private MockMvc mockMvc;
+
+  @Autowired private MemberRepository memberRepository;
+
+  @Autowired private EntityManagerFactory emf;
+
+  private final List<Member> saved = new ArrayList<>();
+
+  @AfterEach
+  void cleanUp() {
+    memberRepository.deleteAll(saved);
+  }
+
+  @Test
+  void testETagAndCache() throws Exception {
+    // given
+    saved.add(memberRepository.save(new Member("cacheMember1", AGE)));
+
+    Statistics statistics = emf.unwrap(SessionFactory.class).getStatistics();
+
+    // 처음 - 검색해서 cache 에 넣는다.
+    MvcResult started = mockMvc.perform(search()).andExpect(request().asyncStarted()).andReturn();
+    MvcResult first =
+        mockMvc
+            .perform(asyncDispatch(started))
+            .andExpect(status().isOk())
+            .andExpect(header().exists(HttpHeaders.ETAG))
+            .andReturn();
+
+    String etag = first.getResponse().getHeader(HttpHeaders.ETAG);
+    byte[] body = first.getResponse().getContentAsByteArray();
+
+    assertThat(first.getResponse().getContentAsString()).contains("cacheMember1");
+
+    // when & then - cache hit : 검색 / 직렬화 없이 저장해둔 byte 를 준다.
+    statistics.clear();
+
+    mockMvc
+        .perform(search())
+        .andExpect(request().asyncNotStarted())
+        .andExpect(status().isOk())
+        .andExpect(header().string(HttpHeaders.ETAG, etag))
+        .andExpect(content().bytes(body));
+
+    assertThat(statistics.getPrepareStatementCount()).isZero();
+
+    // when & then - If-None-Match 가 맞으면 304
+    statistics.clear();
+
+    mockMvc
+        .perform(search().header(HttpHeaders.IF_NONE_MATCH, etag))
+        .andExpect(request().asyncNotStarted())
+        .andExpect(status().isNotModified());
+
+    assertThat(statistics.getPrepareStatementCount()).isZero();
+
+    // when & then - commit 된 변경이 있으면 ETag 가 바뀌고 다시 검색한다.
+    saved.add(memberRepository.save(new Member("cacheMember2", AGE)));
+
+    MvcResult changedStarted =
+        mockMvc
+            .perform(search().header(HttpHeaders.IF_NONE_MATCH, etag))
+            .andExpect(request().asyncStarted())
+            .andReturn();
+    MvcResult changed =
+        mockMvc.perform(asyncDispatch(changedStarted)).andExpect(status().isOk()).andReturn();
+
+    assertThat(changed.getResponse().getHeader(HttpHeaders.ETAG)).isNotEqualTo(etag);
+    assertThat(changed.getResponse().getContentAsString()).contains("cacheMember1", "cacheMember2");
+  }
+
+  private static MockHttpServletRequestBuilder search() {
+    return get("/v3/members")
+        .param("ageGoe", String.valueOf(AGE))
+        .param("ageLoe", String.valueOf(AGE))
+        .param("page", "0")
+        .param("size", "10");
+  }
+}
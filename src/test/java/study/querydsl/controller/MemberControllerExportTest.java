@@ -0,0 +1,85 @@
+package study.querydsl.controller;
+
+import org.hibernate.SessionFactory;
+import org.hibernate.stat.Statistics;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.test.web.servlet.MockMvc;
+import org.springframework.test.web.servlet.MvcResult;
+import study.querydsl.entity.Member;
+import study.querydsl.repository.MemberRepository;
+
+import javax.persistence.EntityManagerFactory;
+import java.nio.charset.StandardCharsets;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.asyncDispatch;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.request;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
+
+/** export 는 chunk 마다 commit 된 data 를 읽기 때문에 transaction 없이 넣고 직접 지운다. */
+@SpringBootTest(properties = {"member.export.chunk-size=2", "member.export.timeout=30m"})
+@AutoConfigureMockMvc
+class MemberControllerExportTest {
+
+  private static final int AGE = 31031;
+
+  @Autowired private MockMvc mockMvc;
+
+  @Autowired private MemberRepository memberRepository;
+
+  @Autowired private EntityManagerFactory emf;
+
+  private final List<Member> saved = new ArrayList<>();
+
+  @AfterEach
+  void cleanUp() {
+    memberRepository.deleteAll(saved);
+  }
+
+  @Test
+  void testExportStreamsAllChunks() throws Exception {
+    // given
+    for (int i = 1; i <= 5; i++) {
+      saved.add(memberRepository.save(new Member("exportMember" + i, AGE)));
+    }
+
+    Statistics statistics = emf.unwrap(SessionFactory.class).getStatistics();
+    statistics.clear();
+
+    // when
+    MvcResult started =
+        mockMvc
+            .perform(get("/v1/members/export").param("ageGoe", "" + AGE).param("ageLoe", "" + AGE))
+            .andExpect(request().asyncStarted())
+            .andReturn();
+
+    MvcResult result =
+        mockMvc.perform(asyncDispatch(started)).andExpect(status().isOk()).andReturn();
+
+    // then
+    // container 기본 timeout 대신 member.export.timeout 이 걸린다.
+    assertThat(started.getRequest().getAsyncContext().getTimeout())
+        .isEqualTo(Duration.ofMinutes(30).toMillis());
+
+    String[] lines = result.getResponse().getContentAsString(StandardCharsets.UTF_8).split("\n");
+
+    assertThat(lines).hasSize(6);
+    assertThat(lines[0]).isEqualTo("memberId,username,age,teamId,teamName");
+
+    for (int i = 0; i < saved.size(); i++) {
+      assertThat(lines[i + 1])
+          .isEqualTo(saved.get(i).getId() + ",exportMember" + (i + 1) + "," + AGE + ",,");
+    }
+
+    // 2 + 2 + 1 - chunk 3 개
+    assertThat(statistics.getPrepareStatementCount()).isEqualTo(3);
+  }
+}
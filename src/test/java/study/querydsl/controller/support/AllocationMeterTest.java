@@ -0,0 +1,60 @@
+package study.querydsl.controller.support;
+
+import io.micrometer.core.instrument.DistributionSummary;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.Test;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.data.domain.Pageable;
+import study.querydsl.dto.MemberSearchCondition;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class AllocationMeterTest {
+
+  @Test
+  void testTags() throws Exception {
+    MemberSearchCondition condition = new MemberSearchCondition();
+    assertThat(AllocationMeter.filtersOf(condition)).isEqualTo("none");
+
+    condition.setTeamName("teamA");
+    condition.setAgeLoe(40);
+    assertThat(AllocationMeter.filtersOf(condition)).isEqualTo("teamName+ageLoe");
+
+    condition.setIncludeArchived(true);
+    assertThat(AllocationMeter.filtersOf(condition)).isEqualTo("teamName+ageLoe+archived");
+
+    assertThat(AllocationMeter.pageSizeOf(null)).isEqualTo("unpaged");
+    assertThat(AllocationMeter.pageSizeOf(Pageable.unpaged())).isEqualTo("unpaged");
+    assertThat(AllocationMeter.pageSizeOf(PageRequest.of(0, 20))).isEqualTo("1-20");
+    assertThat(AllocationMeter.pageSizeOf(PageRequest.of(3, 21))).isEqualTo("21-100");
+    assertThat(AllocationMeter.pageSizeOf(PageRequest.of(0, 2000))).isEqualTo("501+");
+  }
+
+  @Test
+  void testRecord() throws Exception {
+    // given
+    SimpleMeterRegistry meterRegistry = new SimpleMeterRegistry();
+    AllocationMeter allocationMeter = new AllocationMeter(meterRegistry);
+
+    MemberSearchCondition condition = new MemberSearchCondition();
+    condition.setUsername("member1");
+
+    // when
+    long start = allocationMeter.threadAllocatedBytes();
+    byte[] allocated = new byte[1024 * 1024];
+    allocationMeter.record("v2", condition, PageRequest.of(0, 20), start);
+
+    // then
+    assertThat(allocated).hasSize(1024 * 1024);
+
+    DistributionSummary summary =
+        meterRegistry
+            .find("member.search.allocated")
+            .tags("endpoint", "v2", "filters", "username", "pageSize", "1-20")
+            .summary();
+
+    assertThat(summary).isNotNull();
+    assertThat(summary.count()).isEqualTo(1);
+    assertThat(summary.totalAmount()).isGreaterThanOrEqualTo(1024 * 1024);
+  }
+}
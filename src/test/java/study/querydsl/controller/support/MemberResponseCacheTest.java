@@ -0,0 +1,60 @@
+package study.querydsl.controller.support;
+
+import org.junit.jupiter.api.Test;
+import org.springframework.data.domain.PageRequest;
+import study.querydsl.dto.MemberSearchCondition;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class MemberResponseCacheTest {
+
+  @Test
+  void testGet() throws Exception {
+    // given
+    MemberResponseCache cache = new MemberResponseCache(2, 1024);
+
+    MemberSearchCondition blank = new MemberSearchCondition();
+    blank.setUsername(" ");
+
+    MemberResponseCache.Key key =
+        MemberResponseCache.key("v2", new MemberSearchCondition(), PageRequest.of(0, 20));
+
+    cache.put(key, 1, new byte[] {1});
+
+    // then
+    // 빈 조건은 조건 없음과 같다.
+    assertThat(cache.get(MemberResponseCache.key("v2", blank, PageRequest.of(0, 20)), 1))
+        .containsExactly(1);
+    assertThat(cache.get(MemberResponseCache.key("v3", blank, PageRequest.of(0, 20)), 1)).isNull();
+
+    // version 이 바뀌면 버린다.
+    assertThat(cache.get(key, 2)).isNull();
+    assertThat(cache.size()).isZero();
+  }
+
+  @Test
+  void testEviction() throws Exception {
+    // given
+    MemberResponseCache cache = new MemberResponseCache(2, 10);
+    MemberSearchCondition condition = new MemberSearchCondition();
+
+    MemberResponseCache.Key page0 = MemberResponseCache.key("v2", condition, PageRequest.of(0, 20));
+    MemberResponseCache.Key page1 = MemberResponseCache.key("v2", condition, PageRequest.of(1, 20));
+    MemberResponseCache.Key page2 = MemberResponseCache.key("v2", condition, PageRequest.of(2, 20));
+
+    // when
+    cache.put(page0, 1, new byte[4]);
+    cache.put(page1, 1, new byte[4]);
+    cache.get(page0, 1);
+    cache.put(page2, 1, new byte[4]);
+
+    // then - 가장 오래 안 쓴 page1 이 빠진다.
+    assertThat(cache.get(page1, 1)).isNull();
+    assertThat(cache.get(page0, 1)).isNotNull();
+    assertThat(cache.get(page2, 1)).isNotNull();
+
+    // byte 수도 넘으면 버린다.
+    cache.put(page1, 1, new byte[8]);
+    assertThat(cache.size()).isEqualTo(1);
+  }
+}
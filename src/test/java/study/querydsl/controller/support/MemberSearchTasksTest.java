@@ -0,0 +1,105 @@
+package study.querydsl.controller.support;
+
+import io.micrometer.core.instrument.MeterRegistry;
+import org.hibernate.annotations.QueryHints;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.http.HttpStatus;
+import org.springframework.mock.web.MockAsyncContext;
+import org.springframework.mock.web.MockHttpServletRequest;
+import org.springframework.mock.web.MockHttpServletResponse;
+import org.springframework.web.context.request.async.StandardServletAsyncWebRequest;
+import org.springframework.web.context.request.async.WebAsyncManager;
+import org.springframework.web.context.request.async.WebAsyncTask;
+import org.springframework.web.context.request.async.WebAsyncUtils;
+import org.springframework.web.server.ResponseStatusException;
+import study.querydsl.dto.MemberSearchCondition;
+
+import javax.persistence.EntityManager;
+import javax.servlet.AsyncEvent;
+import javax.servlet.AsyncListener;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicReference;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/** servlet container 가 async timeout 을 알리면 실행 중인 query 를 취소하고 503 을 준다. */
+@SpringBootTest(properties = "member.search.timeout.slow=30s")
+class MemberSearchTasksTest {
+
+  /** 10^10 row 를 도는 query - 취소하지 않으면 끝나지 않는다. */
+  private static final String SLOW_QUERY =
+      "select count(*) from system_range(1, 100000) a, system_range(1, 100000) b"
+          + " where a.x + b.x < 0";
+
+  @Autowired private MemberSearchTasks memberSearchTasks;
+
+  @Autowired private EntityManager em;
+
+  @Autowired private MeterRegistry meterRegistry;
+
+  @Test
+  void testTimeoutCancelsRunningQuery() throws Exception {
+    // given
+    CountDownLatch started = new CountDownLatch(1);
+    CountDownLatch finished = new CountDownLatch(1);
+    AtomicReference<Throwable> failure = new AtomicReference<>();
+
+    WebAsyncTask<Object> task =
+        memberSearchTasks.submit(
+            "slow",
+            new MemberSearchCondition(),
+            null,
+            () -> {
+              started.countDown();
+              try {
+                return em.createNativeQuery(SLOW_QUERY)
+                    .setHint(QueryHints.TIMEOUT_HIBERNATE, 20) // 취소가 안되더라도 test 가 멈추지 않게
+                    .getSingleResult();
+              } catch (RuntimeException e) {
+                failure.set(e);
+                throw e;
+              } finally {
+                finished.countDown();
+              }
+            });
+
+    MockHttpServletRequest request = new MockHttpServletRequest();
+    request.setAsyncSupported(true);
+    MockHttpServletResponse response = new MockHttpServletResponse();
+
+    WebAsyncManager asyncManager = WebAsyncUtils.getAsyncManager(request);
+    asyncManager.setAsyncWebRequest(new StandardServletAsyncWebRequest(request, response));
+
+    double timeoutsBefore = timeouts();
+
+    // when
+    asyncManager.startCallableProcessing(task);
+
+    assertThat(started.await(5, TimeUnit.SECONDS)).isTrue();
+    Thread.sleep(500); // query 가 실행되기 시작할 때까지
+
+    MockAsyncContext asyncContext = (MockAsyncContext) request.getAsyncContext();
+    for (AsyncListener listener : asyncContext.getListeners()) {
+      listener.onTimeout(new AsyncEvent(asyncContext));
+    }
+
+    // then
+    assertThat(asyncManager.getConcurrentResult()).isInstanceOf(ResponseStatusException.class);
+    assertThat(((ResponseStatusException) asyncManager.getConcurrentResult()).getStatus())
+        .isEqualTo(HttpStatus.SERVICE_UNAVAILABLE);
+    assertThat(timeouts()).isEqualTo(timeoutsBefore + 1);
+
+    // 실행 중이던 statement 가 취소되어 바로 끝난다.
+    assertThat(finished.await(5, TimeUnit.SECONDS)).isTrue();
+    assertThat(failure.get()).isNotNull();
+  }
+
+  private double timeouts() {
+    return meterRegistry.counter(
+            "member.search.deadline", "endpoint", "slow", "outcome", "timeout")
+        .count();
+  }
+}
@@ -0,0 +1,58 @@
+package study.querydsl.controller.support;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.module.SimpleModule;
+import org.junit.jupiter.api.Test;
+import study.querydsl.dto.MemberTeamDto;
+import study.querydsl.dto.MemberTeamPage;
+
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class MemberTeamJsonComponentTest {
+
+  /** component 없이 bean 직렬화 */
+  private final ObjectMapper beanMapper = new ObjectMapper();
+
+  private final ObjectMapper componentMapper =
+      new ObjectMapper()
+          .registerModule(
+              new SimpleModule()
+                  .addSerializer(
+                      MemberTeamDto.class, new MemberTeamJsonComponent.MemberTeamDtoSerializer())
+                  .addSerializer(
+                      MemberTeamPage.class,
+                      new MemberTeamJsonComponent.MemberTeamPageSerializer()));
+
+  @Test
+  void testSameAsBeanSerialization() throws Exception {
+    // given
+    MemberTeamDto withTeam = new MemberTeamDto(1L, "member1", 10, 2L, "teamA");
+    MemberTeamDto withoutTeam = new MemberTeamDto(3L, "member\"2", 20, null, null);
+    List<MemberTeamDto> content = Arrays.asList(withTeam, withoutTeam);
+
+    MemberTeamPage page = new MemberTeamPage(content, 1, 2, 5, true);
+    MemberTeamPage empty = new MemberTeamPage(Collections.emptyList(), 0, 20, 0, false);
+
+    // then
+    assertThat(componentMapper.writeValueAsString(withoutTeam))
+        .isEqualTo(beanMapper.writeValueAsString(withoutTeam))
+        .isEqualTo(
+            "{\"memberId\":3,\"username\":\"member\\\"2\",\"age\":20,"
+                + "\"teamId\":null,\"teamName\":null}");
+
+    // v1 - MemberTeamDto 목록
+    assertThat(componentMapper.writeValueAsString(content))
+        .isEqualTo(beanMapper.writeValueAsString(content));
+
+    // v2 / v3 - envelope
+    assertThat(componentMapper.writeValueAsString(page))
+        .isEqualTo(beanMapper.writeValueAsString(page));
+    assertThat(componentMapper.writeValueAsString(empty))
+        .isEqualTo(beanMapper.writeValueAsString(empty))
+        .isEqualTo("{\"content\":[],\"page\":0,\"size\":20,\"total\":0,\"hasNext\":false}");
+  }
+}
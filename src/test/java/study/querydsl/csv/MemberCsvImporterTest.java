@@ -0,0 +1,96 @@
+package study.querydsl.csv;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.jdbc.core.JdbcTemplate;
+import study.querydsl.repository.support.MemberDataVersion;
+
+import java.io.ByteArrayInputStream;
+import java.io.InputStream;
+import java.nio.charset.StandardCharsets;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * partition 하나를 DB 제약으로 실패시키고, 제약을 푼 다음 같은 파일로 resume 한다.
+ *
+ * <pre>
+ *     - partition 마다 commit 되기 때문에 transaction 없이 실행하고, 넣은 data 는 직접 지운다.
+ * </pre>
+ */
+@SpringBootTest(properties = {"member.import.partition-size=2", "member.import.threads=2"})
+class MemberCsvImporterTest {
+
+  private static final String CSV =
+      "username,age,teamName\n"
+          + "importMember1,10,importTeam\n"
+          + "importMember2,20,importTeam\n"
+          + "importMember3,30,importTeam\n" // partition 1 - 실패시킨다.
+          + "importMember4,40,\n"
+          + "importMember5,50,\n";
+
+  private static final String FAIL_PARTITION_1 =
+      "alter table member add constraint import_test_fail check (username <> 'importMember3')";
+
+  @Autowired private MemberCsvImporter memberCsvImporter;
+
+  @Autowired private MemberDataVersion memberDataVersion;
+
+  @Autowired private JdbcTemplate jdbcTemplate;
+
+  @AfterEach
+  void cleanUp() {
+    jdbcTemplate.execute("alter table member drop constraint if exists import_test_fail");
+    jdbcTemplate.update("delete from member where username like 'importMember%'");
+    jdbcTemplate.update("delete from team where name = 'importTeam'");
+  }
+
+  @Test
+  void testResumeFailedPartition() throws Exception {
+    // given
+    jdbcTemplate.execute(FAIL_PARTITION_1);
+
+    long version = memberDataVersion.current();
+
+    MemberImportJob failed = memberCsvImporter.importMembers(csv(), null);
+
+    assertThat(failed.getStatus()).isEqualTo(MemberImportJob.Status.FAILED);
+    assertThat(failed.getFailedPartitions()).containsOnlyKeys(1);
+    assertThat(failed.getRowsImported()).isEqualTo(3);
+    assertThat(countOf("importMember3")).isZero();
+    assertThat(countOf("importMember4")).isZero(); // partition 째로 rollback 된다.
+
+    // 실패한 partition 이 있어도 저장된 row 가 있으면 알린다.
+    assertThat(memberDataVersion.current()).isEqualTo(version + 1);
+
+    jdbcTemplate.execute("alter table member drop constraint import_test_fail");
+
+    // when
+    MemberImportJob resumed = memberCsvImporter.importMembers(csv(), failed.getId());
+
+    // then
+    assertThat(resumed.getId()).isEqualTo(failed.getId());
+    assertThat(resumed.getStatus()).isEqualTo(MemberImportJob.Status.COMPLETED);
+    assertThat(resumed.getFailedPartitions()).isEmpty();
+    assertThat(resumed.getRowsSkipped()).isEqualTo(3); // partition 0, 2
+    assertThat(resumed.getRowsImported()).isEqualTo(2); // partition 1
+    assertThat(resumed.getPartitionsCompleted()).isEqualTo(3);
+    assertThat(memberDataVersion.current()).isEqualTo(version + 2);
+
+    // 건너뛴 partition 은 두 번 들어가지 않는다.
+    for (int i = 1; i <= 5; i++) {
+      assertThat(countOf("importMember" + i)).as("importMember" + i).isEqualTo(1);
+    }
+  }
+
+  private int countOf(String username) {
+    return jdbcTemplate.queryForObject(
+        "select count(*) from member where username = ?", Integer.class, username);
+  }
+
+  private static InputStream csv() {
+    return new ByteArrayInputStream(CSV.getBytes(StandardCharsets.UTF_8));
+  }
+}
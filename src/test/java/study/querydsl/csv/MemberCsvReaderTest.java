@@ -0,0 +1,51 @@
+package study.querydsl.csv;
+
+import org.junit.jupiter.api.Test;
+
+import java.io.ByteArrayInputStream;
+import java.nio.charset.StandardCharsets;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+class MemberCsvReaderTest {
+
+  @Test
+  void testNext() throws Exception {
+    // given
+    String csv =
+        "username,age,teamName\n"
+            + "member1,10,teamA\n"
+            + "\n"
+            + "member2,abc,teamA\n"
+            + "\"kim, \"\"young\nhan\"\"\",20\n"
+            + "member3,30,\n";
+
+    MemberCsvReader reader =
+        new MemberCsvReader(new ByteArrayInputStream(csv.getBytes(StandardCharsets.UTF_8)));
+
+    // when
+    MemberCsvRow row1 = reader.next();
+
+    // then
+    assertThat(row1.getLineNumber()).isEqualTo(2);
+    assertThat(row1.getUsername()).isEqualTo("member1");
+    assertThat(row1.getAge()).isEqualTo(10);
+    assertThat(row1.getTeamName()).isEqualTo("teamA");
+
+    assertThatThrownBy(reader::next)
+        .isInstanceOf(MemberCsvParseException.class)
+        .hasMessageContaining("line 4");
+
+    MemberCsvRow row2 = reader.next();
+    assertThat(row2.getLineNumber()).isEqualTo(5);
+    assertThat(row2.getUsername()).isEqualTo("kim, \"young\nhan\"");
+    assertThat(row2.getTeamName()).isNull();
+
+    MemberCsvRow row3 = reader.next();
+    assertThat(row3.getLineNumber()).isEqualTo(7);
+    assertThat(row3.getTeamName()).isNull();
+
+    assertThat(reader.next()).isNull();
+  }
+}
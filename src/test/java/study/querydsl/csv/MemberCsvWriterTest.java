@@ -0,0 +1,34 @@
+package study.querydsl.csv;
+
+import org.junit.jupiter.api.Test;
+import study.querydsl.dto.MemberTeamDto;
+
+import java.io.ByteArrayOutputStream;
+import java.nio.charset.StandardCharsets;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class MemberCsvWriterTest {
+
+  @Test
+  void testWrite() throws Exception {
+    // given
+    ByteArrayOutputStream out = new ByteArrayOutputStream();
+    MemberCsvWriter writer = new MemberCsvWriter(out);
+
+    // when
+    writer.writeHeader();
+    writer.write(new MemberTeamDto(1L, "member1", 10, 2L, "teamA"));
+    writer.write(new MemberTeamDto(3L, "kim, \"younghan\"", 20, null, null));
+    writer.flush();
+
+    // then
+    assertThat(new String(out.toByteArray(), StandardCharsets.UTF_8))
+        .isEqualTo(
+            "memberId,username,age,teamId,teamName\n"
+                + "1,member1,10,2,teamA\n"
+                + "3,\"kim, \"\"younghan\"\"\",20,,\n");
+    assertThat(writer.getRows()).isEqualTo(2);
+    assertThat(writer.getBytes()).isEqualTo(out.size());
+  }
+}
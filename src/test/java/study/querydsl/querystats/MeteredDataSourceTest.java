@@ -0,0 +1,57 @@
+package study.querydsl.querystats;
+
+import io.micrometer.core.instrument.Timer;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.jdbc.datasource.DriverManagerDataSource;
+
+import java.sql.Connection;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class MeteredDataSourceTest {
+
+  @AfterEach
+  void tearDown() {
+    ConnectionMeter.unbind();
+  }
+
+  @Test
+  void testAcquireAndHold() throws Exception {
+    // given
+    SimpleMeterRegistry meterRegistry = new SimpleMeterRegistry();
+    MeteredDataSource dataSource =
+        new MeteredDataSource(
+            new DriverManagerDataSource("jdbc:h2:mem:metered;DB_CLOSE_DELAY=-1", "sa", ""),
+            new ConnectionMeter(meterRegistry));
+
+    // when
+    ConnectionMeter.bind("/v2/members");
+    Connection connection = dataSource.getConnection();
+    ConnectionMeter.unbind();
+
+    // endpoint 는 connection 을 받을 때 정해진다.
+    connection.close();
+    connection.close();
+
+    try (Connection other = dataSource.getConnection()) {
+      assertThat(other.isWrapperFor(Connection.class)).isTrue();
+    }
+
+    // then
+    Timer acquire =
+        meterRegistry.find("member.connection.acquire").tag("endpoint", "/v2/members").timer();
+    Timer hold =
+        meterRegistry.find("member.connection.hold").tag("endpoint", "/v2/members").timer();
+
+    assertThat(acquire).isNotNull();
+    assertThat(acquire.count()).isEqualTo(1);
+    assertThat(hold).isNotNull();
+    assertThat(hold.count()).isEqualTo(1);
+
+    assertThat(meterRegistry.find("member.connection.hold").tag("endpoint", "none").timer())
+        .isNotNull()
+        .satisfies(timer -> assertThat(timer.count()).isEqualTo(1));
+  }
+}
@@ -0,0 +1,52 @@
+package study.querydsl.querystats;
+
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.boot.test.system.CapturedOutput;
+import org.springframework.boot.test.system.OutputCaptureExtension;
+import study.querydsl.repository.MemberJpaRepository;
+
+import java.util.List;
+import java.util.Map;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+// near cache 를 끄지 않으면 두번째 조회는 query 없이 끝난다.
+@SpringBootTest(properties = {"member.slow-query.threshold=0ms", "member.near-cache.enabled=false"})
+@ExtendWith(OutputCaptureExtension.class)
+class QueryStatisticsEndpointTest {
+
+  private static final String QUERY = "select m from Member m where m.username = :username";
+
+  @Autowired private MemberJpaRepository memberJpaRepository;
+
+  @Autowired private QueryStatisticsEndpoint endpoint;
+
+  @Test
+  @SuppressWarnings("unchecked")
+  void testQueryStatistics(CapturedOutput output) throws Exception {
+    // given
+    endpoint.clear();
+
+    // when
+    memberJpaRepository.findByUsername("slow-query-member");
+    memberJpaRepository.findByUsername("slow-query-member");
+
+    // then
+    List<Map<String, Object>> queries =
+        (List<Map<String, Object>>) endpoint.queries(null).get("queries");
+
+    assertThat(queries)
+        .filteredOn(q -> QUERY.equals(q.get("query")))
+        .singleElement()
+        .satisfies(q -> assertThat(q.get("executionCount")).isEqualTo(2L));
+
+    // threshold 가 0 이라 모든 query 가 호출한 method, 인자와 함께 남는다.
+    assertThat(output)
+        .contains("slow query.")
+        .contains("caller=MemberJpaRepository.findByUsername")
+        .contains("args=[slow-query-member]");
+  }
+}
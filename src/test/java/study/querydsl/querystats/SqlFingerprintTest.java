@@ -0,0 +1,49 @@
+package study.querydsl.querystats;
+
+import org.junit.jupiter.api.Test;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class SqlFingerprintTest {
+
+  @Test
+  void testNormalize() throws Exception {
+    // 주석, 줄바꿈, in 절 개수
+    assertThat(
+            SqlFingerprint.normalize(
+                "/* select m from Member m */ select\n"
+                    + "        member0_.member_id as member_i1_1_,\n"
+                    + "        member0_.age as age2_1_ \n"
+                    + "    from\n"
+                    + "        member member0_ \n"
+                    + "    where\n"
+                    + "        member0_.username=? \n"
+                    + "        and member0_.age in (\n"
+                    + "            ? , ? , ?\n"
+                    + "        ) limit ?"))
+        .isEqualTo(
+            "select member0_.member_id as member_i1_1_, member0_.age as age2_1_"
+                + " from member member0_ where member0_.username=? and member0_.age in (?...)"
+                + " limit ?");
+
+    // literal
+    assertThat(
+            SqlFingerprint.normalize(
+                "SELECT * FROM member WHERE username = 'O''Brien' AND age > 10 -- comment"))
+        .isEqualTo("select * from member where username = ? and age > ?");
+
+    // multi-row insert
+    assertThat(
+            SqlFingerprint.normalize(
+                "insert into member (member_id, username) values (?, ?), (?, ?), (?, ?)"))
+        .isEqualTo("insert into member (member_id, username) values (?, ?), ...");
+  }
+
+  @Test
+  void testSameFingerprint() throws Exception {
+    assertThat(SqlFingerprint.normalize("select * from member where member_id in (?, ?)"))
+        .isEqualTo(
+            SqlFingerprint.normalize(
+                "select * from member where member_id in (?, ?, ?, ?, ?, ?, ?, ?)"));
+  }
+}
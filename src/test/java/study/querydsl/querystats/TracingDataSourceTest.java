@@ -0,0 +1,82 @@
+package study.querydsl.querystats;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.jdbc.datasource.DriverManagerDataSource;
+
+import java.sql.Connection;
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.sql.Statement;
+import java.time.Duration;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class TracingDataSourceTest {
+
+  private SqlTracer sqlTracer;
+  private TracingDataSource dataSource;
+
+  @BeforeEach
+  void setUp() {
+    sqlTracer = new SqlTracer(0, Duration.ofMinutes(1), 100, 100);
+    dataSource =
+        new TracingDataSource(
+            new DriverManagerDataSource("jdbc:h2:mem:sqltrace;DB_CLOSE_DELAY=-1", "sa", ""),
+            sqlTracer);
+  }
+
+  @AfterEach
+  void tearDown() {
+    sqlTracer.destroy();
+  }
+
+  @Test
+  void testRecord() throws Exception {
+    // given
+    try (Connection connection = dataSource.getConnection();
+        Statement statement = connection.createStatement()) {
+      statement.execute("create table if not exists trace_test (id bigint primary key)");
+      statement.execute("merge into trace_test values (1), (2), (3)");
+    }
+    sqlTracer.reset();
+
+    // when
+    try (Connection connection = dataSource.getConnection()) {
+      assertThat(count(connection, "select count(*) from trace_test where id in (?, ?)", 2))
+          .isEqualTo(2);
+      assertThat(count(connection, "select count(*) from trace_test where id in (?, ?, ?)", 3))
+          .isEqualTo(3);
+
+      assertThat(connection.isWrapperFor(Connection.class)).isTrue();
+    }
+
+    // then
+    assertThat(sqlTracer.getFingerprints())
+        .filteredOn(f -> f.getFingerprint().contains("trace_test"))
+        .singleElement()
+        .satisfies(
+            f -> {
+              assertThat(f.getFingerprint())
+                  .isEqualTo("select count(*) from trace_test where id in (?...)");
+              assertThat(f.getCount()).isEqualTo(2);
+              assertThat(f.getErrors()).isZero();
+            });
+  }
+
+  private static long count(Connection connection, String sql, int parameters)
+      throws SQLException {
+    try (PreparedStatement statement = connection.prepareStatement(sql)) {
+      for (int i = 1; i <= parameters; i++) {
+        statement.setLong(i, i);
+      }
+
+      try (ResultSet resultSet = statement.executeQuery()) {
+        resultSet.next();
+        return resultSet.getLong(1);
+      }
+    }
+  }
+}
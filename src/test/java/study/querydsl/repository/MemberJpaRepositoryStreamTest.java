@@ -0,0 +1,65 @@
+package study.querydsl.repository;
+
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+import study.querydsl.dto.MemberSearchCondition;
+import study.querydsl.entity.Member;
+import study.querydsl.entity.Team;
+
+import javax.persistence.EntityManager;
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/** streamMember 는 별도 connection 으로 조회하기 때문에, test data 를 먼저 commit 해야 한다. */
+@SpringBootTest
+class MemberJpaRepositoryStreamTest {
+
+  @Autowired private EntityManager em;
+
+  @Autowired private PlatformTransactionManager transactionManager;
+
+  @Autowired private MemberJpaRepository memberJpaRepository;
+
+  @Test
+  void testStreamMember() throws Exception {
+    // given
+    new TransactionTemplate(transactionManager)
+        .executeWithoutResult(
+            status -> {
+              Team teamA = new Team("teamA");
+              Team teamB = new Team("teamB");
+
+              em.persist(teamA);
+              em.persist(teamB);
+
+              em.persist(new Member("member1", 3010, teamA));
+              em.persist(new Member("member2", 3020, teamA));
+              em.persist(new Member("member3", 3030, teamB));
+              em.persist(new Member("member4", 3040, teamB));
+            });
+
+    MemberSearchCondition condition = new MemberSearchCondition();
+
+    condition.setAgeGoe(3020);
+    condition.setAgeLoe(3040);
+
+    List<Member> result = new ArrayList<>();
+
+    // when
+    long count = memberJpaRepository.streamMember(condition, result::add);
+
+    // then
+    assertThat(count).isEqualTo(3);
+    assertThat(result).extracting("username").containsExactly("member2", "member3", "member4");
+
+    // team 은 fetch join 으로 같이 가져왔기 때문에 session 이 닫혀도 쓸 수 있다.
+    assertThat(result)
+        .extracting(m -> m.getTeam().getName())
+        .containsExactly("teamA", "teamB", "teamB");
+  }
+}
@@ -1,5 +1,7 @@
 package study.querydsl.repository;
 
+import org.hibernate.SessionFactory;
+import org.hibernate.stat.Statistics;
 import org.junit.jupiter.api.Test;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.boot.test.context.SpringBootTest;
@@ -9,9 +11,11 @@ import study.querydsl.dto.MemberSearchCondition;
 import study.querydsl.dto.MemberTeamDto;
 import study.querydsl.entity.Member;
 import study.querydsl.entity.Team;
+import study.querydsl.repository.support.TeamFetchPlan;
 
 import javax.persistence.EntityManager;
 
+import java.util.Arrays;
 import java.util.List;
 
 import static org.assertj.core.api.Assertions.assertThat;
@@ -66,6 +70,27 @@ class MemberJpaRepositoryTest {
     assertThat(result2).containsExactly(member1);
   }
 
+  /** 순서 / 중복 / 없는 id / 영속성 컨텍스트 / IN 절 padding 은 MultiGetSupportTest 에서 본다. */
+  @Test
+  void testFindAllByIds() throws Exception {
+    // given
+    Member member1 = new Member("member1", 10);
+    Member member2 = new Member("member2", 20);
+
+    em.persist(member1);
+    em.persist(member2);
+
+    em.flush();
+    em.clear();
+
+    // when
+    List<Member> result =
+        memberJpaRepository.findAllByIds(Arrays.asList(member2.getId(), member1.getId()));
+
+    // then
+    assertThat(result).extracting("id").containsExactly(member2.getId(), member1.getId());
+  }
+
   @Test
   void testSearch() throws Exception {
     // given
@@ -99,4 +124,50 @@ class MemberJpaRepositoryTest {
 
     assertThat(result).extracting("username").containsExactly("member4");
   }
+
+  @Test
+  void testSearchMemberFetchPlan() throws Exception {
+    // given
+    Team teamA = new Team("teamA");
+    Team teamB = new Team("teamB");
+
+    em.persist(teamA);
+    em.persist(teamB);
+
+    em.persist(new Member("member1", 1010, teamA));
+    em.persist(new Member("member2", 1020, teamA));
+    em.persist(new Member("member3", 1030, teamB));
+    em.persist(new Member("member4", 1040, teamB));
+
+    MemberSearchCondition condition = new MemberSearchCondition();
+
+    condition.setAgeGoe(1010);
+    condition.setAgeLoe(1040);
+
+    Statistics statistics =
+        em.getEntityManagerFactory().unwrap(SessionFactory.class).getStatistics();
+
+    // when & then
+    // NONE - member 1번 + team 2번
+    // FETCH_JOIN - member + team 1번
+    // BATCH - member 1번 + team IN 1번
+    assertThat(countStatements(statistics, condition, TeamFetchPlan.NONE)).isEqualTo(3);
+    assertThat(countStatements(statistics, condition, TeamFetchPlan.FETCH_JOIN)).isEqualTo(1);
+    assertThat(countStatements(statistics, condition, TeamFetchPlan.BATCH)).isEqualTo(2);
+  }
+
+  private long countStatements(
+      Statistics statistics, MemberSearchCondition condition, TeamFetchPlan plan) {
+    em.flush();
+    em.clear();
+    statistics.clear();
+
+    List<Member> result = memberJpaRepository.searchMember(condition, plan);
+
+    assertThat(result)
+        .extracting(m -> m.getTeam().getName())
+        .containsExactlyInAnyOrder("teamA", "teamA", "teamB", "teamB");
+
+    return statistics.getPrepareStatementCount();
+  }
 }
@@ -9,12 +9,15 @@ import org.springframework.test.annotation.Rollback;
 import org.springframework.transaction.annotation.Transactional;
 import study.querydsl.dto.MemberSearchCondition;
 import study.querydsl.dto.MemberTeamDto;
+import study.querydsl.dto.MemberUpsertDto;
+import study.querydsl.dto.MemberUpsertResult;
 import study.querydsl.entity.Member;
 import study.querydsl.entity.QMember;
 import study.querydsl.entity.Team;
 
 import javax.persistence.EntityManager;
 
+import java.util.Arrays;
 import java.util.List;
 
 import static org.assertj.core.api.Assertions.assertThat;
@@ -50,6 +53,27 @@ class MemberRepositoryTest {
     assertThat(result2).containsExactly(member1);
   }
 
+  /** 순서 / 중복 / 없는 id / 영속성 컨텍스트 / IN 절 padding 은 MultiGetSupportTest 에서 본다. */
+  @Test
+  void testFindAllByIds() throws Exception {
+    // given
+    Member member1 = new Member("member1", 10);
+    Member member2 = new Member("member2", 20);
+
+    em.persist(member1);
+    em.persist(member2);
+
+    em.flush();
+    em.clear();
+
+    // when
+    List<Member> result =
+        memberRepository.findAllByIds(Arrays.asList(member2.getId(), member1.getId()));
+
+    // then
+    assertThat(result).extracting("id").containsExactly(member2.getId(), member1.getId());
+  }
+
   @Test
   void testSearch() throws Exception {
     // given
@@ -122,6 +146,51 @@ class MemberRepositoryTest {
         .containsExactly("member1", "member2", "member3");
   }
 
+  @Test
+  void testUpsertByUsername() throws Exception {
+    // given
+    Team teamA = new Team("upsertTeamA");
+
+    em.persist(teamA);
+
+    Member member1 = new Member("upsert1", 10, teamA);
+    Member member2 = new Member("upsert2", 20, teamA);
+
+    em.persist(member1);
+    em.persist(member2);
+
+    em.flush();
+
+    List<MemberUpsertDto> rows =
+        Arrays.asList(
+            new MemberUpsertDto("upsert1", 10, "upsertTeamA"),
+            new MemberUpsertDto("upsert2", 21, "upsertTeamB"),
+            new MemberUpsertDto("upsert3", 30, null));
+
+    // when
+    MemberUpsertResult result = memberRepository.upsertByUsername(rows);
+    MemberUpsertResult again = memberRepository.upsertByUsername(rows);
+
+    // then
+    assertThat(result.getInserted()).isEqualTo(1);
+    assertThat(result.getUpdated()).isEqualTo(1);
+    assertThat(result.getUnchanged()).isEqualTo(1);
+
+    assertThat(again.getInserted()).isZero();
+    assertThat(again.getUpdated()).isZero();
+    assertThat(again.getUnchanged()).isEqualTo(3);
+
+    // 영속성 컨텍스트에 있던 member 도 바뀐 값을 본다.
+    assertThat(member2.getAge()).isEqualTo(21);
+    assertThat(member2.getTeam().getName()).isEqualTo("upsertTeamB");
+
+    em.clear();
+
+    List<Member> inserted = memberRepository.findByUsername("upsert3");
+    assertThat(inserted).extracting("age").containsExactly(30);
+    assertThat(inserted.get(0).getTeam()).isNull();
+  }
+
   /**
    * QueryDSL Predicate Executor
    *
@@ -0,0 +1,175 @@
+package study.querydsl.repository;
+
+import org.hibernate.SessionFactory;
+import org.hibernate.stat.Statistics;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.data.domain.Page;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.data.domain.Sort;
+import org.springframework.test.annotation.Rollback;
+import org.springframework.transaction.annotation.Transactional;
+import study.querydsl.dto.MemberSearchCondition;
+import study.querydsl.entity.Member;
+import study.querydsl.entity.Team;
+import study.querydsl.repository.support.TeamFetchPlan;
+
+import javax.persistence.EntityManager;
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+@SpringBootTest
+@Transactional
+@Rollback(false)
+class MemberTestRepositoryTest {
+
+  @Autowired private EntityManager em;
+
+  @Autowired private MemberTestRepository memberTestRepository;
+
+  @Test
+  void testSearchPageByApplyPageFetchJoin() throws Exception {
+    // given
+    Team teamA = new Team("teamA");
+    Team teamB = new Team("teamB");
+
+    em.persist(teamA);
+    em.persist(teamB);
+
+    em.persist(new Member("member1", 2010, teamA));
+    em.persist(new Member("member2", 2020, teamA));
+    em.persist(new Member("member3", 2030, teamB));
+    em.persist(new Member("member4", 2040, teamB));
+
+    em.flush();
+    em.clear();
+
+    MemberSearchCondition condition = new MemberSearchCondition();
+
+    condition.setAgeGoe(2010);
+    condition.setAgeLoe(2040);
+
+    Statistics statistics =
+        em.getEntityManagerFactory().unwrap(SessionFactory.class).getStatistics();
+    statistics.clear();
+
+    // when
+    Page<Member> result =
+        memberTestRepository.searchPageByApplyPage(
+            condition, PageRequest.of(1, 2, Sort.by("age")), TeamFetchPlan.FETCH_JOIN);
+
+    // then
+    assertThat(result.getTotalElements()).isEqualTo(4);
+    assertThat(result.getContent()).extracting("username").containsExactly("member3", "member4");
+    assertThat(result.getContent())
+        .extracting(m -> m.getTeam().getName())
+        .containsExactly("teamB", "teamB");
+
+    // content 1번 + count 1번
+    assertThat(statistics.getPrepareStatementCount()).isEqualTo(2);
+  }
+
+  @Test
+  void testSearchPageByApplyPageFetchPlan() throws Exception {
+    // given - team 이 번갈아 들어가서 한 page 에 team 이 2개 나온다.
+    Team teamA = new Team("teamA");
+    Team teamB = new Team("teamB");
+
+    em.persist(teamA);
+    em.persist(teamB);
+
+    em.persist(new Member("member1", 2110, teamA));
+    em.persist(new Member("member2", 2120, teamB));
+    em.persist(new Member("member3", 2130, teamA));
+    em.persist(new Member("member4", 2140, teamB));
+
+    MemberSearchCondition condition = new MemberSearchCondition();
+
+    condition.setAgeGoe(2110);
+    condition.setAgeLoe(2140);
+
+    Statistics statistics =
+        em.getEntityManagerFactory().unwrap(SessionFactory.class).getStatistics();
+
+    // when & then
+    // NONE - member 1번 + team 2번 + count 1번
+    // FETCH_JOIN - member + team 1번 + count 1번
+    // BATCH - member 1번 + team IN 1번 + count 1번
+    assertThat(countPageStatements(statistics, condition, TeamFetchPlan.NONE)).isEqualTo(4);
+    assertThat(countPageStatements(statistics, condition, TeamFetchPlan.FETCH_JOIN)).isEqualTo(2);
+    assertThat(countPageStatements(statistics, condition, TeamFetchPlan.BATCH)).isEqualTo(3);
+  }
+
+  @Test
+  void testBasicSelectFetchPlan() throws Exception {
+    // given
+    Team teamA = new Team("teamA");
+    Team teamB = new Team("teamB");
+
+    em.persist(teamA);
+    em.persist(teamB);
+
+    em.persist(new Member("member1", 2210, teamA));
+    em.persist(new Member("member2", 2220, teamB));
+    em.persist(new Member("member3", 2230));
+
+    em.flush();
+
+    // 전체 member 를 조회하기 때문에, 다른 test 가 남긴 member 의 team 까지 센다.
+    long teams =
+        em.createQuery("select count(distinct m.team.id) from Member m", Long.class)
+            .getSingleResult();
+
+    Statistics statistics =
+        em.getEntityManagerFactory().unwrap(SessionFactory.class).getStatistics();
+
+    // when & then
+    // NONE - member 1번 + team 마다 1번
+    // FETCH_JOIN - member + team 1번
+    // BATCH - member 1번 + team IN 512 개씩 1번
+    long inChunks = (teams + 511) / 512;
+
+    assertThat(countBasicSelectStatements(statistics, TeamFetchPlan.NONE)).isEqualTo(1 + teams);
+    assertThat(countBasicSelectStatements(statistics, TeamFetchPlan.FETCH_JOIN)).isEqualTo(1);
+    assertThat(countBasicSelectStatements(statistics, TeamFetchPlan.BATCH))
+        .isEqualTo(1 + inChunks);
+  }
+
+  private long countPageStatements(
+      Statistics statistics, MemberSearchCondition condition, TeamFetchPlan plan) {
+    em.flush();
+    em.clear();
+    statistics.clear();
+
+    Page<Member> result =
+        memberTestRepository.searchPageByApplyPage(
+            condition, PageRequest.of(0, 3, Sort.by("age")), plan);
+
+    assertThat(result.getTotalElements()).isEqualTo(4);
+    assertThat(result.getContent())
+        .extracting(m -> m.getTeam().getName())
+        .containsExactly("teamA", "teamB", "teamA");
+
+    return statistics.getPrepareStatementCount();
+  }
+
+  private long countBasicSelectStatements(Statistics statistics, TeamFetchPlan plan) {
+    em.flush();
+    em.clear();
+    statistics.clear();
+
+    List<Member> result = memberTestRepository.basicSelect(plan);
+
+    assertThat(result).extracting("username").contains("member1", "member2", "member3");
+
+    for (Member m : result) {
+      if (m.getTeam() != null) {
+        m.getTeam().getName();
+      }
+    }
+
+    return statistics.getPrepareStatementCount();
+  }
+}
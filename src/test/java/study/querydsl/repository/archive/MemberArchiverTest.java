@@ -0,0 +1,171 @@
+package study.querydsl.repository.archive;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.data.domain.Page;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+import study.querydsl.csv.MemberCsvExporter;
+import study.querydsl.dto.MemberSearchCondition;
+import study.querydsl.dto.MemberTeamDto;
+import study.querydsl.entity.Member;
+import study.querydsl.entity.MemberArchive;
+import study.querydsl.entity.Team;
+import study.querydsl.repository.MemberRepository;
+import study.querydsl.repository.support.MemberDataVersion;
+
+import javax.persistence.EntityManager;
+import java.io.ByteArrayOutputStream;
+import java.nio.charset.StandardCharsets;
+import java.util.Arrays;
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * chunk 마다 commit 되고, commit 이후의 listener 가 검색 table / data version 을 갱신하는지 본다.
+ *
+ * <pre>
+ *     - test transaction 없이 실행하기 때문에 넣은 data 는 직접 지운다.
+ *     - 이 test 만 쓰는 context 라서 schema 가 새로 만들어진 상태에서 시작한다. (옮겨질 member 는 여기서 넣은 것 뿐이다.)
+ *     - hot 검색은 member_search table 로 하기 때문에, bulk event 로 다시 만들어져야 옮긴 member 가 빠진다.
+ * </pre>
+ */
+@SpringBootTest(
+    properties = {
+      "member.archive.keep-recent=1",
+      "member.archive.chunk-size=1",
+      "member.search-table.enabled=true"
+    })
+class MemberArchiverTest {
+
+  @Autowired private EntityManager em;
+
+  @Autowired private PlatformTransactionManager transactionManager;
+
+  @Autowired private MemberArchiver memberArchiver;
+
+  @Autowired private MemberRepository memberRepository;
+
+  @Autowired private MemberDataVersion memberDataVersion;
+
+  @Autowired private MemberCsvExporter memberCsvExporter;
+
+  private Team team;
+  private Member active;
+  private Member inactive1;
+  private Member inactive2;
+  private Member recent;
+
+  @AfterEach
+  void cleanUp() {
+    if (recent == null) {
+      return;
+    }
+
+    new TransactionTemplate(transactionManager)
+        .executeWithoutResult(
+            status -> {
+              em.createQuery("delete from MemberArchive a where a.memberId in :ids")
+                  .setParameter("ids", Arrays.asList(inactive1.getId(), inactive2.getId()))
+                  .executeUpdate();
+              // member_search 도 지워지도록 entity 로 지운다.
+              for (Member member : Arrays.asList(active, recent)) {
+                Member found = em.find(Member.class, member.getId());
+                if (found != null) {
+                  em.remove(found);
+                }
+              }
+              em.createQuery("delete from Team t where t.id = :id")
+                  .setParameter("id", team.getId())
+                  .executeUpdate();
+            });
+  }
+
+  @Test
+  void testArchiveAndSearch() throws Exception {
+    // given
+    new TransactionTemplate(transactionManager)
+        .executeWithoutResult(
+            status -> {
+              team = new Team("archiveTeam");
+              em.persist(team);
+
+              active = new Member("archiveMember1", 777, team);
+              inactive1 = new Member("archiveMember2", 777);
+              inactive2 = new Member("archiveMember3", 777);
+              recent = new Member("archiveMember4", 777);
+
+              em.persist(active);
+              em.persist(inactive1);
+              em.persist(inactive2);
+              em.persist(recent); // id 가 가장 크다.
+            });
+
+    MemberSearchCondition condition = new MemberSearchCondition();
+    condition.setAgeGoe(777);
+    condition.setAgeLoe(777);
+
+    assertThat(memberRepository.search(condition)).hasSize(4);
+
+    long versionBefore = memberDataVersion.current();
+
+    // when - chunk 크기가 1 이라서 한 명씩 따로 commit 된다.
+    long archived = memberArchiver.archive();
+
+    // then
+    assertThat(archived).isEqualTo(2);
+
+    // 옮긴 chunk 마다가 아니라, 끝나고 한번 올라간다.
+    assertThat(memberDataVersion.current()).isEqualTo(versionBefore + 1);
+
+    new TransactionTemplate(transactionManager)
+        .executeWithoutResult(
+            status -> {
+              assertThat(em.find(Member.class, inactive1.getId())).isNull();
+              assertThat(em.find(Member.class, inactive2.getId())).isNull();
+              assertThat(em.find(MemberArchive.class, inactive1.getId()).getUsername())
+                  .isEqualTo("archiveMember2");
+              assertThat(em.find(MemberArchive.class, inactive2.getId()).getUsername())
+                  .isEqualTo("archiveMember3");
+
+              // team 이 있거나 최근 member 는 남는다.
+              assertThat(em.find(Member.class, active.getId())).isNotNull();
+              assertThat(em.find(Member.class, recent.getId())).isNotNull();
+            });
+
+    // member_search 가 다시 만들어져서 옮긴 member 가 빠진다.
+    List<MemberTeamDto> hot = memberRepository.search(condition);
+    assertThat(hot)
+        .extracting("username")
+        .containsExactlyInAnyOrder("archiveMember1", "archiveMember4");
+
+    condition.setIncludeArchived(true);
+
+    List<MemberTeamDto> all = memberRepository.search(condition);
+    assertThat(all)
+        .extracting("username")
+        .containsExactlyInAnyOrder(
+            "archiveMember1", "archiveMember2", "archiveMember3", "archiveMember4");
+
+    // hot 2명 다음에 archive 가 이어진다.
+    Page<MemberTeamDto> page = memberRepository.searchPageComplex(condition, PageRequest.of(1, 3));
+    assertThat(page.getTotalElements()).isEqualTo(4);
+    assertThat(page.getContent()).hasSize(1);
+
+    // export 도 member 다음에 archive 를 이어서 내보낸다.
+    ByteArrayOutputStream out = new ByteArrayOutputStream();
+    long rows = memberCsvExporter.export(condition, out);
+
+    assertThat(rows).isEqualTo(4);
+    assertThat(out.toString(StandardCharsets.UTF_8.name()))
+        .contains("archiveMember1", "archiveMember2", "archiveMember3", "archiveMember4");
+
+    // 다시 돌려도 옮길 member 가 없다.
+    assertThat(memberArchiver.archive()).isZero();
+    assertThat(memberDataVersion.current()).isEqualTo(versionBefore + 1);
+  }
+}
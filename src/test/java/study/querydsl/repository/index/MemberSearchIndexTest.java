@@ -0,0 +1,92 @@
+package study.querydsl.repository.index;
+
+import org.junit.jupiter.api.Test;
+import study.querydsl.dto.MemberSearchCondition;
+import study.querydsl.dto.MemberTeamDto;
+
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class MemberSearchIndexTest {
+
+  @Test
+  void testScan() throws Exception {
+    // given
+    MemberSearchIndex.Columns columns = new MemberSearchIndex.Columns(16);
+
+    columns.upsertTeam(1L, "teamA");
+    columns.upsertTeam(2L, "teamB");
+
+    for (long id = 1; id <= 2_000; id++) {
+      columns.upsertMember(id, "member" + id, (int) (id % 100), id % 2 == 0 ? 1L : 2L);
+    }
+
+    columns.upsertMember(3_000L, "noTeam", 40, null);
+
+    // when
+    MemberSearchCondition condition = new MemberSearchCondition();
+
+    condition.setTeamName("teamB");
+    condition.setAgeGoe(35);
+    condition.setAgeLoe(45);
+
+    List<MemberTeamDto> page = new ArrayList<>();
+    long total = columns.scan(condition, 2, 3, page);
+
+    // then
+    // teamB 는 홀수 id, age = id % 100 -> 35 ~ 45 중 홀수 6개 * 20
+    assertThat(total).isEqualTo(120);
+    assertThat(page).extracting("memberId").containsExactly(39L, 41L, 43L);
+    assertThat(page).extracting("teamName").containsOnly("teamB");
+  }
+
+  @Test
+  void testIncrementalChange() throws Exception {
+    // given
+    MemberSearchIndex.Columns columns = new MemberSearchIndex.Columns(16);
+
+    columns.upsertTeam(1L, "teamA");
+    columns.upsertTeam(2L, "teamB");
+    columns.upsertMember(1L, "member1", 10, 1L);
+    columns.upsertMember(2L, "member2", 20, 1L);
+
+    // when
+    columns.upsertMember(1L, "member1", 11, 2L);
+    columns.removeMember(2L);
+    columns.upsertTeam(2L, "teamC");
+
+    MemberSearchCondition condition = new MemberSearchCondition();
+    List<MemberTeamDto> result = new ArrayList<>();
+    long total = columns.scan(condition, 0, Integer.MAX_VALUE, result);
+
+    // then
+    assertThat(total).isEqualTo(1);
+    assertThat(result.get(0).getAge()).isEqualTo(11);
+    assertThat(result.get(0).getTeamName()).isEqualTo("teamC");
+  }
+
+  @Test
+  void testUsernameFilter() throws Exception {
+    // given
+    MemberSearchIndex.Columns columns = new MemberSearchIndex.Columns(16);
+
+    columns.upsertMember(1L, "member1", 10, null);
+    columns.upsertMember(2L, "member2", 20, null);
+
+    // when
+    MemberSearchCondition condition = new MemberSearchCondition();
+    condition.setUsername("member2");
+
+    List<MemberTeamDto> result = new ArrayList<>();
+    columns.scan(condition, 0, Integer.MAX_VALUE, result);
+
+    condition.setUsername("unknown");
+    long unknown = columns.scan(condition, 0, Integer.MAX_VALUE, new ArrayList<>());
+
+    // then
+    assertThat(result).extracting("username").containsExactly("member2");
+    assertThat(unknown).isZero();
+  }
+}
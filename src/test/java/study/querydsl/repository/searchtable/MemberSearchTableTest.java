@@ -0,0 +1,70 @@
+package study.querydsl.repository.searchtable;
+
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.data.domain.Page;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.test.annotation.Rollback;
+import org.springframework.transaction.annotation.Transactional;
+import study.querydsl.dto.MemberSearchCondition;
+import study.querydsl.dto.MemberTeamDto;
+import study.querydsl.entity.Member;
+import study.querydsl.entity.Team;
+import study.querydsl.repository.MemberRepository;
+
+import javax.persistence.EntityManager;
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+@SpringBootTest(properties = "member.search-table.enabled=true")
+@Transactional
+@Rollback(false)
+class MemberSearchTableTest {
+
+  @Autowired private EntityManager em;
+
+  @Autowired private MemberRepository memberRepository;
+
+  @Test
+  void testSyncAndSearch() throws Exception {
+    // given
+    Team teamA = new Team("searchTeamA");
+    Team teamB = new Team("searchTeamB");
+
+    em.persist(teamA);
+    em.persist(teamB);
+
+    Member member1 = new Member("member1", 10, teamA);
+    Member member2 = new Member("member2", 20, teamA);
+    Member member3 = new Member("member3", 30, teamB);
+
+    em.persist(member1);
+    em.persist(member2);
+    em.persist(member3);
+
+    em.flush();
+
+    // when
+    teamA.setName("renamedTeamA"); // team 이름 변경 - member_search 에 한번에 반영
+    member3.changeTeam(teamA);
+    member2.setAge(25);
+    em.remove(member1);
+
+    em.flush();
+    em.clear();
+
+    MemberSearchCondition condition = new MemberSearchCondition();
+    condition.setTeamName("renamedTeamA");
+
+    List<MemberTeamDto> result = memberRepository.search(condition);
+    Page<MemberTeamDto> page = memberRepository.searchPageComplex(condition, PageRequest.of(0, 1));
+
+    // then
+    assertThat(result).extracting("username").containsExactlyInAnyOrder("member2", "member3");
+    assertThat(result).extracting("age").containsExactlyInAnyOrder(25, 30);
+    assertThat(page.getTotalElements()).isEqualTo(2);
+    assertThat(page.getContent()).hasSize(1);
+  }
+}
@@ -0,0 +1,78 @@
+package study.querydsl.repository.searchtable;
+
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import study.querydsl.dto.MemberSearchCondition;
+import study.querydsl.dto.MemberTeamDto;
+import study.querydsl.dto.MemberUpsertDto;
+import study.querydsl.dto.TeamStatisticsDto;
+import study.querydsl.repository.MemberRepository;
+import study.querydsl.repository.statistics.TeamStatisticsRepository;
+
+import java.util.Arrays;
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/** upsert 는 commit 이후에 member_search / team_statistics 를 바뀐 id 만큼 다시 만든다. */
+@SpringBootTest(properties = "member.search-table.enabled=true")
+class MemberUpsertReadModelTest {
+
+  @Autowired private MemberRepository memberRepository;
+
+  @Autowired private TeamStatisticsRepository teamStatisticsRepository;
+
+  @Test
+  void testUpsertRefreshesReadModels() throws Exception {
+    // given - transaction 없이 호출해서 upsert 마다 commit 된다.
+    memberRepository.upsertByUsername(
+        Arrays.asList(
+            new MemberUpsertDto("readModel1", 10, "readModelTeamA"),
+            new MemberUpsertDto("readModel2", 20, "readModelTeamA"),
+            new MemberUpsertDto("readModel3", 30, null)));
+
+    // when
+    memberRepository.upsertByUsername(
+        Arrays.asList(
+            new MemberUpsertDto("readModel2", 25, "readModelTeamB"), // teamA -> teamB
+            new MemberUpsertDto("readModel3", 30, "readModelTeamB"),
+            new MemberUpsertDto("readModel4", 40, "readModelTeamA")));
+
+    // then - member_search
+    MemberSearchCondition teamA = new MemberSearchCondition();
+    teamA.setTeamName("readModelTeamA");
+    List<MemberTeamDto> searchA = memberRepository.search(teamA);
+
+    MemberSearchCondition teamB = new MemberSearchCondition();
+    teamB.setTeamName("readModelTeamB");
+    List<MemberTeamDto> searchB = memberRepository.search(teamB);
+
+    assertThat(searchA)
+        .extracting("username")
+        .containsExactlyInAnyOrder("readModel1", "readModel4");
+    assertThat(searchB)
+        .extracting("username")
+        .containsExactlyInAnyOrder("readModel2", "readModel3");
+    assertThat(searchB).extracting("age").containsExactlyInAnyOrder(25, 30);
+
+    // then - team_statistics
+    TeamStatisticsDto statisticsA = find("readModelTeamA");
+    TeamStatisticsDto statisticsB = find("readModelTeamB");
+
+    assertThat(statisticsA.getMemberCount()).isEqualTo(2);
+    assertThat(statisticsA.getAgeSum()).isEqualTo(50);
+    assertThat(statisticsB.getMemberCount()).isEqualTo(2);
+    assertThat(statisticsB.getAgeSum()).isEqualTo(55);
+
+    assertThat(teamStatisticsRepository.verify())
+        .doesNotContain(statisticsA.getTeamId(), statisticsB.getTeamId());
+  }
+
+  private TeamStatisticsDto find(String teamName) {
+    return teamStatisticsRepository.findAll().stream()
+        .filter(s -> s.getTeamName().equals(teamName))
+        .findFirst()
+        .orElseThrow(IllegalStateException::new);
+  }
+}
@@ -0,0 +1,81 @@
+package study.querydsl.repository.sql;
+
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.data.domain.Page;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.test.annotation.Rollback;
+import org.springframework.transaction.annotation.Transactional;
+import study.querydsl.dto.MemberSearchCondition;
+import study.querydsl.dto.MemberTeamDto;
+import study.querydsl.entity.Member;
+import study.querydsl.entity.Team;
+import study.querydsl.repository.MemberRepository;
+
+import javax.persistence.EntityManager;
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.tuple;
+
+@SpringBootTest(properties = "member.search.engine=sql")
+@Transactional
+@Rollback(false)
+class MemberSqlSearchRepositoryTest {
+
+  @Autowired private EntityManager em;
+
+  @Autowired private MemberRepository memberRepository;
+
+  @Test
+  void testSearch() throws Exception {
+    // given
+    Team teamA = new Team("sqlTeamA");
+    Team teamB = new Team("sqlTeamB");
+
+    em.persist(teamA);
+    em.persist(teamB);
+
+    Member member1 = new Member("sqlMember1", 10, teamA);
+    Member member2 = new Member("sqlMember2", 20, teamA);
+    Member member3 = new Member("sqlMember3", 30, teamB);
+
+    em.persist(member1);
+    em.persist(member2);
+    em.persist(member3);
+    em.persist(new Member("sqlMember4", 40));
+
+    // querydsl-sql 은 auto flush 를 하지 않는다.
+    em.flush();
+
+    MemberSearchCondition condition = new MemberSearchCondition();
+    condition.setTeamName("sqlTeamA");
+    condition.setAgeGoe(15);
+
+    // when
+    List<MemberTeamDto> result = memberRepository.search(condition);
+
+    MemberSearchCondition byUsername = new MemberSearchCondition();
+    byUsername.setUsername("sqlMember4");
+    List<MemberTeamDto> noTeam = memberRepository.search(byUsername);
+
+    MemberSearchCondition byTeam = new MemberSearchCondition();
+    byTeam.setTeamName("sqlTeamA");
+    Page<MemberTeamDto> page = memberRepository.searchPageComplex(byTeam, PageRequest.of(0, 1));
+
+    // then
+    assertThat(result).hasSize(1);
+    assertThat(result.get(0).getMemberId()).isEqualTo(member2.getId());
+    assertThat(result.get(0).getUsername()).isEqualTo("sqlMember2");
+    assertThat(result.get(0).getAge()).isEqualTo(20);
+    assertThat(result.get(0).getTeamId()).isEqualTo(teamA.getId());
+    assertThat(result.get(0).getTeamName()).isEqualTo("sqlTeamA");
+
+    // left join - team 이 없어도 조회된다.
+    assertThat(noTeam).extracting("teamId", "teamName").containsExactly(tuple(null, null));
+
+    assertThat(page.getTotalElements()).isEqualTo(2);
+    assertThat(page.getContent()).hasSize(1);
+  }
+}
@@ -0,0 +1,107 @@
+package study.querydsl.repository.statistics;
+
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.test.annotation.Rollback;
+import org.springframework.transaction.annotation.Transactional;
+import study.querydsl.dto.TeamStatisticsDto;
+import study.querydsl.entity.Member;
+import study.querydsl.entity.Team;
+
+import javax.persistence.EntityManager;
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+@SpringBootTest
+@Transactional
+@Rollback(false)
+class TeamStatisticsRepositoryTest {
+
+  @Autowired private EntityManager em;
+
+  @Autowired private TeamStatisticsRepository teamStatisticsRepository;
+
+  @Test
+  void testIncrementalStatistics() throws Exception {
+    // given
+    Team teamA = new Team("teamA");
+    Team teamB = new Team("teamB");
+
+    em.persist(teamA);
+    em.persist(teamB);
+
+    Member member1 = new Member("member1", 10, teamA);
+    Member member2 = new Member("member2", 20, teamA);
+    Member member3 = new Member("member3", 30, teamB);
+    Member member4 = new Member("member4", 40, teamB);
+
+    em.persist(member1);
+    em.persist(member2);
+    em.persist(member3);
+    em.persist(member4);
+
+    em.flush();
+
+    // when
+    member4.changeTeam(teamA); // teamB -> teamA
+    member1.setAge(15);
+    em.remove(member3);
+
+    em.flush();
+    em.clear();
+
+    // then
+    TeamStatisticsDto statisticsA = find(teamA);
+    TeamStatisticsDto statisticsB = find(teamB);
+
+    assertThat(statisticsA.getMemberCount()).isEqualTo(3);
+    assertThat(statisticsA.getAgeSum()).isEqualTo(75);
+    assertThat(statisticsA.getAgeAvg()).isEqualTo(25);
+    assertThat(statisticsA.getAgeMin()).isEqualTo(15);
+    assertThat(statisticsA.getAgeMax()).isEqualTo(40);
+
+    assertThat(statisticsB.getMemberCount()).isZero();
+    assertThat(statisticsB.getAgeAvg()).isNull();
+    assertThat(statisticsB.getAgeMin()).isNull();
+    assertThat(statisticsB.getAgeMax()).isNull();
+
+    assertThat(teamStatisticsRepository.verify()).doesNotContain(teamA.getId(), teamB.getId());
+  }
+
+  @Test
+  void testRebuild() throws Exception {
+    // given
+    Team teamA = new Team("teamA");
+
+    em.persist(teamA);
+    em.persist(new Member("member1", 10, teamA));
+    em.persist(new Member("member2", 20, teamA));
+
+    em.flush();
+
+    // event 가 발생하지 않는 bulk update
+    em.createQuery("update Member m set m.age = m.age + 1 where m.team = :team")
+        .setParameter("team", teamA)
+        .executeUpdate();
+
+    assertThat(teamStatisticsRepository.verify()).contains(teamA.getId());
+
+    // when
+    teamStatisticsRepository.rebuild();
+
+    // then
+    assertThat(teamStatisticsRepository.verify()).isEmpty();
+    assertThat(find(teamA).getAgeSum()).isEqualTo(32);
+  }
+
+  private TeamStatisticsDto find(Team team) {
+    List<TeamStatisticsDto> statistics = teamStatisticsRepository.findAll();
+
+    return statistics.stream()
+        .filter(s -> s.getTeamId().equals(team.getId()))
+        .findFirst()
+        .orElseThrow(IllegalStateException::new);
+  }
+}
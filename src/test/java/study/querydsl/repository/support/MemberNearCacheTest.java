@@ -0,0 +1,108 @@
+package study.querydsl.repository.support;
+
+import org.hibernate.SessionFactory;
+import org.hibernate.stat.Statistics;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+import study.querydsl.entity.Member;
+import study.querydsl.entity.Team;
+import study.querydsl.repository.MemberJpaRepository;
+import study.querydsl.repository.MemberRepository;
+
+import javax.persistence.EntityManager;
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/** cache 는 transaction 밖에서만 쓰기 때문에, test data 를 먼저 commit 해야 한다. */
+@SpringBootTest
+class MemberNearCacheTest {
+
+  @Autowired private EntityManager em;
+
+  @Autowired private PlatformTransactionManager transactionManager;
+
+  @Autowired private ApplicationEventPublisher eventPublisher;
+
+  @Autowired private MemberJpaRepository memberJpaRepository;
+
+  @Autowired private MemberRepository memberRepository;
+
+  @Autowired private MemberNearCache nearCache;
+
+  @Test
+  void testFindById() throws Exception {
+    // given
+    TransactionTemplate transaction = new TransactionTemplate(transactionManager);
+
+    Long id =
+        transaction.execute(
+            status -> {
+              Team team = new Team("nearCacheTeam");
+              em.persist(team);
+
+              Member member = new Member("nearCache1", 10, team);
+              em.persist(member);
+              return member.getId();
+            });
+
+    Statistics statistics =
+        em.getEntityManagerFactory().unwrap(SessionFactory.class).getStatistics();
+    statistics.clear();
+
+    // when
+    Member first = memberJpaRepository.findById(id).get();
+    Member second = memberJpaRepository.findById(id).get();
+
+    // then
+    assertThat(statistics.getPrepareStatementCount()).isEqualTo(1);
+    assertThat(second.getAge()).isEqualTo(10);
+    assertThat(second.getTeam().getName()).isEqualTo("nearCacheTeam");
+    assertThat(first).isNotSameAs(second);
+
+    // commit 되면 지워진다.
+    transaction.executeWithoutResult(status -> em.find(Member.class, id).setAge(20));
+    assertThat(memberJpaRepository.findById(id).get().getAge()).isEqualTo(20);
+
+    // transaction 안에서는 cache 를 보지 않고, 자기가 쓴 값을 읽는다.
+    transaction.executeWithoutResult(
+        status -> {
+          Member managed = em.find(Member.class, id);
+          managed.setAge(30);
+
+          assertThat(memberJpaRepository.findById(id).get()).isSameAs(managed);
+          status.setRollbackOnly();
+        });
+    assertThat(memberJpaRepository.findById(id).get().getAge()).isEqualTo(20);
+  }
+
+  @Test
+  void testFindByUsername() throws Exception {
+    // given
+    TransactionTemplate transaction = new TransactionTemplate(transactionManager);
+
+    transaction.executeWithoutResult(status -> em.persist(new Member("nearCache2", 10)));
+
+    // 없는 username 도 cache 되었다가, 추가되면 지워진다.
+    assertThat(memberRepository.findByUsername("nearCache3")).isEmpty();
+    transaction.executeWithoutResult(status -> em.persist(new Member("nearCache3", 30)));
+
+    // when
+    List<Member> found = memberRepository.findByUsername("nearCache3");
+    memberRepository.findByUsername("nearCache2");
+    double hitRatio = nearCache.hitRatio();
+    memberRepository.findByUsername("nearCache2");
+
+    // then
+    assertThat(found).extracting("age").containsExactly(30);
+    assertThat(nearCache.hitRatio()).isGreaterThan(hitRatio);
+
+    // bulk 변경은 전부 지운다.
+    eventPublisher.publishEvent(new MembersBulkChangedEvent("test", 1));
+    assertThat(nearCache.size()).isZero();
+  }
+}
@@ -0,0 +1,141 @@
+package study.querydsl.repository.support;
+
+import org.hibernate.SessionFactory;
+import org.hibernate.stat.Statistics;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.test.annotation.Rollback;
+import org.springframework.transaction.annotation.Transactional;
+import study.querydsl.entity.Member;
+
+import javax.persistence.EntityManager;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
+import java.util.function.Function;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+@SpringBootTest
+@Transactional
+@Rollback(false)
+class MultiGetSupportTest {
+
+  @Autowired private EntityManager em;
+
+  @Test
+  void testFindAllByIds() throws Exception {
+    // given
+    Member member1 = new Member("member1", 10);
+    Member member2 = new Member("member2", 20);
+    Member member3 = new Member("member3", 30);
+
+    em.persist(member1);
+    em.persist(member2);
+    em.persist(member3);
+
+    em.flush();
+    em.clear();
+
+    // 영속성 컨텍스트에 미리 올라와 있는 member
+    Member cached = em.find(Member.class, member2.getId());
+
+    List<List<Long>> chunks = new ArrayList<>();
+
+    // when
+    List<Member> result =
+        findAllByIds(
+            Arrays.asList(member3.getId(), member2.getId(), -1L, member1.getId(), member3.getId()),
+            chunks);
+
+    // then
+    // 요청한 순서대로, 중복 id 는 한번만, 없는 id 는 빼고 준다.
+    assertThat(result)
+        .extracting("id")
+        .containsExactly(member3.getId(), member2.getId(), member1.getId());
+    assertThat(result.get(1)).isSameAs(cached);
+
+    // 영속성 컨텍스트에 있던 member2 는 조회하지 않고, 나머지는 8 개로 채워서 한번에 조회한다.
+    assertThat(chunks).hasSize(1);
+    assertThat(chunks.get(0)).hasSize(8).doesNotContain(member2.getId());
+    assertThat(chunks.get(0).subList(0, 3)).containsExactly(member3.getId(), -1L, member1.getId());
+    assertThat(chunks.get(0).subList(3, 8)).containsOnly(member1.getId());
+  }
+
+  @Test
+  void testFindAllByIdsAllCached() throws Exception {
+    // given
+    Member member1 = new Member("member1", 10);
+    Member member2 = new Member("member2", 20);
+
+    em.persist(member1);
+    em.persist(member2);
+
+    em.flush();
+
+    Statistics statistics =
+        em.getEntityManagerFactory().unwrap(SessionFactory.class).getStatistics();
+    statistics.clear();
+
+    List<List<Long>> chunks = new ArrayList<>();
+
+    // when
+    List<Member> result = findAllByIds(Arrays.asList(member2.getId(), member1.getId()), chunks);
+
+    // then - 모두 영속성 컨텍스트에 있으면 query 가 나가지 않는다.
+    assertThat(result).containsExactly(member2, member1);
+    assertThat(chunks).isEmpty();
+    assertThat(statistics.getPrepareStatementCount()).isZero();
+  }
+
+  @Test
+  void testFindAllByIdsChunks() throws Exception {
+    // given - 없는 id 라도 나누는 방식은 같다.
+    List<Long> ids = new ArrayList<>();
+    for (long id = -1; id >= -600; id--) {
+      ids.add(id);
+    }
+
+    List<List<Long>> chunks = new ArrayList<>();
+
+    // when
+    List<Member> result = findAllByIds(ids, chunks);
+
+    // then - 512 개 + 나머지 88 개를 128 개로 채운다.
+    assertThat(result).isEmpty();
+    assertThat(chunks).extracting(List::size).containsExactly(512, 128);
+  }
+
+  @Test
+  void testFindAllByIdsEmpty() throws Exception {
+    List<List<Long>> chunks = new ArrayList<>();
+
+    assertThat(findAllByIds(Collections.emptyList(), chunks)).isEmpty();
+    assertThat(findAllByIds(null, chunks)).isEmpty();
+    assertThat(chunks).isEmpty();
+  }
+
+  @Test
+  void testPaddedSize() throws Exception {
+    assertThat(MultiGetSupport.paddedSize(1)).isEqualTo(8);
+    assertThat(MultiGetSupport.paddedSize(8)).isEqualTo(8);
+    assertThat(MultiGetSupport.paddedSize(9)).isEqualTo(32);
+    assertThat(MultiGetSupport.paddedSize(129)).isEqualTo(512);
+    assertThat(MultiGetSupport.paddedSize(512)).isEqualTo(512);
+  }
+
+  /** 실제 조회는 IN 절 query 로 하고, loader 에 넘어간 id 목록을 남긴다. */
+  private List<Member> findAllByIds(List<Long> ids, List<List<Long>> chunks) {
+    Function<List<Long>, List<Member>> loader =
+        chunk -> {
+          chunks.add(new ArrayList<>(chunk));
+          return em.createQuery("select m from Member m where m.id in :ids", Member.class)
+              .setParameter("ids", chunk)
+              .getResultList();
+        };
+
+    return MultiGetSupport.findAllByIds(em, Member.class, ids, loader, Member::getId);
+  }
+}
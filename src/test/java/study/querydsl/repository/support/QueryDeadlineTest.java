@@ -0,0 +1,41 @@
+package study.querydsl.repository.support;
+
+import org.junit.jupiter.api.Test;
+
+import javax.persistence.QueryTimeoutException;
+import java.time.Duration;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+class QueryDeadlineTest {
+
+  @Test
+  void testRemainingSeconds() throws Exception {
+    assertThat(QueryDeadline.remainingSeconds()).isNull();
+
+    // 초 단위로 올림한다.
+    assertThat(QueryDeadline.call(Duration.ofMillis(1500), QueryDeadline::remainingSeconds))
+        .isEqualTo(2);
+    assertThat(QueryDeadline.call(Duration.ofMillis(10), QueryDeadline::remainingSeconds))
+        .isEqualTo(1);
+
+    // 안쪽 deadline 이 끝나면 바깥 deadline 으로 돌아간다.
+    assertThat(
+            QueryDeadline.call(
+                Duration.ofSeconds(10),
+                () -> {
+                  QueryDeadline.call(Duration.ofSeconds(1), QueryDeadline::remainingSeconds);
+                  return QueryDeadline.remainingSeconds();
+                }))
+        .isEqualTo(10);
+
+    assertThat(QueryDeadline.remainingSeconds()).isNull();
+  }
+
+  @Test
+  void testExpired() {
+    assertThatThrownBy(() -> QueryDeadline.call(Duration.ZERO, QueryDeadline::remainingSeconds))
+        .isInstanceOf(QueryTimeoutException.class);
+  }
+}
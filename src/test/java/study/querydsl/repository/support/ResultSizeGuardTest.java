@@ -0,0 +1,43 @@
+package study.querydsl.repository.support;
+
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.Test;
+
+import java.util.Arrays;
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class ResultSizeGuardTest {
+
+  @Test
+  void testFetch() throws Exception {
+    // given
+    SimpleMeterRegistry meterRegistry = new SimpleMeterRegistry();
+    ResultSizeGuard guard = new ResultSizeGuard(3, meterRegistry);
+
+    List<Integer> rows = Arrays.asList(1, 2, 3, 4, 5);
+    int[] requested = new int[1];
+
+    // when
+    List<Integer> small =
+        guard.fetch("test", limit -> rows.subList(0, Math.min(limit, 3)));
+    List<Integer> large =
+        guard.fetch(
+            "test",
+            limit -> {
+              requested[0] = limit;
+              return rows.subList(0, Math.min(limit, rows.size()));
+            });
+
+    // then
+    assertThat(small).containsExactly(1, 2, 3).isNotInstanceOf(TruncatedList.class);
+
+    // limit + 1 개만 조회한다.
+    assertThat(requested[0]).isEqualTo(4);
+    assertThat(large).containsExactly(1, 2, 3).isInstanceOf(TruncatedList.class);
+
+    assertThat(meterRegistry.counter("member.search.truncated", "source", "test").count())
+        .isEqualTo(1);
+  }
+}
@@ -0,0 +1,87 @@
+package study.querydsl.repository.support;
+
+import org.junit.jupiter.api.Test;
+
+import java.sql.Statement;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.verify;
+
+class RunningStatementsTest {
+
+  @Test
+  void testCancelFromAnotherThread() throws Exception {
+    // given
+    RunningStatements running = new RunningStatements();
+    Statement statement = mock(Statement.class);
+    CountDownLatch prepared = new CountDownLatch(1);
+    CountDownLatch cancelled = new CountDownLatch(1);
+
+    ExecutorService executor = Executors.newSingleThreadExecutor();
+
+    try {
+      Future<?> search =
+          executor.submit(
+              () ->
+                  running.track(
+                      () -> {
+                        RunningStatements.prepared(statement);
+                        prepared.countDown();
+                        cancelled.await(5, TimeUnit.SECONDS);
+                        RunningStatements.closed(statement);
+                        return null;
+                      }));
+
+      prepared.await(5, TimeUnit.SECONDS);
+
+      // when
+      running.cancel();
+      cancelled.countDown();
+      search.get(5, TimeUnit.SECONDS);
+
+      // then
+      verify(statement).cancel();
+    } finally {
+      executor.shutdown();
+    }
+  }
+
+  @Test
+  void testPreparedAfterCancel() throws Exception {
+    // given
+    RunningStatements running = new RunningStatements();
+    Statement statement = mock(Statement.class);
+
+    running.cancel();
+
+    // when - 취소된 후에 준비된 statement 는 바로 취소한다.
+    running.track(
+        () -> {
+          RunningStatements.prepared(statement);
+          return null;
+        });
+
+    // then
+    verify(statement).cancel();
+  }
+
+  @Test
+  void testOutsideTrack() throws Exception {
+    // given
+    RunningStatements running = new RunningStatements();
+    Statement statement = mock(Statement.class);
+
+    // when - track() 밖에서 준비된 statement 는 잡지 않는다.
+    RunningStatements.prepared(statement);
+    running.cancel();
+
+    // then
+    verify(statement, never()).cancel();
+  }
+}